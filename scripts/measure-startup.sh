@@ -0,0 +1,68 @@
+#!/bin/sh
+# Measures cold-start-to-ready time of the packaged jar with the bundled dataset preloaded, in the layouts the
+# README compares: the fat jar, the unpacked jar the image runs, and the unpacked jar with a CDS archive trained
+# the same way as in the dockerfile. Each layout is started RUNS times; every run prints the wall time from launch
+# until /actuator/health/readiness answers UP and Spring Boot's application.ready.time.
+#
+#   ./mvnw -DskipTests package && scripts/measure-startup.sh
+#   ./mvnw -Paot -DskipTests package && JAVA_OPTS=-Dspring.aot.enabled=true scripts/measure-startup.sh
+#
+# Environment: RUNS (default 5), PORT (default 18080), JAVA_OPTS (extra JVM options for every run), and
+# CPUS (e.g. 0 to pin every run to one CPU with taskset).
+set -eu
+
+RUNS=${RUNS:-5}
+PORT=${PORT:-18080}
+JAVA_OPTS=${JAVA_OPTS:-}
+jar=$(ls target/trading_analytics-*.jar | grep -v '\.original$' | head -n 1)
+work=$(mktemp -d)
+trap 'rm -rf "$work"' EXIT
+
+run_java() {
+    if [ -n "${CPUS:-}" ]; then
+        exec taskset -c "$CPUS" java "$@"
+    else
+        exec java "$@"
+    fi
+}
+
+# Same unpacking as the dockerfile's extract stage
+mkdir "$work/exploded" "$work/app" "$work/app/lib"
+(cd "$work/exploded" && jar xf "$OLDPWD/$jar" && cp BOOT-INF/lib/*.jar ../app/lib/)
+(cd "$work/app" \
+ && { grep '^Start-Class:' ../exploded/META-INF/MANIFEST.MF | sed 's/^Start-Class/Main-Class/' | tr -d '\r'; \
+      echo 'Class-Path: '; for lib in lib/*.jar; do echo "  $lib "; done; } > ../manifest.txt \
+ && jar cfm application.jar ../manifest.txt -C ../exploded/BOOT-INF/classes .)
+
+# Same training run as the image build
+(cd "$work/app" && run_java $JAVA_OPTS -XX:ArchiveClassesAtExit=app.jsa -Dspring.context.exit=onRefresh \
+    -jar application.jar --trading.persistence.dir="$work/training" > "$work/training.log" 2>&1)
+
+measure() {
+    label=$1; shift
+    i=1
+    while [ "$i" -le "$RUNS" ]; do
+        start=$(date +%s%N)
+        run_java $JAVA_OPTS "$@" --server.port="$PORT" --trading.preload.enabled=true \
+            --trading.persistence.dir="$work/data" > "$work/run.log" 2>&1 &
+        pid=$!
+        until curl -sf "localhost:$PORT/actuator/health/readiness" > /dev/null; do
+            if ! kill -0 "$pid" 2> /dev/null; then
+                cat "$work/run.log" >&2
+                exit 1
+            fi
+            sleep 0.05
+        done
+        end=$(date +%s%N)
+        ready=$(curl -s "localhost:$PORT/actuator/metrics/application.ready.time" | sed 's/.*"value":\([0-9.]*\).*/\1/')
+        echo "$label: wall-to-ready $(( (end - start) / 1000000 )) ms, application.ready.time ${ready} s"
+        kill "$pid"
+        wait "$pid" 2> /dev/null || true
+        rm -rf "$work/data"
+        i=$((i + 1))
+    done
+}
+
+measure "fat jar" -jar "$jar"
+(cd "$work/app" && measure "unpacked" -jar application.jar)
+(cd "$work/app" && measure "unpacked + CDS" -XX:SharedArchiveFile=app.jsa -jar application.jar)
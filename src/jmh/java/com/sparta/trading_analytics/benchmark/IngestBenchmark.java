@@ -0,0 +1,54 @@
+package com.sparta.trading_analytics.benchmark;
+
+import com.sparta.trading_analytics.model.Trade;
+import com.sparta.trading_analytics.perf.TradeGenerator;
+import com.sparta.trading_analytics.service.TradeService;
+import com.sparta.trading_analytics.store.ColumnarTradeStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link TradeService#addTrades} as a function of how much is already stored and of batch size.
+ * A flat line across {@code storeSize} means the duplicate check does not scan storage.
+ * {@link #generateOnly} measures the batch generation that {@link #addTrades} includes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class IngestBenchmark {
+
+    private static final int SHARDS = 8;
+
+    @Param({"0", "100000", "1000000"})
+    public int storeSize;
+
+    @Param({"1", "100", "1000"})
+    public int batchSize;
+
+    private TradeService tradeService;
+    private TradeGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tradeService = new TradeService(ColumnarTradeStore::new, SHARDS);
+        generator = new TradeGenerator(42, 10_000);
+        for (int loaded = 0; loaded < storeSize; loaded += 10_000) {
+            tradeService.addTrades(generator.nextBatch(Math.min(10_000, storeSize - loaded)));
+        }
+    }
+
+    @Benchmark
+    public void addTrades() {
+        tradeService.addTrades(generator.nextBatch(batchSize));
+    }
+
+    @Benchmark
+    public List<Trade> generateOnly() {
+        return generator.nextBatch(batchSize);
+    }
+}
@@ -0,0 +1,49 @@
+package com.sparta.trading_analytics.benchmark;
+
+import com.sparta.trading_analytics.service.TradeService;
+import com.sparta.trading_analytics.store.ColumnarTradeStore;
+import com.sparta.trading_analytics.perf.TradeGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TradeService#getInsights} at increasing store sizes, with trader cardinality held at 1,000.
+ * Because insights are maintained at ingest time, the result should not depend on {@code tradeCount}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class InsightsBenchmark {
+
+    private static final int SHARDS = 8;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int tradeCount;
+
+    private TradeService tradeService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tradeService = new TradeService(ColumnarTradeStore::new, SHARDS);
+        TradeGenerator generator = new TradeGenerator(42, 1_000);
+        for (int loaded = 0; loaded < tradeCount; loaded += 10_000) {
+            tradeService.addTrades(generator.nextBatch(Math.min(10_000, tradeCount - loaded)));
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> getInsights() {
+        return tradeService.getInsights();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> getTopTen() {
+        return tradeService.getTopTradersByVolume(10, null);
+    }
+}
@@ -0,0 +1,86 @@
+package com.sparta.trading_analytics.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sparta.trading_analytics.perf.TradeGenerator;
+import com.sparta.trading_analytics.service.InsightsCache;
+import com.sparta.trading_analytics.service.TradeService;
+import com.sparta.trading_analytics.store.ColumnarTradeStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@code /insights} polling latency while trades keep arriving: {@code pollers} threads fetch the response body
+ * as fast as they can while one thread ingests a batch of {@code batchSize} trades every millisecond, so most
+ * polls are cache hits and the tail is set by the polls that encode a new version.
+ * <p>
+ * {@code typed} goes through {@link InsightsCache}; {@code maps} caches per version the same way but renders
+ * the insights maps with the ObjectMapper, as the cache did before the typed writer. Read the {@code poll}
+ * percentiles; the {@code ingest} samples include its sleep.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class InsightsPollingBenchmark {
+
+    private static final int SHARDS = 8;
+    private static final int PRELOADED = 100_000;
+    private static final long INGEST_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Param({"typed", "maps"})
+    public String encoding;
+
+    @Param({"10"})
+    public int batchSize;
+
+    private TradeService tradeService;
+    private TradeGenerator generator;
+    private InsightsCache typed;
+    private ObjectMapper objectMapper;
+    private final AtomicReference<Rendered> rendered = new AtomicReference<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tradeService = new TradeService(ColumnarTradeStore::new, SHARDS);
+        generator = new TradeGenerator(42, 1_000);
+        for (int loaded = 0; loaded < PRELOADED; loaded += 10_000) {
+            tradeService.addTrades(generator.nextBatch(10_000));
+        }
+        objectMapper = new ObjectMapper();
+        typed = new InsightsCache(tradeService, objectMapper);
+    }
+
+    @Benchmark
+    @Group("polling")
+    @GroupThreads(4)
+    public byte[] poll() throws IOException {
+        if (encoding.equals("typed")) {
+            return typed.get().json();
+        }
+        Rendered current = rendered.get();
+        if (current != null && current.version() == tradeService.getVersion()) {
+            return current.json();
+        }
+        TradeService.VersionedInsights insights = tradeService.getVersionedInsights();
+        Rendered computed = new Rendered(insights.version(), objectMapper.writeValueAsBytes(insights.insights()));
+        rendered.accumulateAndGet(computed, (kept, fresh) -> kept == null || kept.version() < fresh.version() ? fresh : kept);
+        return computed.json();
+    }
+
+    @Benchmark
+    @Group("polling")
+    @GroupThreads(1)
+    public void ingest() {
+        tradeService.addTrades(generator.nextBatch(batchSize));
+        LockSupport.parkNanos(INGEST_INTERVAL_NANOS);
+    }
+
+    private record Rendered(long version, byte[] json) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.sparta.trading_analytics.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sparta.trading_analytics.codec.InsightsJsonWriter;
+import com.sparta.trading_analytics.model.InsightsPartial;
+import com.sparta.trading_analytics.model.Trade;
+import com.sparta.trading_analytics.perf.TradeGenerator;
+import com.sparta.trading_analytics.service.TradeService;
+import com.sparta.trading_analytics.store.ColumnarTradeStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson (de)serialization of trade lists, configured the way Spring Boot configures the application's
+ * ObjectMapper (ISO-8601 instants), and encoding of the {@code /insights} body from maps versus the typed writer,
+ * with {@code size} traders on the leaderboard. The {@code EndToEnd} variants also merge the shards' aggregates and
+ * rankings, which is what a new data version costs; run with {@code -prof gc} for allocation per response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+
+    private static final int SHARDS = 8;
+    private static final TypeReference<List<Trade>> TRADE_LIST = new TypeReference<>() {
+    };
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Trade> trades;
+    private byte[] json;
+    private TradeService tradeService;
+    private InsightsPartial insights;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        trades = new TradeGenerator(42, 1_000).nextBatch(size);
+        json = objectMapper.writeValueAsBytes(trades);
+
+        tradeService = new TradeService(ColumnarTradeStore::new, SHARDS);
+        tradeService.addTrades(new TradeGenerator(42, size).nextBatch(Math.max(10_000, size * 5)));
+        insights = tradeService.getInsightsPartial();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(trades);
+    }
+
+    @Benchmark
+    public byte[] insightsViaMaps() throws IOException {
+        return objectMapper.writeValueAsBytes(insights.render());
+    }
+
+    @Benchmark
+    public byte[] insightsTyped() {
+        return InsightsJsonWriter.toJson(objectMapper.getFactory(), insights.toResponse());
+    }
+
+    @Benchmark
+    public byte[] insightsViaMapsEndToEnd() throws IOException {
+        return objectMapper.writeValueAsBytes(tradeService.getInsights());
+    }
+
+    @Benchmark
+    public byte[] insightsTypedEndToEnd() {
+        return InsightsJsonWriter.toJson(objectMapper.getFactory(), tradeService.getInsightsResponse());
+    }
+
+    @Benchmark
+    public List<Trade> deserialize() throws IOException {
+        return objectMapper.readValue(json, TRADE_LIST);
+    }
+}
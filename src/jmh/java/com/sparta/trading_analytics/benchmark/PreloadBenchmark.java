@@ -0,0 +1,90 @@
+package com.sparta.trading_analytics.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sparta.trading_analytics.cluster.ClusterProperties;
+import com.sparta.trading_analytics.cluster.ClusterService;
+import com.sparta.trading_analytics.model.Trade;
+import com.sparta.trading_analytics.perf.TradeGenerator;
+import com.sparta.trading_analytics.service.DatasetPreloader;
+import com.sparta.trading_analytics.service.PreloadProperties;
+import com.sparta.trading_analytics.service.TradeService;
+import com.sparta.trading_analytics.store.ColumnarTradeStore;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.web.client.RestClient;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall time of an NDJSON startup preload into an empty {@link TradeService} as a function of
+ * {@code trading.preload.parallelism}. Each range is parsed on its own thread and committed through the
+ * per-shard apply, so the ratio between {@code parallelism=1} and higher values is the speedup the preload
+ * gets from the cores it is given; on a single core the rows are expected to be flat.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class PreloadBenchmark {
+
+    private static final int SHARDS = 8;
+
+    @Param({"1", "2", "4"})
+    public int parallelism;
+
+    @Param({"1000000"})
+    public int trades;
+
+    private Path file;
+    private DatasetPreloader preloader;
+
+    @Setup(Level.Trial)
+    public void writeDataset() throws IOException {
+        file = Files.createTempFile("preload-benchmark", ".ndjson");
+        ObjectWriter writer = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writer();
+        TradeGenerator generator = new TradeGenerator(42, 10_000);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int written = 0; written < trades; written += 10_000) {
+                for (Trade trade : generator.nextBatch(Math.min(10_000, trades - written))) {
+                    out.write(writer.writeValueAsString(trade));
+                    out.newLine();
+                }
+            }
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyService() {
+        TradeService tradeService = new TradeService(ColumnarTradeStore::new, SHARDS);
+        ObjectMapper objectMapper = new ObjectMapper();
+        ClusterService standalone = new ClusterService(new ClusterProperties(false, List.of(), 0, Duration.ofSeconds(5)),
+                null, tradeService, null, objectMapper, RestClient.builder());
+        preloader = new DatasetPreloader(new PreloadProperties(true, List.of(file.toUri().toString()), parallelism, 10_000),
+                tradeService, standalone, objectMapper, new DefaultResourceLoader());
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteDataset() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long preload() throws IOException {
+        return preloader.preload();
+    }
+}
@@ -0,0 +1,60 @@
+package com.sparta.trading_analytics.benchmark;
+
+import com.sparta.trading_analytics.analytics.GroupBy;
+import com.sparta.trading_analytics.model.GroupAggregate;
+import com.sparta.trading_analytics.perf.TradeGenerator;
+import com.sparta.trading_analytics.service.TradeService;
+import com.sparta.trading_analytics.store.ColumnarTradeStore;
+import com.sparta.trading_analytics.store.TradeFilter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TradeService#aggregate} group-by scans over 10M trades, single-threaded versus one worker per core
+ * ({@code parallelism = 0}). The ratio between the two is the scaling factor of the fork/join engine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class QueryBenchmark {
+
+    private static final int SHARDS = 8;
+
+    @Param({"10000000"})
+    public int tradeCount;
+
+    @Param({"1", "0"})
+    public int parallelism;
+
+    @Param({"COMMODITY", "COMMODITY_AND_TRADER"})
+    public GroupBy groupBy;
+
+    private TradeService tradeService;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tradeService = new TradeService(ColumnarTradeStore::new, SHARDS);
+        TradeGenerator generator = new TradeGenerator(42, 1_000);
+        for (int loaded = 0; loaded < tradeCount; loaded += 10_000) {
+            tradeService.addTrades(generator.nextBatch(Math.min(10_000, tradeCount - loaded)));
+        }
+        pool = new ForkJoinPool(parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public List<GroupAggregate> groupByAllTrades() {
+        return tradeService.aggregate(TradeFilter.NONE, groupBy, pool);
+    }
+}
@@ -0,0 +1,89 @@
+package com.sparta.trading_analytics.benchmark;
+
+import com.sparta.trading_analytics.metrics.TradeMetrics;
+import com.sparta.trading_analytics.perf.TradeGenerator;
+import com.sparta.trading_analytics.persistence.FsyncPolicy;
+import com.sparta.trading_analytics.persistence.PersistenceManager;
+import com.sparta.trading_analytics.persistence.PersistenceProperties;
+import com.sparta.trading_analytics.persistence.SnapshotStore;
+import com.sparta.trading_analytics.persistence.WriteAheadLog;
+import com.sparta.trading_analytics.service.TradeService;
+import com.sparta.trading_analytics.store.ColumnarTradeStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Startup recovery of {@code tradeCount} trades, either all from a snapshot or all by replaying the WAL.
+ * One operation opens the WAL and recovers into an empty {@link TradeService}, as
+ * {@link PersistenceManager#recover()} does on startup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class RecoveryBenchmark {
+
+    private static final int SHARDS = 8;
+    private static final long SEGMENT_BYTES = 64L << 20;
+
+    @Param({"1000000", "10000000"})
+    public int tradeCount;
+
+    @Param({"snapshot", "wal"})
+    public String source;
+
+    private Path dir;
+    private PersistenceProperties properties;
+
+    @Setup(Level.Trial)
+    public void writeData() throws IOException {
+        dir = Files.createTempDirectory("recovery-benchmark");
+        properties = new PersistenceProperties(true, dir, (int) (SEGMENT_BYTES >> 20), FsyncPolicy.NEVER,
+                Duration.ofMillis(100), Duration.ofDays(1));
+        try (WriteAheadLog wal = openWal()) {
+            TradeService tradeService = new TradeService(ColumnarTradeStore::new, SHARDS, wal, TradeMetrics.NONE);
+            TradeGenerator generator = new TradeGenerator(42, 10_000);
+            for (int loaded = 0; loaded < tradeCount; loaded += 10_000) {
+                tradeService.addTrades(generator.nextBatch(Math.min(10_000, tradeCount - loaded)));
+            }
+            if (source.equals("snapshot")) {
+                manager(tradeService, wal).snapshot();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteData() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public long recover() {
+        try (WriteAheadLog wal = openWal()) {
+            TradeService tradeService = new TradeService(ColumnarTradeStore::new, SHARDS, wal, TradeMetrics.NONE);
+            manager(tradeService, wal).recover();
+            return tradeService.getTradeCount();
+        }
+    }
+
+    private WriteAheadLog openWal() {
+        return new WriteAheadLog(dir.resolve("wal"), SEGMENT_BYTES, FsyncPolicy.NEVER, 100);
+    }
+
+    private PersistenceManager manager(TradeService tradeService, WriteAheadLog wal) {
+        return new PersistenceManager(tradeService, wal, new SnapshotStore(dir.resolve("snapshots")), properties);
+    }
+}
@@ -0,0 +1,56 @@
+package com.sparta.trading_analytics.benchmark;
+
+import com.sparta.trading_analytics.perf.TradeGenerator;
+import com.sparta.trading_analytics.service.TradeService;
+import com.sparta.trading_analytics.store.ColumnarTradeStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trader leaderboard cost against trader cardinality: the full ranked list embedded in {@code /insights}
+ * versus a top-10 read from the ranked structure.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TraderRankingBenchmark {
+
+    private static final int SHARDS = 8;
+
+    @Param({"1000", "10000", "100000"})
+    public int traderCount;
+
+    private TradeService tradeService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tradeService = new TradeService(ColumnarTradeStore::new, SHARDS);
+        TradeGenerator generator = new TradeGenerator(42, traderCount);
+        // Roughly ten trades per trader so almost every trader is present
+        int tradeCount = traderCount * 10;
+        for (int loaded = 0; loaded < tradeCount; loaded += 10_000) {
+            tradeService.addTrades(generator.nextBatch(Math.min(10_000, tradeCount - loaded)));
+        }
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> allTradersList() {
+        return tradeService.getTopTradersByVolume(Integer.MAX_VALUE, null);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> topTen() {
+        return tradeService.getTopTradersByVolume(10, null);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> topTenForCommodity() {
+        return tradeService.getTopTradersByVolume(10, "Gold");
+    }
+}
@@ -0,0 +1,109 @@
+package com.sparta.trading_analytics.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcome counters for one endpoint, safe to record from many threads.
+ * <p>
+ * Two histograms, in microseconds: <em>response time</em> is measured from when the open-loop schedule
+ * intended to send the request, so time spent queued behind a slow server is counted (the coordinated
+ * omission correction); <em>service time</em> is measured from when it was actually sent.
+ */
+final class EndpointStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private final String name;
+    private final Histogram responseTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder succeeded = new LongAdder();
+    private final AtomicLong items = new AtomicLong();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    void success(long intendedNanos, long sentNanos, long doneNanos, int itemCount) {
+        record(intendedNanos, sentNanos, doneNanos);
+        succeeded.increment();
+        items.addAndGet(itemCount);
+    }
+
+    void failure(long intendedNanos, long sentNanos, long doneNanos, String reason) {
+        record(intendedNanos, sentNanos, doneNanos);
+        errors.computeIfAbsent(reason, r -> new LongAdder()).increment();
+    }
+
+    /**
+     * A request the harness could not send, counted as an error with a response time up to {@code givenUpNanos}.
+     * There is no service time, since the server never saw it.
+     */
+    void notSent(long intendedNanos, long givenUpNanos, String reason) {
+        responseTime.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(givenUpNanos - intendedNanos)));
+        errors.computeIfAbsent(reason, r -> new LongAdder()).increment();
+    }
+
+    private void record(long intendedNanos, long sentNanos, long doneNanos) {
+        responseTime.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(doneNanos - intendedNanos)));
+        serviceTime.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(doneNanos - sentNanos)));
+    }
+
+    void report(PrintStream out, double measuredSeconds) {
+        long ok = succeeded.sum();
+        long failed = errors.values().stream().mapToLong(LongAdder::sum).sum();
+        out.printf("%n%s%n", name);
+        out.printf("  requests   %,d ok, %,d failed (%.3f%% errors)%n", ok, failed,
+                ok + failed == 0 ? 0.0 : 100.0 * failed / (ok + failed));
+        out.printf("  throughput %,.1f req/s", ok / measuredSeconds);
+        if (items.get() != ok) {
+            out.printf(", %,.1f trades/s", items.get() / measuredSeconds);
+        }
+        out.println();
+        new TreeMap<>(errors).forEach((reason, count) -> out.printf("  error      %s x %,d%n", reason, count.sum()));
+        printPercentiles(out, "response", responseTime);
+        printPercentiles(out, "service ", serviceTime);
+    }
+
+    void writeHistograms(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        write(directory.resolve(name.replaceAll("\\W+", "_") + "-response.hgrm"), responseTime);
+        write(directory.resolve(name.replaceAll("\\W+", "_") + "-service.hgrm"), serviceTime);
+    }
+
+    private static void printPercentiles(PrintStream out, String label, Histogram histogram) {
+        if (histogram.getTotalCount() == 0) {
+            return;
+        }
+        StringBuilder line = new StringBuilder("  " + label + " ms ");
+        for (double percentile : PERCENTILES) {
+            line.append(String.format(" p%s=%.2f", trim(percentile), histogram.getValueAtPercentile(percentile) / 1000.0));
+        }
+        line.append(String.format(" max=%.2f", histogram.getMaxValue() / 1000.0));
+        out.println(line);
+    }
+
+    private static void write(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            // Values are microseconds; scale the output to milliseconds
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private static String trim(double percentile) {
+        return percentile == Math.rint(percentile) ? Long.toString((long) percentile) : Double.toString(percentile);
+    }
+}
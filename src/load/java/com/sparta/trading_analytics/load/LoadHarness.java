@@ -0,0 +1,222 @@
+package com.sparta.trading_analytics.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sparta.trading_analytics.TradingAnalyticsApplication;
+import com.sparta.trading_analytics.model.Trade;
+import com.sparta.trading_analytics.perf.TradeGenerator;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator and latency soak harness for {@code POST /trades} and {@code GET /insights}.
+ * <p>
+ * Requests are issued on a fixed schedule ({@code --rate} per second) whether or not earlier ones have
+ * completed, and each latency is measured from its scheduled send time, so a stalled server shows up as the
+ * queueing delay its clients would really see instead of as fewer, faster samples. A request due while
+ * {@code --max-in-flight} are outstanding is not sent and is recorded as an error that took the full
+ * {@code --timeout}. Without {@code --url} the application is started in-process on a random localhost port.
+ * <pre>
+ * ./mvnw -Ploadtest -DskipTests compile exec:exec -Dload.args="--rate=2000 --duration=60s --trader-skew=1.1"
+ * </pre>
+ * Options (defaults in brackets): {@code --url} [in-process], {@code --rate} requests/s [1000], {@code --duration}
+ * [30s], {@code --warmup} [5s, not recorded], {@code --batch-size} trades per POST [10], {@code --insights-ratio}
+ * share of requests that are GET /insights [0.1], {@code --traders} [10000], {@code --trader-skew} Zipf exponent,
+ * 0 for uniform [0], {@code --commodity-mix} sample|uniform [sample], {@code --seed} [42], {@code --max-in-flight}
+ * [10000], {@code --timeout} [10s], {@code --report-dir} for .hgrm files [target/load-results].
+ */
+public final class LoadHarness {
+
+    private final Map<String, String> options;
+    private final ExecutorService httpExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(httpExecutor)
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final EndpointStats tradeStats = new EndpointStats("POST /trades");
+    private final EndpointStats insightsStats = new EndpointStats("GET /insights");
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private LoadHarness(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadHarness(parse(args)).run();
+    }
+
+    private void run() throws Exception {
+        double rate = Double.parseDouble(option("rate", "1000"));
+        Duration duration = duration("duration", "30s");
+        Duration warmup = duration("warmup", "5s");
+        int batchSize = Integer.parseInt(option("batch-size", "10"));
+        double insightsRatio = Double.parseDouble(option("insights-ratio", "0.1"));
+        int maxInFlight = Integer.parseInt(option("max-in-flight", "10000"));
+        Duration timeout = duration("timeout", "10s");
+        long seed = Long.parseLong(option("seed", "42"));
+        if (rate <= 0 || batchSize <= 0 || insightsRatio < 0 || insightsRatio > 1) {
+            throw new IllegalArgumentException("--rate and --batch-size must be positive, --insights-ratio within [0, 1]");
+        }
+
+        // Timestamps one millisecond apart, all in the past, and unique per run so reruns are not duplicates
+        long plannedTrades = (long) (rate * (1 - insightsRatio) * batchSize * (duration.plus(warmup).toMillis() / 1000.0));
+        TradeGenerator generator = new TradeGenerator(seed, Integer.parseInt(option("traders", "10000")),
+                Instant.now().minusMillis(plannedTrades + TimeUnit.MINUTES.toMillis(1)),
+                Double.parseDouble(option("trader-skew", "0")),
+                TradeGenerator.CommodityMix.valueOf(option("commodity-mix", "sample").toUpperCase(Locale.ROOT)));
+        SplittableRandom mix = new SplittableRandom(seed);
+
+        ConfigurableApplicationContext inProcess = null;
+        String url = options.get("url");
+        if (url == null) {
+            // Devtools would otherwise restart the application by re-running this main method
+            System.setProperty("spring.devtools.restart.enabled", "false");
+            inProcess = SpringApplication.run(TradingAnalyticsApplication.class,
+                    "--server.port=0", "--spring.main.banner-mode=off", "--logging.level.root=WARN");
+            url = "http://localhost:" + ((WebServerApplicationContext) inProcess).getWebServer().getPort();
+        }
+        URI tradesUri = URI.create(url).resolve("/trades");
+        URI insightsUri = URI.create(url).resolve("/insights");
+        System.out.printf("Driving %s at %,.0f req/s for %s after %s warm-up (batch %d, %.0f%% insights)%n",
+                url, rate, duration, warmup, batchSize, insightsRatio * 100);
+
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long intended = start + (long) (i * intervalNanos);
+                if (intended >= end) {
+                    break;
+                }
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                boolean measured = intended >= measureFrom;
+                boolean insights = mix.nextDouble() < insightsRatio;
+                EndpointStats stats = insights ? insightsStats : tradeStats;
+                if (inFlight.get() >= maxInFlight) {
+                    // Counted as if the request had been sent and timed out, which is what its client would see
+                    if (measured) {
+                        stats.notSent(intended, intended + timeout.toNanos(),
+                                "client: over " + maxInFlight + " requests in flight");
+                    }
+                    continue;
+                }
+                List<Trade> batch = insights ? null : generator.nextBatch(batchSize);
+                EndpointStats recordTo = measured ? stats : null;
+                inFlight.incrementAndGet();
+                requests.execute(() -> {
+                    try {
+                        HttpRequest request = insights
+                                ? HttpRequest.newBuilder(insightsUri).timeout(timeout).GET().build()
+                                : HttpRequest.newBuilder(tradesUri).timeout(timeout)
+                                        .header("Content-Type", "application/json")
+                                        .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(batch)))
+                                        .build();
+                        send(request, intended, recordTo, insights ? 1 : batch.size());
+                    } catch (IOException e) {
+                        // The batch could not be encoded, so nothing was sent
+                        if (recordTo != null) {
+                            recordTo.notSent(intended, System.nanoTime(), "client: " + e.getClass().getSimpleName());
+                        }
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+            // Closing the executor waits for the requests still in flight
+        } finally {
+            http.close();
+            httpExecutor.close();
+            if (inProcess != null) {
+                inProcess.close();
+            }
+        }
+
+        double measuredSeconds = duration.toNanos() / 1e9;
+        tradeStats.report(System.out, measuredSeconds);
+        insightsStats.report(System.out, measuredSeconds);
+        Path reportDir = Path.of(option("report-dir", "target/load-results"));
+        tradeStats.writeHistograms(reportDir);
+        insightsStats.writeHistograms(reportDir);
+        System.out.printf("%nFull percentile distributions written to %s%n", reportDir.toAbsolutePath());
+    }
+
+    private void send(HttpRequest request, long intended, EndpointStats stats, int items) {
+        long sent = System.nanoTime();
+        String failure;
+        try {
+            int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            failure = status >= 200 && status < 300 ? null : "HTTP " + status;
+        } catch (IOException e) {
+            failure = e.getClass().getSimpleName();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = "interrupted";
+        }
+        long done = System.nanoTime();
+        if (stats == null) {
+            return;
+        }
+        if (failure == null) {
+            stats.success(intended, sent, done, items);
+        } else {
+            stats.failure(intended, sent, done, failure);
+        }
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    private Duration duration(String name, String defaultValue) {
+        return DurationStyle.detectAndParse(option(name, defaultValue));
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int equals = arg.indexOf('=');
+            if (equals > 0) {
+                options.put(arg.substring(2, equals), arg.substring(equals + 1));
+            } else if (i + 1 < args.length) {
+                options.put(arg.substring(2), args[++i]);
+            } else {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+        }
+        return options;
+    }
+}
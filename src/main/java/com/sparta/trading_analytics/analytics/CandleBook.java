@@ -0,0 +1,179 @@
+package com.sparta.trading_analytics.analytics;
+
+import com.sparta.trading_analytics.model.Candle;
+import com.sparta.trading_analytics.model.SymbolTable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Per-commodity tumbling OHLC/VWAP buckets at every {@link CandleInterval}, updated trade by trade on ingest.
+ * <p>
+ * Series are indexed by {@link SymbolTable#COMMODITIES} id. Range queries walk only the buckets inside the
+ * range, never raw trades. Under retention, buckets finer than {@link #HISTORY_INTERVAL} only cover the
+ * retention window, while {@link #HISTORY_INTERVAL} candles keep the full history. Not thread-safe: it is
+ * guarded by the same lock as the other ingest-time aggregates.
+ */
+public class CandleBook {
+
+    static final CandleInterval HISTORY_INTERVAL = CandleInterval.ONE_HOUR;
+
+    // A CandleBucket plus its tree node and boxed start
+    private static final int ESTIMATED_BYTES_PER_BUCKET = 144;
+
+    private Series[] byCommodity = new Series[16];
+    private long bucketCount;
+
+    /**
+     * @param commodity {@link SymbolTable#COMMODITIES} id
+     */
+    public void addTrade(int commodity, long epochNanos, double price, int quantity) {
+        for (Map.Entry<CandleInterval, NavigableMap<Long, CandleBucket>> entry : series(commodity).buckets.entrySet()) {
+            long start = entry.getKey().bucketStart(epochNanos);
+            bucketAt(entry.getValue(), start).add(epochNanos, price, quantity);
+        }
+    }
+
+    /**
+     * Drops the buckets finer than {@link #HISTORY_INTERVAL} that start before {@code epochNanos}.
+     *
+     * @return number of buckets dropped
+     */
+    public long evictBefore(long epochNanos) {
+        long evicted = 0;
+        for (Series series : byCommodity) {
+            if (series == null) {
+                continue;
+            }
+            for (Map.Entry<CandleInterval, NavigableMap<Long, CandleBucket>> entry : series.buckets.entrySet()) {
+                if (entry.getKey().nanos() < HISTORY_INTERVAL.nanos()) {
+                    NavigableMap<Long, CandleBucket> aged = entry.getValue().headMap(epochNanos, false);
+                    evicted += aged.size();
+                    aged.clear();
+                }
+            }
+        }
+        bucketCount -= evicted;
+        return evicted;
+    }
+
+    /**
+     * Writes every bucket, by commodity name, for a snapshot.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        int commodities = 0;
+        for (Series series : byCommodity) {
+            if (series != null) {
+                commodities++;
+            }
+        }
+        out.writeInt(commodities);
+        for (int commodity = 0; commodity < byCommodity.length; commodity++) {
+            Series series = byCommodity[commodity];
+            if (series == null) {
+                continue;
+            }
+            SymbolTable.writeName(out, SymbolTable.COMMODITIES.name(commodity));
+            for (CandleInterval interval : CandleInterval.values()) {
+                NavigableMap<Long, CandleBucket> buckets = series.buckets.get(interval);
+                out.writeInt(buckets.size());
+                for (CandleBucket bucket : buckets.values()) {
+                    bucket.writeTo(out);
+                }
+            }
+        }
+    }
+
+    /**
+     * Merges in buckets written by {@link #writeTo(DataOutput)}.
+     */
+    public void readFrom(DataInput in) throws IOException {
+        for (int i = in.readInt(); i > 0; i--) {
+            Series series = series(SymbolTable.COMMODITIES.readSymbol(in));
+            for (CandleInterval interval : CandleInterval.values()) {
+                NavigableMap<Long, CandleBucket> buckets = series.buckets.get(interval);
+                for (int j = in.readInt(); j > 0; j--) {
+                    CandleBucket bucket = CandleBucket.readFrom(in);
+                    bucketAt(buckets, bucket.start()).merge(bucket);
+                }
+            }
+        }
+    }
+
+    /**
+     * Candles whose bucket starts in {@code [fromNanos, toNanos)}, oldest first.
+     */
+    public List<Candle> query(String commodity, CandleInterval interval, long fromNanos, long toNanos) {
+        return query(List.of(this), commodity, interval, fromNanos, toNanos);
+    }
+
+    /**
+     * Same as {@link #query(String, CandleInterval, long, long)} over several books (e.g. one per shard),
+     * merging buckets that cover the same time span.
+     */
+    public static List<Candle> query(List<CandleBook> books, String commodity, CandleInterval interval,
+                                     long fromNanos, long toNanos) {
+        if (fromNanos >= toNanos) {
+            return new ArrayList<>();
+        }
+
+        int symbol = SymbolTable.COMMODITIES.lookup(commodity);
+        NavigableMap<Long, CandleBucket> merged = new TreeMap<>();
+        for (CandleBook book : books) {
+            Series series = symbol >= 0 && symbol < book.byCommodity.length ? book.byCommodity[symbol] : null;
+            if (series == null) {
+                continue;
+            }
+            for (CandleBucket bucket : series.buckets.get(interval).subMap(fromNanos, true, toNanos, false).values()) {
+                merged.computeIfAbsent(bucket.start(), CandleBucket::new).merge(bucket);
+            }
+        }
+
+        List<Candle> candles = new ArrayList<>(merged.size());
+        for (CandleBucket bucket : merged.values()) {
+            candles.add(bucket.toCandle());
+        }
+        return candles;
+    }
+
+    /**
+     * Rough heap footprint of the buckets, for monitoring.
+     */
+    public long estimatedHeapBytes() {
+        return bucketCount * ESTIMATED_BYTES_PER_BUCKET;
+    }
+
+    private CandleBucket bucketAt(NavigableMap<Long, CandleBucket> buckets, long start) {
+        CandleBucket bucket = buckets.get(start);
+        if (bucket == null) {
+            bucket = new CandleBucket(start);
+            buckets.put(start, bucket);
+            bucketCount++;
+        }
+        return bucket;
+    }
+
+    private Series series(int commodity) {
+        if (commodity >= byCommodity.length) {
+            byCommodity = Arrays.copyOf(byCommodity, Math.max(commodity + 1, byCommodity.length * 2));
+        }
+        Series series = byCommodity[commodity];
+        if (series == null) {
+            series = new Series();
+            byCommodity[commodity] = series;
+        }
+        return series;
+    }
+
+    private static final class Series {
+        final EnumMap<CandleInterval, NavigableMap<Long, CandleBucket>> buckets = new EnumMap<>(CandleInterval.class);
+
+        Series() {
+            for (CandleInterval interval : CandleInterval.values()) {
+                buckets.put(interval, new TreeMap<>());
+            }
+        }
+    }
+}
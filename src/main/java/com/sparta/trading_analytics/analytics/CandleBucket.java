@@ -0,0 +1,97 @@
+package com.sparta.trading_analytics.analytics;
+
+import com.sparta.trading_analytics.model.Candle;
+import com.sparta.trading_analytics.store.EpochNanos;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Mutable accumulator behind one {@link Candle}. Open and close follow trade timestamps rather than
+ * arrival order, so late trades still land in the right place.
+ */
+final class CandleBucket {
+
+    private final long start;
+    private long openNanos = Long.MAX_VALUE;
+    private long closeNanos = Long.MIN_VALUE;
+    private double open;
+    private double close;
+    private double high = Double.NEGATIVE_INFINITY;
+    private double low = Double.POSITIVE_INFINITY;
+    private double notional;
+    private long volume;
+    private long tradeCount;
+
+    CandleBucket(long start) {
+        this.start = start;
+    }
+
+    void add(long epochNanos, double price, int quantity) {
+        if (epochNanos < openNanos) {
+            openNanos = epochNanos;
+            open = price;
+        }
+        if (epochNanos >= closeNanos) {
+            closeNanos = epochNanos;
+            close = price;
+        }
+        high = Math.max(high, price);
+        low = Math.min(low, price);
+        notional += price * quantity;
+        volume += quantity;
+        tradeCount++;
+    }
+
+    void merge(CandleBucket other) {
+        if (other.openNanos < openNanos) {
+            openNanos = other.openNanos;
+            open = other.open;
+        }
+        if (other.closeNanos >= closeNanos) {
+            closeNanos = other.closeNanos;
+            close = other.close;
+        }
+        high = Math.max(high, other.high);
+        low = Math.min(low, other.low);
+        notional += other.notional;
+        volume += other.volume;
+        tradeCount += other.tradeCount;
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeLong(start);
+        out.writeLong(openNanos);
+        out.writeLong(closeNanos);
+        out.writeDouble(open);
+        out.writeDouble(close);
+        out.writeDouble(high);
+        out.writeDouble(low);
+        out.writeDouble(notional);
+        out.writeLong(volume);
+        out.writeLong(tradeCount);
+    }
+
+    static CandleBucket readFrom(DataInput in) throws IOException {
+        CandleBucket bucket = new CandleBucket(in.readLong());
+        bucket.openNanos = in.readLong();
+        bucket.closeNanos = in.readLong();
+        bucket.open = in.readDouble();
+        bucket.close = in.readDouble();
+        bucket.high = in.readDouble();
+        bucket.low = in.readDouble();
+        bucket.notional = in.readDouble();
+        bucket.volume = in.readLong();
+        bucket.tradeCount = in.readLong();
+        return bucket;
+    }
+
+    long start() {
+        return start;
+    }
+
+    Candle toCandle() {
+        return new Candle(EpochNanos.toInstant(start), open, high, low, close, notional / volume, volume, tradeCount);
+    }
+}
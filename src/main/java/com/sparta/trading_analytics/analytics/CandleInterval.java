@@ -0,0 +1,45 @@
+package com.sparta.trading_analytics.analytics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bucket widths maintained by {@link CandleBook}.
+ */
+public enum CandleInterval {
+
+    ONE_SECOND("1s", TimeUnit.SECONDS.toNanos(1)),
+    ONE_MINUTE("1m", TimeUnit.MINUTES.toNanos(1)),
+    ONE_HOUR("1h", TimeUnit.HOURS.toNanos(1));
+
+    private final String code;
+    private final long nanos;
+
+    CandleInterval(String code, long nanos) {
+        this.code = code;
+        this.nanos = nanos;
+    }
+
+    public String code() {
+        return code;
+    }
+
+    public long nanos() {
+        return nanos;
+    }
+
+    /**
+     * Start of the bucket containing the given timestamp.
+     */
+    public long bucketStart(long epochNanos) {
+        return Math.floorDiv(epochNanos, nanos) * nanos;
+    }
+
+    public static CandleInterval fromCode(String code) {
+        for (CandleInterval interval : values()) {
+            if (interval.code.equals(code)) {
+                return interval;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported interval: " + code + " (expected 1s, 1m or 1h)");
+    }
+}
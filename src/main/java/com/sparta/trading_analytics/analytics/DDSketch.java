@@ -0,0 +1,170 @@
+package com.sparta.trading_analytics.analytics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Quantile sketch for positive values with relative-error guarantees (DDSketch).
+ * <p>
+ * Values fall into logarithmic bins {@code (gamma^(i-1), gamma^i]}, so any quantile is reported within
+ * {@value #RELATIVE_ACCURACY} relative error. At most {@value #MAX_BINS} bins are kept; if the value range
+ * needs more, the lowest bins are collapsed, which only affects the accuracy of the lowest quantiles.
+ * Values it cannot place (zero, negative, NaN, infinite) are refused rather than thrown on, so a bad value can
+ * never abort an ingest that has already updated the other aggregates.
+ */
+public final class DDSketch {
+
+    static final double RELATIVE_ACCURACY = 0.01;
+    static final int MAX_BINS = 2048;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final int INITIAL_BINS = 128;
+
+    // counts[i] is the count of bin offset + i; bins outside [minBin, maxBin] are empty
+    private long[] counts = new long[0];
+    private int offset;
+    private int minBin;
+    private int maxBin;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * @return false, leaving the sketch unchanged, if {@code value} is not positive and finite
+     */
+    public boolean add(double value) {
+        if (!(value > 0) || Double.isInfinite(value)) {
+            return false;
+        }
+        addToBin((int) Math.ceil(Math.log(value) / LOG_GAMMA), 1);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        return true;
+    }
+
+    public void merge(DDSketch other) {
+        for (int bin = other.minBin; other.count > 0 && bin <= other.maxBin; bin++) {
+            long binCount = other.counts[bin - other.offset];
+            if (binCount > 0) {
+                addToBin(bin, binCount);
+            }
+        }
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    // Non-empty bins only: [long count] then, if any, [double min][double max][int minBin][int maxBin][long...]
+    void writeTo(DataOutput out) throws IOException {
+        out.writeLong(count);
+        if (count == 0) {
+            return;
+        }
+        out.writeDouble(min);
+        out.writeDouble(max);
+        out.writeInt(minBin);
+        out.writeInt(maxBin);
+        for (int bin = minBin; bin <= maxBin; bin++) {
+            out.writeLong(counts[bin - offset]);
+        }
+    }
+
+    static DDSketch readFrom(DataInput in) throws IOException {
+        DDSketch sketch = new DDSketch();
+        if (in.readLong() == 0) {
+            return sketch;
+        }
+        sketch.min = in.readDouble();
+        sketch.max = in.readDouble();
+        int minBin = in.readInt();
+        int maxBin = in.readInt();
+        for (int bin = minBin; bin <= maxBin; bin++) {
+            long binCount = in.readLong();
+            if (binCount > 0) {
+                sketch.addToBin(bin, binCount);
+            }
+        }
+        return sketch;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Value at quantile {@code q} in {@code [0, 1]}, or {@code NaN} if the sketch is empty. The extremes are exact.
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1");
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (q == 0) {
+            return min;
+        }
+        if (q == 1) {
+            return max;
+        }
+
+        long rank = (long) (q * (count - 1));
+        long seen = 0;
+        for (int bin = minBin; bin <= maxBin; bin++) {
+            seen += counts[bin - offset];
+            if (seen > rank) {
+                // Bin midpoint (in relative terms), clamped to the exact extremes
+                double value = 2 * Math.pow(GAMMA, bin) / (GAMMA + 1);
+                return Math.max(min, Math.min(max, value));
+            }
+        }
+        return max;
+    }
+
+    long estimatedHeapBytes() {
+        return (long) counts.length * Long.BYTES;
+    }
+
+    private void addToBin(int bin, long binCount) {
+        if (counts.length == 0) {
+            counts = new long[INITIAL_BINS];
+            offset = bin - INITIAL_BINS / 2;
+            minBin = bin;
+            maxBin = bin;
+        }
+
+        if (bin < offset || bin >= offset + counts.length) {
+            bin = resize(bin);
+        }
+        counts[bin - offset] += binCount;
+        count += binCount;
+        minBin = Math.min(minBin, bin);
+        maxBin = Math.max(maxBin, bin);
+    }
+
+    // Re-lays the bins out to cover the new bin, collapsing the lowest ones past MAX_BINS; returns where it lands
+    private int resize(int bin) {
+        int low = Math.min(bin, minBin);
+        int high = Math.max(bin, maxBin);
+        if (high - low + 1 > MAX_BINS) {
+            low = high - MAX_BINS + 1;
+        }
+
+        int span = high - low + 1;
+        int length = Math.min(MAX_BINS, Math.max(INITIAL_BINS, span * 2));
+        int newOffset = low - (length - span) / 2;
+        long[] resized = new long[length];
+        for (int old = minBin; old <= maxBin; old++) {
+            long oldCount = counts[old - offset];
+            if (oldCount > 0) {
+                resized[Math.max(old, low) - newOffset] += oldCount;
+            }
+        }
+
+        counts = resized;
+        offset = newOffset;
+        minBin = Math.max(minBin, low);
+        maxBin = Math.max(maxBin, low);
+        return Math.max(bin, low);
+    }
+}
@@ -0,0 +1,43 @@
+package com.sparta.trading_analytics.analytics;
+
+/**
+ * Grouping dimensions for ad-hoc aggregation queries.
+ */
+public enum GroupBy {
+    COMMODITY(true, false),
+    TRADER(false, true),
+    COMMODITY_AND_TRADER(true, true);
+
+    private final boolean byCommodity;
+    private final boolean byTrader;
+
+    GroupBy(boolean byCommodity, boolean byTrader) {
+        this.byCommodity = byCommodity;
+        this.byTrader = byTrader;
+    }
+
+    public boolean byCommodity() {
+        return byCommodity;
+    }
+
+    public boolean byTrader() {
+        return byTrader;
+    }
+
+    /**
+     * Parses a comma-separated list of {@code commodity} and/or {@code trader}, in either order.
+     */
+    public static GroupBy fromCode(String code) {
+        boolean commodity = false;
+        boolean trader = false;
+        for (String dimension : code.split(",")) {
+            switch (dimension.trim()) {
+                case "commodity" -> commodity = true;
+                case "trader" -> trader = true;
+                default -> throw new IllegalArgumentException("Unsupported groupBy: " + code
+                        + " (expected commodity, trader or commodity,trader)");
+            }
+        }
+        return commodity && trader ? COMMODITY_AND_TRADER : commodity ? COMMODITY : TRADER;
+    }
+}
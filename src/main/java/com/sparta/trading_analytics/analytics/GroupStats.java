@@ -0,0 +1,40 @@
+package com.sparta.trading_analytics.analytics;
+
+import com.sparta.trading_analytics.model.GroupAggregate;
+
+/**
+ * Mutable partial aggregate of one group; partials from different ranges are folded with {@link #combine}.
+ */
+final class GroupStats {
+
+    private long tradeCount;
+    private long volume;
+    private double priceSum;
+    private double notional;
+    private double minPrice = Double.POSITIVE_INFINITY;
+    private double maxPrice = Double.NEGATIVE_INFINITY;
+
+    void add(double price, int quantity) {
+        tradeCount++;
+        volume += quantity;
+        priceSum += price;
+        notional += price * quantity;
+        minPrice = Math.min(minPrice, price);
+        maxPrice = Math.max(maxPrice, price);
+    }
+
+    GroupStats combine(GroupStats other) {
+        tradeCount += other.tradeCount;
+        volume += other.volume;
+        priceSum += other.priceSum;
+        notional += other.notional;
+        minPrice = Math.min(minPrice, other.minPrice);
+        maxPrice = Math.max(maxPrice, other.maxPrice);
+        return this;
+    }
+
+    GroupAggregate toAggregate(String commodity, String traderId) {
+        return new GroupAggregate(commodity, traderId, tradeCount, volume, priceSum / tradeCount,
+                notional / volume, minPrice, maxPrice);
+    }
+}
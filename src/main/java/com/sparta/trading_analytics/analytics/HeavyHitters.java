@@ -0,0 +1,143 @@
+package com.sparta.trading_analytics.analytics;
+
+import com.sparta.trading_analytics.model.SymbolTable;
+import com.sparta.trading_analytics.model.TraderRanking;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Approximate top traders by volume in fixed memory: a Count-Min sketch estimates every trader's volume, and
+ * a min-heap keeps the {@value #CAPACITY} traders with the highest estimates seen so far.
+ * <p>
+ * Estimates never undercount; they overcount by at most {@code e / WIDTH} of the total volume with
+ * probability {@code 1 - e^-DEPTH}. Traders are {@link SymbolTable} ids, placed in the counters by a hash of
+ * their name; with so few candidates they are found by scanning the heap rather than through a map.
+ */
+public final class HeavyHitters {
+
+    static final int CAPACITY = 20;
+    static final int DEPTH = 4;
+    static final int WIDTH = 1024;
+
+    private final SymbolTable traders;
+    private final long[][] counters = new long[DEPTH][WIDTH];
+    // Candidate traders with their current estimates, ordered by estimate
+    private final PriorityQueue<Candidate> heap = new PriorityQueue<>(Comparator.comparingLong(Candidate::estimate));
+
+    HeavyHitters(SymbolTable traders) {
+        this.traders = traders;
+    }
+
+    /**
+     * @param hash {@code SketchHash.hash64} of the trader's {@link SymbolTable#nameHash(int) name hash}
+     */
+    public void add(int trader, long hash, long volume) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int column = column(hash, row);
+            counters[row][column] += volume;
+            estimate = Math.min(estimate, counters[row][column]);
+        }
+        offer(trader, estimate);
+    }
+
+    public void merge(HeavyHitters other) {
+        for (int row = 0; row < DEPTH; row++) {
+            for (int column = 0; column < WIDTH; column++) {
+                counters[row][column] += other.counters[row][column];
+            }
+        }
+        // Every estimate may have grown, so rebuild the candidates from both sides
+        List<Candidate> previous = new ArrayList<>(heap);
+        previous.addAll(other.heap);
+        heap.clear();
+        for (Candidate candidate : previous) {
+            if (find(candidate.trader()) == null) {
+                offer(candidate.trader(), estimate(SketchHash.hash64(traders.nameHash(candidate.trader()))));
+            }
+        }
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        for (long[] row : counters) {
+            for (long counter : row) {
+                out.writeLong(counter);
+            }
+        }
+        out.writeInt(heap.size());
+        for (Candidate candidate : heap) {
+            SymbolTable.writeName(out, traders.name(candidate.trader()));
+            out.writeLong(candidate.estimate());
+        }
+    }
+
+    static HeavyHitters readFrom(DataInput in, SymbolTable traders) throws IOException {
+        HeavyHitters sketch = new HeavyHitters(traders);
+        for (long[] row : sketch.counters) {
+            for (int column = 0; column < WIDTH; column++) {
+                row[column] = in.readLong();
+            }
+        }
+        for (int i = in.readInt(); i > 0; i--) {
+            sketch.heap.add(new Candidate(traders.readSymbol(in), in.readLong()));
+        }
+        return sketch;
+    }
+
+    /**
+     * Up to {@code limit} traders with the highest estimated volume, highest first.
+     */
+    public List<TraderRanking.TraderVolume> top(int limit) {
+        return heap.stream()
+                .map(candidate -> new TraderRanking.TraderVolume(traders.name(candidate.trader()), candidate.estimate()))
+                .sorted(Comparator.comparingDouble(TraderRanking.TraderVolume::volume).reversed()
+                        .thenComparing(TraderRanking.TraderVolume::traderId))
+                .limit(limit)
+                .toList();
+    }
+
+    private void offer(int trader, long estimate) {
+        Candidate existing = find(trader);
+        if (existing != null) {
+            heap.remove(existing);
+        } else if (heap.size() == CAPACITY) {
+            if (heap.peek().estimate() >= estimate) {
+                return;
+            }
+            heap.poll();
+        }
+        heap.add(new Candidate(trader, estimate));
+    }
+
+    private Candidate find(int trader) {
+        for (Candidate candidate : heap) {
+            if (candidate.trader() == trader) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private long estimate(long hash) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters[row][column(hash, row)]);
+        }
+        return estimate;
+    }
+
+    // Row hashes derived from two halves of one 64-bit hash (Kirsch-Mitzenmacher)
+    private static int column(long hash, int row) {
+        int combined = (int) hash + row * (int) (hash >>> 32);
+        return Math.floorMod(combined, WIDTH);
+    }
+
+    private record Candidate(int trader, long estimate) {
+    }
+}
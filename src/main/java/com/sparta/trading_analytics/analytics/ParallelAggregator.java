@@ -0,0 +1,171 @@
+package com.sparta.trading_analytics.analytics;
+
+import com.sparta.trading_analytics.model.GroupAggregate;
+import com.sparta.trading_analytics.store.TradeSnapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork/join group-by over store snapshots, for queries that precomputed aggregates cannot answer.
+ * <p>
+ * The rows are cut into slices of about {@value #SLICE_ROWS}; each leaf task aggregates its slice into a
+ * private partial keyed by the snapshot's dictionary ids (no shared state, no locking), translates it to
+ * symbols once, and partials are merged pairwise on the way back up.
+ */
+public final class ParallelAggregator {
+
+    static final int SLICE_ROWS = 1 << 15;
+
+    private ParallelAggregator() {
+    }
+
+    /**
+     * Aggregates trades with a timestamp in {@code [fromNanos, toNanos)}.
+     *
+     * @param rows per snapshot, the absolute rows to consider, or {@code null} for every row of that snapshot
+     * @return one aggregate per group, highest volume first
+     */
+    public static List<GroupAggregate> aggregate(ForkJoinPool pool, TradeSnapshot[] snapshots, long[][] rows,
+                                                 long fromNanos, long toNanos, GroupBy groupBy) {
+        return aggregate(pool, snapshots, rows, fromNanos, toNanos, groupBy, SLICE_ROWS);
+    }
+
+    static List<GroupAggregate> aggregate(ForkJoinPool pool, TradeSnapshot[] snapshots, long[][] rows,
+                                          long fromNanos, long toNanos, GroupBy groupBy, int sliceRows) {
+        List<Slice> slices = new ArrayList<>();
+        for (int i = 0; i < snapshots.length; i++) {
+            long size = rows[i] == null ? snapshots[i].size() : rows[i].length;
+            for (long start = 0; start < size; start += sliceRows) {
+                slices.add(new Slice(snapshots[i], rows[i], start, Math.min(size, start + sliceRows)));
+            }
+        }
+
+        Query query = new Query(fromNanos, toNanos, groupBy);
+        Map<GroupKey, GroupStats> groups = slices.isEmpty()
+                ? Map.of()
+                : pool.invoke(new AggregateTask(query, slices, 0, slices.size()));
+
+        List<GroupAggregate> aggregates = new ArrayList<>(groups.size());
+        groups.forEach((key, stats) -> aggregates.add(stats.toAggregate(key.commodity(), key.traderId())));
+        aggregates.sort(Comparator.comparingLong(GroupAggregate::volume).reversed()
+                .thenComparing(GroupAggregate::commodity, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(GroupAggregate::traderId, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return aggregates;
+    }
+
+    private record Query(long fromNanos, long toNanos, GroupBy groupBy) {
+    }
+
+    private record GroupKey(String commodity, String traderId) {
+    }
+
+    // Rows [start, end) of a snapshot, or of a row list into it
+    private record Slice(TradeSnapshot snapshot, long[] rows, long start, long end) {
+
+        Map<GroupKey, GroupStats> aggregate(Query query) {
+            return query.groupBy() == GroupBy.COMMODITY_AND_TRADER ? aggregateByPair(query) : aggregateByOne(query);
+        }
+
+        // Single dimension: dense dictionary ids index an array directly
+        private Map<GroupKey, GroupStats> aggregateByOne(Query query) {
+            boolean byCommodity = query.groupBy().byCommodity();
+            GroupStats[] byId = new GroupStats[(byCommodity ? snapshot.commodities() : snapshot.traders()).size()];
+            for (long i = start; i < end; i++) {
+                long row = row(i);
+                long epochNanos = snapshot.epochNanos(row);
+                if (epochNanos < query.fromNanos() || epochNanos >= query.toNanos()) {
+                    continue;
+                }
+                int id = byCommodity ? snapshot.commodityId(row) : snapshot.traderId(row);
+                if (id >= byId.length) {
+                    // Symbol encoded after the array was sized
+                    byId = Arrays.copyOf(byId, id + 1);
+                }
+                GroupStats stats = byId[id];
+                if (stats == null) {
+                    stats = new GroupStats();
+                    byId[id] = stats;
+                }
+                stats.add(snapshot.price(row), snapshot.quantity(row));
+            }
+
+            Map<GroupKey, GroupStats> groups = new HashMap<>();
+            for (int id = 0; id < byId.length; id++) {
+                if (byId[id] != null) {
+                    GroupKey key = byCommodity
+                            ? new GroupKey(snapshot.commodities().decode(id), null)
+                            : new GroupKey(null, snapshot.traders().decode(id));
+                    groups.put(key, byId[id]);
+                }
+            }
+            return groups;
+        }
+
+        private Map<GroupKey, GroupStats> aggregateByPair(Query query) {
+            Map<Long, GroupStats> byIds = new HashMap<>();
+            for (long i = start; i < end; i++) {
+                long row = row(i);
+                long epochNanos = snapshot.epochNanos(row);
+                if (epochNanos < query.fromNanos() || epochNanos >= query.toNanos()) {
+                    continue;
+                }
+                long ids = ((long) snapshot.commodityId(row) << 32) | (snapshot.traderId(row) & 0xffffffffL);
+                byIds.computeIfAbsent(ids, k -> new GroupStats()).add(snapshot.price(row), snapshot.quantity(row));
+            }
+
+            Map<GroupKey, GroupStats> groups = new HashMap<>();
+            byIds.forEach((ids, stats) -> groups.put(new GroupKey(
+                    snapshot.commodities().decode((int) (ids >>> 32)),
+                    snapshot.traders().decode((int) (long) ids)), stats));
+            return groups;
+        }
+
+        private long row(long i) {
+            return rows == null ? i : rows[(int) i] - snapshot.firstRow();
+        }
+    }
+
+    private static final class AggregateTask extends RecursiveTask<Map<GroupKey, GroupStats>> {
+
+        private final Query query;
+        private final List<Slice> slices;
+        private final int from;
+        private final int to;
+
+        private AggregateTask(Query query, List<Slice> slices, int from, int to) {
+            this.query = query;
+            this.slices = slices;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<GroupKey, GroupStats> compute() {
+            if (to - from == 1) {
+                return slices.get(from).aggregate(query);
+            }
+            int mid = (from + to) >>> 1;
+            AggregateTask right = new AggregateTask(query, slices, mid, to);
+            right.fork();
+            Map<GroupKey, GroupStats> left = new AggregateTask(query, slices, from, mid).compute();
+            Map<GroupKey, GroupStats> merged = right.join();
+
+            // Fold the smaller partial into the larger one
+            if (left.size() > merged.size()) {
+                Map<GroupKey, GroupStats> swap = left;
+                left = merged;
+                merged = swap;
+            }
+            Map<GroupKey, GroupStats> target = merged;
+            left.forEach((key, stats) -> target.merge(key, stats, GroupStats::combine));
+            return target;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.sparta.trading_analytics.analytics;
+
+import com.sparta.trading_analytics.model.CommoditySketchInsights;
+import com.sparta.trading_analytics.model.SymbolTable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-commodity sketches updated on ingest: distinct traders ({@link HyperLogLog}), price quantiles
+ * ({@link DDSketch}) and heavy-hitter traders by volume ({@link HeavyHitters}).
+ * <p>
+ * Memory per commodity is fixed (roughly 4 KiB + 16 KiB + 32 KiB) however many trades arrive, and books
+ * built independently (per shard) merge into the same answer a single book would give. Commodities and traders
+ * are {@link SymbolTable} ids; names are only resolved when summarizing, and traders are hashed by name, so
+ * sketches written by one process keep matching the traders of the next. Not thread-safe: it is guarded by the
+ * same lock as the other ingest-time aggregates.
+ */
+public class SketchBook {
+
+    static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+    static final int HEAVY_HITTERS_REPORTED = 10;
+
+    // HyperLogLog registers plus the heavy-hitter counters and candidates; price bins are counted separately
+    private static final long ESTIMATED_FIXED_BYTES_PER_COMMODITY = (1L << HyperLogLog.PRECISION)
+            + (long) HeavyHitters.DEPTH * HeavyHitters.WIDTH * Long.BYTES + HeavyHitters.CAPACITY * 32L;
+
+    private final SymbolTable commodities;
+    private final SymbolTable traders;
+    private CommoditySketch[] byCommodity = new CommoditySketch[16];
+    private int commodityCount;
+    private long priceBinBytes;
+
+    public SketchBook() {
+        this(SymbolTable.COMMODITIES, SymbolTable.TRADERS);
+    }
+
+    SketchBook(SymbolTable commodities, SymbolTable traders) {
+        this.commodities = commodities;
+        this.traders = traders;
+    }
+
+    public void addTrade(int commodity, int trader, double price, int quantity) {
+        CommoditySketch sketch = sketchFor(commodity);
+        long traderHash = SketchHash.hash64(traders.nameHash(trader));
+        sketch.distinctTraders.addHash(traderHash);
+        long binBytes = sketch.prices.estimatedHeapBytes();
+        sketch.prices.add(price);
+        priceBinBytes += sketch.prices.estimatedHeapBytes() - binBytes;
+        sketch.heavyHitters.add(trader, traderHash, quantity);
+    }
+
+    /**
+     * Writes every commodity's sketches, by commodity name, for a snapshot.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(commodityCount);
+        for (int commodity = 0; commodity < byCommodity.length; commodity++) {
+            CommoditySketch sketch = byCommodity[commodity];
+            if (sketch != null) {
+                SymbolTable.writeName(out, commodities.name(commodity));
+                sketch.distinctTraders.writeTo(out);
+                sketch.prices.writeTo(out);
+                sketch.heavyHitters.writeTo(out);
+            }
+        }
+    }
+
+    /**
+     * Merges in sketches written by {@link #writeTo(DataOutput)}.
+     */
+    public void readFrom(DataInput in) throws IOException {
+        for (int i = in.readInt(); i > 0; i--) {
+            CommoditySketch sketch = sketchFor(commodities.readSymbol(in));
+            long binBytes = sketch.prices.estimatedHeapBytes();
+            sketch.merge(new CommoditySketch(HyperLogLog.readFrom(in), DDSketch.readFrom(in), HeavyHitters.readFrom(in, traders)));
+            priceBinBytes += sketch.prices.estimatedHeapBytes() - binBytes;
+        }
+    }
+
+    /**
+     * Merges several books (e.g. one per shard) and summarizes every commodity, or only {@code commodity}
+     * when it is not {@code null}. Commodities are sorted by name.
+     */
+    public static Map<String, CommoditySketchInsights> summarize(List<SketchBook> books, String commodity) {
+        Map<String, CommoditySketch> merged = new TreeMap<>();
+        for (SketchBook book : books) {
+            for (int symbol = 0; symbol < book.byCommodity.length; symbol++) {
+                CommoditySketch sketch = book.byCommodity[symbol];
+                if (sketch == null) {
+                    continue;
+                }
+                String name = book.commodities.name(symbol);
+                if (commodity == null || commodity.equals(name)) {
+                    merged.computeIfAbsent(name, c -> new CommoditySketch(book.traders)).merge(sketch);
+                }
+            }
+        }
+
+        Map<String, CommoditySketchInsights> insights = new LinkedHashMap<>();
+        merged.forEach((name, sketch) -> insights.put(name, sketch.summarize()));
+        return insights;
+    }
+
+    /**
+     * Rough heap footprint, kept up to date as sketches are created and grow, for monitoring.
+     */
+    public long estimatedHeapBytes() {
+        return commodityCount * ESTIMATED_FIXED_BYTES_PER_COMMODITY + priceBinBytes;
+    }
+
+    private CommoditySketch sketchFor(int commodity) {
+        if (commodity >= byCommodity.length) {
+            byCommodity = Arrays.copyOf(byCommodity, Math.max(commodity + 1, byCommodity.length * 2));
+        }
+        CommoditySketch sketch = byCommodity[commodity];
+        if (sketch == null) {
+            sketch = new CommoditySketch(traders);
+            byCommodity[commodity] = sketch;
+            commodityCount++;
+        }
+        return sketch;
+    }
+
+    private static final class CommoditySketch {
+        final HyperLogLog distinctTraders;
+        final DDSketch prices;
+        final HeavyHitters heavyHitters;
+
+        CommoditySketch(SymbolTable traders) {
+            this(new HyperLogLog(), new DDSketch(), new HeavyHitters(traders));
+        }
+
+        CommoditySketch(HyperLogLog distinctTraders, DDSketch prices, HeavyHitters heavyHitters) {
+            this.distinctTraders = distinctTraders;
+            this.prices = prices;
+            this.heavyHitters = heavyHitters;
+        }
+
+        void merge(CommoditySketch other) {
+            distinctTraders.merge(other.distinctTraders);
+            prices.merge(other.prices);
+            heavyHitters.merge(other.heavyHitters);
+        }
+
+        CommoditySketchInsights summarize() {
+            Map<String, Double> pricePercentiles = new LinkedHashMap<>();
+            for (double percentile : PERCENTILES) {
+                pricePercentiles.put("p" + Math.round(percentile * 100), prices.quantile(percentile));
+            }
+            return new CommoditySketchInsights(prices.count(), distinctTraders.estimate(), pricePercentiles,
+                    heavyHitters.top(HEAVY_HITTERS_REPORTED));
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.sparta.trading_analytics.analytics;
+
+/**
+ * 64-bit hash shared by the sketches, applied to a symbol's
+ * {@link com.sparta.trading_analytics.model.SymbolTable#nameHash(int) name hash}. It depends only on the name,
+ * so every shard hashes a trader the same way and their sketches merge, and sketches restored from a snapshot
+ * keep matching the trader after a restart assigns it a different id.
+ */
+final class SketchHash {
+
+    private SketchHash() {
+    }
+
+    static long hash64(long value) {
+        // Golden-ratio step so 0 does not hash to 0, then the MurmurHash3 finalizer to spread the bits
+        long hash = (value + 1L) * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,25 @@
+package com.sparta.trading_analytics.cluster;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * {@code trading.cluster.*} settings.
+ *
+ * @param enabled whether traders are partitioned across {@code peers}
+ * @param peers   base URLs of every node, this one included, in the same order on every node; a trader
+ *                belongs to the partition at its hash modulo the number of peers
+ * @param self    index of this node in {@code peers}
+ * @param timeout connect and read timeout for calls to peers
+ */
+@ConfigurationProperties(prefix = "trading.cluster")
+public record ClusterProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue List<URI> peers,
+        @DefaultValue("0") int self,
+        @DefaultValue("5s") Duration timeout) {
+}
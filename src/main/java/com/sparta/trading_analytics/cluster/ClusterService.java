@@ -0,0 +1,359 @@
+package com.sparta.trading_analytics.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sparta.trading_analytics.codec.BinaryTradeEncoder;
+import com.sparta.trading_analytics.codec.BinaryTradeFormat;
+import com.sparta.trading_analytics.codec.InsightsJsonWriter;
+import com.sparta.trading_analytics.exception.IngestQueueFullException;
+import com.sparta.trading_analytics.exception.PeerUnavailableException;
+import com.sparta.trading_analytics.model.InsightsPartial;
+import com.sparta.trading_analytics.model.Trade;
+import com.sparta.trading_analytics.service.AsyncTradeIngestService;
+import com.sparta.trading_analytics.service.IngestAck;
+import com.sparta.trading_analytics.service.InsightsCache;
+import com.sparta.trading_analytics.service.TradeService;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Static-peer cluster mode: every node owns the traders whose ID hashes to its index in
+ * {@code trading.cluster.peers}, so each trader's trades, duplicate checks and ranking live on exactly one node.
+ * <p>
+ * Any node accepts {@code POST /trades}: it commits its own slice locally and forwards the other slices, in
+ * {@link BinaryTradeFormat}, to their owners in parallel. Each slice is all-or-nothing on its node, but slices
+ * on different nodes are not one transaction: if one is rejected the others may already be committed.
+ * {@code /insights} merges an {@link InsightsPartial} from every node. Each peer is asked with a conditional
+ * GET and only resends its partial when its data version moved; the merged response is cached until one of
+ * the versions changes. When cluster mode is off every call is simply local.
+ */
+@Service
+public class ClusterService implements DisposableBean {
+
+    static final String TRADES_PATH = "/cluster/trades";
+    static final String INSIGHTS_PARTIAL_PATH = "/cluster/insights-partial";
+
+    private final ClusterProperties properties;
+    private final AsyncTradeIngestService ingestService;
+    private final TradeService tradeService;
+    private final InsightsCache insightsCache;
+    private final ObjectMapper objectMapper;
+    private final RestClient restClient;
+    private final ExecutorService fanOut = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Last partial seen from each node, and the merged response for that vector of versions
+    private final AtomicReferenceArray<TaggedPartial> partials;
+    private final AtomicReference<MergedInsights> merged = new AtomicReference<>();
+
+    public ClusterService(ClusterProperties properties, AsyncTradeIngestService ingestService,
+                          TradeService tradeService, InsightsCache insightsCache, ObjectMapper objectMapper,
+                          RestClient.Builder restClientBuilder) {
+        if (properties.enabled()) {
+            if (properties.peers().isEmpty()) {
+                throw new IllegalArgumentException("trading.cluster.peers must list every node when the cluster is enabled");
+            }
+            if (properties.self() < 0 || properties.self() >= properties.peers().size()) {
+                throw new IllegalArgumentException("trading.cluster.self must be an index into trading.cluster.peers");
+            }
+        }
+        this.properties = properties;
+        this.ingestService = ingestService;
+        this.tradeService = tradeService;
+        this.insightsCache = insightsCache;
+        this.objectMapper = objectMapper;
+        this.partials = new AtomicReferenceArray<>(Math.max(properties.peers().size(), 1));
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(
+                HttpClient.newBuilder().connectTimeout(properties.timeout()).build());
+        requestFactory.setReadTimeout(properties.timeout());
+        this.restClient = restClientBuilder.requestFactory(requestFactory).build();
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    /**
+     * Index of the node owning {@code traderId}.
+     */
+    public int partitionOf(String traderId) {
+        return properties.enabled() ? partitionOf(traderId, properties.peers().size()) : 0;
+    }
+
+    /**
+     * Node owning {@code traderId} among {@code nodes}. The hash is mixed (MurmurHash3's 32-bit finalizer)
+     * before taking the modulus: each node's traders are then spread over all of its store shards, which are
+     * picked by the plain hash modulo the shard count. Without it, 2, 4 or 8 nodes would each fill only 4, 2
+     * or 1 of their 8 shards.
+     */
+    public static int partitionOf(String traderId, int nodes) {
+        int hash = traderId.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, nodes);
+    }
+
+    /**
+     * Whether {@code traderId} belongs to this node's partition; always true outside cluster mode.
+     */
+    public boolean owns(String traderId) {
+        return partitionOf(traderId) == (properties.enabled() ? properties.self() : 0);
+    }
+
+    /**
+     * Routes each trade to its owning node. The ack is {@link IngestAck#ENQUEUED} if any slice was only queued.
+     */
+    public IngestAck submit(List<Trade> trades) {
+        if (!properties.enabled()) {
+            return ingestService.submit(trades);
+        }
+        List<List<Trade>> slices = new ArrayList<>(properties.peers().size());
+        for (int i = 0; i < properties.peers().size(); i++) {
+            slices.add(new ArrayList<>());
+        }
+        for (Trade trade : trades) {
+            slices.get(partitionOf(trade.getTraderId())).add(trade);
+        }
+
+        List<Future<IngestAck>> acks = new ArrayList<>();
+        for (int node = 0; node < slices.size(); node++) {
+            List<Trade> slice = slices.get(node);
+            if (slice.isEmpty()) {
+                continue;
+            }
+            int owner = node;
+            acks.add(fanOut.submit(owner == properties.self()
+                    ? () -> ingestService.submit(slice)
+                    : () -> forward(owner, slice)));
+        }
+
+        IngestAck result = IngestAck.COMMITTED;
+        for (Future<IngestAck> ack : acks) {
+            if (await(ack) == IngestAck.ENQUEUED) {
+                result = IngestAck.ENQUEUED;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Ingests a slice forwarded by another node; every trade must belong to this node's partition.
+     */
+    public IngestAck submitOwned(List<Trade> trades) {
+        for (Trade trade : trades) {
+            int owner = partitionOf(trade.getTraderId());
+            if (owner != properties.self()) {
+                throw new IllegalArgumentException("Trade for trader " + trade.getTraderId()
+                        + " belongs to partition " + owner + ", not " + properties.self());
+            }
+        }
+        return ingestService.submit(trades);
+    }
+
+    /**
+     * The {@code /insights} response over the whole cluster. Locally this is the versioned cache; across nodes
+     * the ETag lists every node's version tag, so it changes exactly when one of them does.
+     */
+    public InsightsCache.CachedInsights getInsights() {
+        if (!properties.enabled()) {
+            return insightsCache.get();
+        }
+        List<Future<TaggedPartial>> futures = new ArrayList<>();
+        for (int node = 0; node < properties.peers().size(); node++) {
+            int peer = node;
+            futures.add(fanOut.submit(peer == properties.self()
+                    ? this::localPartial
+                    : () -> fetchPartial(peer)));
+        }
+        List<TaggedPartial> current = new ArrayList<>(futures.size());
+        for (Future<TaggedPartial> future : futures) {
+            current.add(await(future));
+        }
+
+        MergedInsights cachedMerge = merged.get();
+        if (cachedMerge != null && cachedMerge.sameVersions(current)) {
+            return cachedMerge.insights();
+        }
+        InsightsPartial mergedPartial = InsightsPartial.merge(current.stream().map(TaggedPartial::partial).toList());
+        byte[] json = InsightsJsonWriter.toJson(objectMapper.getFactory(), mergedPartial.toResponse());
+        StringBuilder etag = new StringBuilder("\"cluster");
+        for (TaggedPartial partial : current) {
+            etag.append('.').append(partial.etag(), 1, partial.etag().length() - 1);
+        }
+        InsightsCache.CachedInsights insights = new InsightsCache.CachedInsights(mergedPartial.version(),
+                etag.append('"').toString(), json);
+        merged.set(new MergedInsights(current, insights));
+        return insights;
+    }
+
+    private TaggedPartial localPartial() {
+        int self = properties.self();
+        TaggedPartial cached = partials.get(self);
+        if (cached != null && cached.partial().version() == tradeService.getVersion()) {
+            return cached;
+        }
+        InsightsPartial partial = tradeService.getInsightsPartial();
+        TaggedPartial fresh = new TaggedPartial(insightsCache.etag(partial.version()), partial);
+        partials.set(self, fresh);
+        return fresh;
+    }
+
+    private IngestAck forward(int peer, List<Trade> trades) {
+        BinaryTradeEncoder encoder = new BinaryTradeEncoder();
+        for (Trade trade : trades) {
+            encoder.add(trade.getCommodity(), trade.getTraderId(), trade.getTimestamp(), trade.getPrice(), trade.getQuantity());
+        }
+        return call(peer, () -> {
+            int status = restClient.post()
+                    .uri(peerUri(peer, TRADES_PATH))
+                    .contentType(MediaType.parseMediaType(BinaryTradeFormat.MEDIA_TYPE))
+                    .body(encoder.toByteArray())
+                    .retrieve()
+                    .toBodilessEntity()
+                    .getStatusCode().value();
+            return status == HttpStatus.ACCEPTED.value() ? IngestAck.ENQUEUED : IngestAck.COMMITTED;
+        });
+    }
+
+    private TaggedPartial fetchPartial(int peer) {
+        TaggedPartial cached = partials.get(peer);
+        ResponseEntity<InsightsPartial> response = call(peer, () -> restClient.get()
+                .uri(peerUri(peer, INSIGHTS_PARTIAL_PATH))
+                .headers(headers -> {
+                    if (cached != null) {
+                        headers.setIfNoneMatch(cached.etag());
+                    }
+                })
+                .retrieve()
+                .toEntity(InsightsPartial.class));
+        if (response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value() && cached != null) {
+            return cached;
+        }
+        TaggedPartial fresh = new TaggedPartial(response.getHeaders().getETag(), response.getBody());
+        partials.set(peer, fresh);
+        return fresh;
+    }
+
+    // Peer rejections surface as they would locally; anything else means the peer is unavailable
+    private <T> T call(int peer, Callable<T> request) {
+        try {
+            return request.call();
+        } catch (RestClientResponseException e) {
+            if (e.getStatusCode().value() == HttpStatus.BAD_REQUEST.value()) {
+                throw new IllegalArgumentException(errorMessage(e));
+            }
+            if (e.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                String retryAfter = e.getResponseHeaders() == null ? null
+                        : e.getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+                throw new IngestQueueFullException(retryAfter(retryAfter));
+            }
+            throw new PeerUnavailableException("Peer " + peerUri(peer, "") + " failed: " + e.getStatusText(), e);
+        } catch (RestClientException e) {
+            throw new PeerUnavailableException("Peer " + peerUri(peer, "") + " is unavailable", e);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new PeerUnavailableException("Peer " + peerUri(peer, "") + " failed", e);
+        }
+    }
+
+    // Retry-After is either delay-seconds or an HTTP-date (RFC 9110); anything unreadable falls back to a second
+    static Duration retryAfter(String header) {
+        if (header != null) {
+            String value = header.trim();
+            try {
+                return Duration.ofSeconds(Math.max(0, Long.parseLong(value)));
+            } catch (NumberFormatException notSeconds) {
+                try {
+                    Duration untilDate = Duration.between(Instant.now(),
+                            ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant());
+                    return untilDate.isNegative() ? Duration.ZERO : untilDate;
+                } catch (DateTimeParseException notDate) {
+                    // fall through
+                }
+            }
+        }
+        return Duration.ofSeconds(1);
+    }
+
+    private String errorMessage(RestClientResponseException e) {
+        try {
+            JsonNode errors = objectMapper.readTree(e.getResponseBodyAsByteArray()).path("errors");
+            if (errors.size() == 1) {
+                return errors.elements().next().asText();
+            }
+            return errors.toString();
+        } catch (Exception unreadable) {
+            return e.getResponseBodyAsString();
+        }
+    }
+
+    private URI peerUri(int peer, String path) {
+        return properties.peers().get(peer).resolve(path);
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for cluster peers", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * @param etag quoted tag of the node's data version, as its partial endpoint sends it
+     */
+    private record TaggedPartial(String etag, InsightsPartial partial) {
+    }
+
+    private record MergedInsights(List<TaggedPartial> partials, InsightsCache.CachedInsights insights) {
+
+        boolean sameVersions(List<TaggedPartial> current) {
+            for (int i = 0; i < current.size(); i++) {
+                if (!partials.get(i).etag().equals(current.get(i).etag())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        fanOut.shutdownNow();
+    }
+}
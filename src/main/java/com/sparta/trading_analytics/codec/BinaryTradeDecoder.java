@@ -0,0 +1,114 @@
+package com.sparta.trading_analytics.codec;
+
+import com.sparta.trading_analytics.model.Trade;
+import com.sparta.trading_analytics.store.EpochNanos;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes {@link BinaryTradeFormat} payloads in place from a {@link ByteBuffer}.
+ * <p>
+ * Each symbol is decoded to a String once, and every trade referencing it shares that instance; records
+ * are read as primitives with no text parsing. Records are checked against the same rules as the
+ * {@link Trade} bean-validation annotations, and any violation rejects the whole payload.
+ */
+public final class BinaryTradeDecoder {
+
+    private BinaryTradeDecoder() {
+    }
+
+    public static List<Trade> decode(ByteBuffer body) {
+        ByteBuffer buffer = body.duplicate().order(BinaryTradeFormat.BYTE_ORDER);
+        String[] symbols;
+        try {
+            if (buffer.remaining() < BinaryTradeFormat.HEADER_BYTES || buffer.getInt() != BinaryTradeFormat.MAGIC) {
+                throw new IllegalArgumentException("Malformed binary trades: bad magic number");
+            }
+            int version = buffer.getInt();
+            if (version != BinaryTradeFormat.VERSION) {
+                throw new IllegalArgumentException("Malformed binary trades: unsupported version " + version);
+            }
+            int symbolCount = buffer.getInt();
+            if (symbolCount < 0 || symbolCount > buffer.remaining() / Short.BYTES) {
+                throw new IllegalArgumentException("Malformed binary trades: invalid symbol count " + symbolCount);
+            }
+            symbols = new String[symbolCount];
+            for (int i = 0; i < symbolCount; i++) {
+                int length = Short.toUnsignedInt(buffer.getShort());
+                if (length > buffer.remaining()) {
+                    throw new IllegalArgumentException("Malformed binary trades: symbol " + i + " runs past the end of the body");
+                }
+                symbols[i] = readUtf8(buffer, length);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Malformed binary trades: truncated header");
+        }
+
+        if (buffer.remaining() % BinaryTradeFormat.RECORD_BYTES != 0) {
+            throw new IllegalArgumentException("Malformed binary trades: trailing " + buffer.remaining() % BinaryTradeFormat.RECORD_BYTES
+                    + " bytes after the last complete record");
+        }
+
+        int count = buffer.remaining() / BinaryTradeFormat.RECORD_BYTES;
+        long now = EpochNanos.of(Instant.now());
+        List<Trade> trades = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int commodityId = buffer.getInt();
+            int traderId = buffer.getInt();
+            long epochNanos = buffer.getLong();
+            double price = buffer.getDouble();
+            int quantity = buffer.getInt();
+
+            if (commodityId < 0 || commodityId >= symbols.length) {
+                throw invalid(i, "unknown commodity symbol " + commodityId);
+            }
+            if (traderId < 0 || traderId >= symbols.length) {
+                throw invalid(i, "unknown trader symbol " + traderId);
+            }
+            if (!(price > 0) || Double.isInfinite(price)) {
+                throw invalid(i, "Price must be positive");
+            }
+            if (quantity <= 0) {
+                throw invalid(i, "Quantity must be positive");
+            }
+            if (epochNanos > now) {
+                // Re-check against the clock before rejecting: the payload may be newer than our first reading
+                now = EpochNanos.of(Instant.now());
+                if (epochNanos > now) {
+                    throw invalid(i, "Timestamp cannot be in the future");
+                }
+            }
+
+            Trade trade = new Trade();
+            trade.setCommodity(symbols[commodityId]);
+            trade.setTraderId(symbols[traderId]);
+            trade.setTimestamp(EpochNanos.toInstant(epochNanos));
+            trade.setPrice(price);
+            trade.setQuantity(quantity);
+            trades.add(trade);
+        }
+        return trades;
+    }
+
+    private static String readUtf8(ByteBuffer buffer, int length) {
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(buffer.position(), bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static IllegalArgumentException invalid(int record, String reason) {
+        return new IllegalArgumentException("Invalid binary trade record " + record + ": " + reason);
+    }
+}
@@ -0,0 +1,72 @@
+package com.sparta.trading_analytics.codec;
+
+import com.sparta.trading_analytics.store.EpochNanos;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Client-side builder for {@link BinaryTradeFormat} payloads.
+ * <pre>
+ * byte[] body = new BinaryTradeEncoder()
+ *         .add("Gold", "T001", Instant.now(), 2000.0, 50)
+ *         .add("Gold", "T002", Instant.now(), 2001.5, 10)
+ *         .toByteArray();
+ * // POST body to /trades with Content-Type: application/octet-stream
+ * </pre>
+ * Not thread-safe; use one encoder per payload.
+ */
+public class BinaryTradeEncoder {
+
+    private final Map<String, Integer> symbolIds = new HashMap<>();
+    private final List<byte[]> symbols = new ArrayList<>();
+    private ByteBuffer records = ByteBuffer.allocate(64 * BinaryTradeFormat.RECORD_BYTES).order(BinaryTradeFormat.BYTE_ORDER);
+    private int symbolBytes;
+
+    public BinaryTradeEncoder add(String commodity, String traderId, Instant timestamp, double price, int quantity) {
+        return add(commodity, traderId, EpochNanos.of(timestamp), price, quantity);
+    }
+
+    public BinaryTradeEncoder add(String commodity, String traderId, long epochNanos, double price, int quantity) {
+        int commodityId = symbol(commodity);
+        int traderSymbol = symbol(traderId);
+        if (records.remaining() < BinaryTradeFormat.RECORD_BYTES) {
+            ByteBuffer grown = ByteBuffer.allocate(records.capacity() * 2).order(BinaryTradeFormat.BYTE_ORDER);
+            grown.put(records.flip());
+            records = grown;
+        }
+        records.putInt(commodityId).putInt(traderSymbol).putLong(epochNanos).putDouble(price).putInt(quantity);
+        return this;
+    }
+
+    public byte[] toByteArray() {
+        ByteBuffer out = ByteBuffer.allocate(BinaryTradeFormat.HEADER_BYTES + symbolBytes + records.position())
+                .order(BinaryTradeFormat.BYTE_ORDER);
+        out.putInt(BinaryTradeFormat.MAGIC).putInt(BinaryTradeFormat.VERSION).putInt(symbols.size());
+        for (byte[] symbol : symbols) {
+            out.putShort((short) symbol.length).put(symbol);
+        }
+        out.put(records.duplicate().flip());
+        return out.array();
+    }
+
+    private int symbol(String value) {
+        Integer id = symbolIds.get(value);
+        if (id != null) {
+            return id;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > BinaryTradeFormat.MAX_SYMBOL_BYTES) {
+            throw new IllegalArgumentException("Symbol longer than " + BinaryTradeFormat.MAX_SYMBOL_BYTES + " bytes: " + value);
+        }
+        symbolIds.put(value, symbols.size());
+        symbols.add(bytes);
+        symbolBytes += Short.BYTES + bytes.length;
+        return symbols.size() - 1;
+    }
+}
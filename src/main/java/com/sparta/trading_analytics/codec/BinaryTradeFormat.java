@@ -0,0 +1,30 @@
+package com.sparta.trading_analytics.codec;
+
+import java.nio.ByteOrder;
+
+/**
+ * Fixed-layout binary trade format accepted by {@code POST /trades} as {@code application/octet-stream}.
+ * <p>
+ * All values are little-endian:
+ * <pre>
+ * header:  int magic ("TRDB"), int version, int symbolCount
+ * symbols: symbolCount x (short byteLength, UTF-8 bytes)      -- symbol id = position in this table
+ * records: until end of body, {@value #RECORD_BYTES} bytes each:
+ *          int commodityId, int traderId, long epochNanos, double price, int quantity
+ * </pre>
+ * Commodities and trader IDs share the one symbol table. {@link BinaryTradeEncoder} produces this format.
+ */
+public final class BinaryTradeFormat {
+
+    public static final String MEDIA_TYPE = "application/octet-stream";
+    public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    public static final int MAGIC = 0x42445254; // "TRDB" read little-endian
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 3 * Integer.BYTES;
+    public static final int RECORD_BYTES = 2 * Integer.BYTES + Long.BYTES + Double.BYTES + Integer.BYTES;
+    public static final int MAX_SYMBOL_BYTES = 0xFFFF;
+
+    private BinaryTradeFormat() {
+    }
+}
@@ -0,0 +1,82 @@
+package com.sparta.trading_analytics.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.sparta.trading_analytics.model.InsightsPartial;
+import com.sparta.trading_analytics.model.InsightsResponse;
+import com.sparta.trading_analytics.model.TraderRanking;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Encodes {@link InsightsResponse} straight onto a {@link JsonGenerator}, with no per-trader objects and no
+ * serializer lookups.
+ * <p>
+ * The output is byte-for-byte what Jackson writes for {@link InsightsPartial#render()}, including its key
+ * order: the top-level keys and the leaderboard rows follow {@code HashMap} iteration order there, which is
+ * reproduced literally below.
+ */
+public final class InsightsJsonWriter {
+
+    private static final int ESTIMATED_BYTES_PER_COMMODITY = 64;
+    private static final int ESTIMATED_BYTES_PER_TRADER = 40;
+
+    private InsightsJsonWriter() {
+    }
+
+    public static byte[] toJson(JsonFactory jsonFactory, InsightsResponse response) {
+        int estimate = 128 + response.commodities().size() * ESTIMATED_BYTES_PER_COMMODITY
+                + response.topTradersByVolume().size() * ESTIMATED_BYTES_PER_TRADER;
+        ByteArrayBuilder buffer = new ByteArrayBuilder(estimate);
+        try (JsonGenerator generator = jsonFactory.createGenerator(buffer)) {
+            write(generator, response);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    public static void write(JsonGenerator generator, InsightsResponse response) throws IOException {
+        generator.writeStartObject();
+        if (response.commodities().isEmpty()) {
+            generator.writeFieldName("averagePriceByCommodity");
+            generator.writeStartObject();
+            generator.writeEndObject();
+            generator.writeFieldName("topTradersByVolume");
+            generator.writeStartArray();
+            generator.writeEndArray();
+            generator.writeFieldName("totalVolumeByCommodity");
+            generator.writeStartObject();
+            generator.writeEndObject();
+            generator.writeEndObject();
+            return;
+        }
+
+        generator.writeFieldName("totalVolumeByCommodity");
+        generator.writeStartObject();
+        for (InsightsResponse.CommodityTotals totals : response.commodities()) {
+            generator.writeNumberField(totals.commodity(), totals.totalVolume());
+        }
+        generator.writeEndObject();
+
+        generator.writeFieldName("averagePriceByCommodity");
+        generator.writeStartObject();
+        for (InsightsResponse.CommodityTotals totals : response.commodities()) {
+            generator.writeNumberField(totals.commodity(), totals.averagePrice());
+        }
+        generator.writeEndObject();
+
+        generator.writeFieldName("topTradersByVolume");
+        generator.writeStartArray();
+        for (TraderRanking.TraderVolume trader : response.topTradersByVolume()) {
+            generator.writeStartObject();
+            generator.writeNumberField("volume", (int) trader.volume());
+            generator.writeStringField("traderId", trader.traderId());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+}
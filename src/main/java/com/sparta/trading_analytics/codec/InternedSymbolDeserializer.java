@@ -0,0 +1,47 @@
+package com.sparta.trading_analytics.codec;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+import com.sparta.trading_analytics.model.SymbolTable;
+
+import java.io.IOException;
+
+/**
+ * Reads a commodity or trader ID through its {@link SymbolTable}, straight from the parser's character buffer,
+ * and returns the table's shared String instance; a known ID costs no String allocation. New IDs are not
+ * interned here: the request may still fail validation. Non-string scalars are coerced exactly as Jackson's
+ * own String deserializer would.
+ */
+public abstract class InternedSymbolDeserializer extends StdScalarDeserializer<String> {
+
+    private final transient SymbolTable table;
+
+    protected InternedSymbolDeserializer(SymbolTable table) {
+        super(String.class);
+        this.table = table;
+    }
+
+    @Override
+    public String deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.hasToken(JsonToken.VALUE_STRING)) {
+            return table.canonical(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        }
+        String value = StringDeserializer.instance.deserialize(parser, context);
+        return value == null ? null : table.canonical(value);
+    }
+
+    public static final class Commodity extends InternedSymbolDeserializer {
+        public Commodity() {
+            super(SymbolTable.COMMODITIES);
+        }
+    }
+
+    public static final class Trader extends InternedSymbolDeserializer {
+        public Trader() {
+            super(SymbolTable.TRADERS);
+        }
+    }
+}
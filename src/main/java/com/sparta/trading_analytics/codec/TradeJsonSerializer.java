@@ -0,0 +1,49 @@
+package com.sparta.trading_analytics.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.sparta.trading_analytics.model.Trade;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link Trade} field by field instead of through Jackson's reflective bean serializer, for the
+ * {@code /trades} responses that emit thousands of them.
+ * <p>
+ * Output matches the bean serializer under the application's {@code ObjectMapper}: declaration order, nulls
+ * written, ISO-8601 timestamps ({@link java.time.Instant#toString()}). If a mapper writes dates as numbers, the
+ * timestamp is handed to its configured serializer instead.
+ */
+public class TradeJsonSerializer extends StdSerializer<Trade> {
+
+    public TradeJsonSerializer() {
+        super(Trade.class);
+    }
+
+    @Override
+    public void serialize(Trade trade, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(trade);
+        generator.writeStringField("commodity", trade.getCommodity());
+        generator.writeStringField("traderId", trade.getTraderId());
+        if (trade.getPrice() != null) {
+            generator.writeNumberField("price", trade.getPrice());
+        } else {
+            generator.writeNullField("price");
+        }
+        if (trade.getQuantity() != null) {
+            generator.writeNumberField("quantity", trade.getQuantity());
+        } else {
+            generator.writeNullField("quantity");
+        }
+        if (trade.getTimestamp() == null) {
+            generator.writeNullField("timestamp");
+        } else if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            provider.defaultSerializeField("timestamp", trade.getTimestamp(), generator);
+        } else {
+            generator.writeStringField("timestamp", trade.getTimestamp().toString());
+        }
+        generator.writeEndObject();
+    }
+}
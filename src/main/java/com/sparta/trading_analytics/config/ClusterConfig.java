@@ -0,0 +1,10 @@
+package com.sparta.trading_analytics.config;
+
+import com.sparta.trading_analytics.cluster.ClusterProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ClusterProperties.class)
+public class ClusterConfig {
+}
@@ -0,0 +1,12 @@
+package com.sparta.trading_analytics.config;
+
+import com.sparta.trading_analytics.service.AsyncIngestProperties;
+import com.sparta.trading_analytics.service.InsightsStreamProperties;
+import com.sparta.trading_analytics.service.PreloadProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({AsyncIngestProperties.class, InsightsStreamProperties.class, PreloadProperties.class})
+public class IngestConfig {
+}
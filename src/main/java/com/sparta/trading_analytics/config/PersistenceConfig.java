@@ -0,0 +1,34 @@
+package com.sparta.trading_analytics.config;
+
+import com.sparta.trading_analytics.persistence.PersistenceProperties;
+import com.sparta.trading_analytics.persistence.SnapshotStore;
+import com.sparta.trading_analytics.persistence.TradeJournal;
+import com.sparta.trading_analytics.persistence.WriteAheadLog;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(PersistenceProperties.class)
+public class PersistenceConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "trading.persistence", name = "enabled", havingValue = "true")
+    public WriteAheadLog writeAheadLog(PersistenceProperties properties) {
+        return new WriteAheadLog(properties.dir().resolve("wal"), properties.segmentSizeMb() * 1024L * 1024L,
+                properties.fsync(), properties.fsyncInterval().toMillis());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "trading.persistence", name = "enabled", havingValue = "true")
+    public SnapshotStore snapshotStore(PersistenceProperties properties) {
+        return new SnapshotStore(properties.dir().resolve("snapshots"));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "trading.persistence", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public TradeJournal noTradeJournal() {
+        return TradeJournal.NONE;
+    }
+}
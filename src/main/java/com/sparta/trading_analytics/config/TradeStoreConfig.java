@@ -0,0 +1,18 @@
+package com.sparta.trading_analytics.config;
+
+import com.sparta.trading_analytics.service.RetentionProperties;
+import com.sparta.trading_analytics.store.ColumnarTradeStore;
+import com.sparta.trading_analytics.store.TradeStoreFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(RetentionProperties.class)
+public class TradeStoreConfig {
+
+    @Bean
+    public TradeStoreFactory tradeStoreFactory() {
+        return ColumnarTradeStore::new;
+    }
+}
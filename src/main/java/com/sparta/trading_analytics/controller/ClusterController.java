@@ -0,0 +1,67 @@
+package com.sparta.trading_analytics.controller;
+
+import com.sparta.trading_analytics.cluster.ClusterService;
+import com.sparta.trading_analytics.codec.BinaryTradeDecoder;
+import com.sparta.trading_analytics.codec.BinaryTradeFormat;
+import com.sparta.trading_analytics.model.InsightsPartial;
+import com.sparta.trading_analytics.model.Trade;
+import com.sparta.trading_analytics.service.IngestAck;
+import com.sparta.trading_analytics.service.InsightsCache;
+import com.sparta.trading_analytics.service.TradeService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Node-to-node endpoints of cluster mode; clients use the regular endpoints on any node.
+ */
+@RestController
+@ConditionalOnProperty(prefix = "trading.cluster", name = "enabled", havingValue = "true")
+public class ClusterController {
+
+    private final ClusterService clusterService;
+    private final TradeService tradeService;
+    private final InsightsCache insightsCache;
+
+    public ClusterController(ClusterService clusterService, TradeService tradeService, InsightsCache insightsCache) {
+        this.clusterService = clusterService;
+        this.tradeService = tradeService;
+        this.insightsCache = insightsCache;
+    }
+
+    /**
+     * A slice of a {@code POST /trades} routed here by another node; never forwarded again.
+     */
+    @PostMapping(value = "/cluster/trades", consumes = BinaryTradeFormat.MEDIA_TYPE)
+    public ResponseEntity<String> addOwnedTrades(@RequestBody byte[] body) {
+        List<Trade> trades = BinaryTradeDecoder.decode(ByteBuffer.wrap(body));
+        if (clusterService.submitOwned(trades) == IngestAck.ENQUEUED) {
+            return ResponseEntity.accepted().body("Trades accepted for processing");
+        }
+        return ResponseEntity.ok("Trades added successfully");
+    }
+
+    /**
+     * This node's partial, tagged with its data version; a requester that already holds the current version
+     * gets a 304 and the partial is not computed.
+     */
+    @GetMapping("/cluster/insights-partial")
+    public ResponseEntity<InsightsPartial> getInsightsPartial(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String current = insightsCache.etag(tradeService.getVersion());
+        if (current.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+        }
+        InsightsPartial partial = tradeService.getInsightsPartial();
+        return ResponseEntity.ok().eTag(insightsCache.etag(partial.version())).body(partial);
+    }
+}
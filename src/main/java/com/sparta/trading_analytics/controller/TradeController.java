@@ -1,21 +1,62 @@
 package com.sparta.trading_analytics.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sparta.trading_analytics.analytics.GroupBy;
+import com.sparta.trading_analytics.cluster.ClusterService;
+import com.sparta.trading_analytics.codec.BinaryTradeDecoder;
+import com.sparta.trading_analytics.codec.BinaryTradeFormat;
+import com.sparta.trading_analytics.model.BulkIngestResult;
+import com.sparta.trading_analytics.model.Candle;
+import com.sparta.trading_analytics.model.CommoditySketchInsights;
+import com.sparta.trading_analytics.model.GroupAggregate;
 import com.sparta.trading_analytics.model.Trade;
+import com.sparta.trading_analytics.model.TradePage;
+import com.sparta.trading_analytics.service.BulkTradeIngestService;
+import com.sparta.trading_analytics.service.IngestAck;
+import com.sparta.trading_analytics.service.InsightsCache;
+import com.sparta.trading_analytics.service.InsightsStreamService;
 import com.sparta.trading_analytics.service.TradeService;
+import com.sparta.trading_analytics.store.TradeFilter;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
 @RestController
 public class TradeController {
 
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     private final TradeService tradeService;
+    private final ClusterService clusterService;
+    private final BulkTradeIngestService bulkTradeIngestService;
+    private final InsightsStreamService insightsStreamService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter tradeWriter;
 
-    public TradeController(TradeService tradeService) {
+    public TradeController(TradeService tradeService, ClusterService clusterService,
+                           BulkTradeIngestService bulkTradeIngestService,
+                           InsightsStreamService insightsStreamService, ObjectMapper objectMapper) {
         this.tradeService = tradeService;
+        this.clusterService = clusterService;
+        this.bulkTradeIngestService = bulkTradeIngestService;
+        this.insightsStreamService = insightsStreamService;
+        this.objectMapper = objectMapper;
+        this.tradeWriter = objectMapper.writerFor(Trade.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     @PostMapping("/trades")
@@ -23,20 +64,154 @@ public class TradeController {
         if (trades.isEmpty()) {
             throw new IllegalArgumentException("Trade list cannot be empty");
         }
-        tradeService.addTrades(trades);
+        return submit(trades);
+    }
+
+    /**
+     * Compact binary ingest for high-volume feeders; see {@link BinaryTradeFormat} for the layout.
+     * Same all-or-nothing, validation and duplicate rules as the JSON variant.
+     */
+    @PostMapping(value = "/trades", consumes = BinaryTradeFormat.MEDIA_TYPE)
+    public ResponseEntity<String> addBinaryTrades(@RequestBody byte[] body) {
+        List<Trade> trades = BinaryTradeDecoder.decode(ByteBuffer.wrap(body));
+        if (trades.isEmpty()) {
+            throw new IllegalArgumentException("Trade list cannot be empty");
+        }
+        return submit(trades);
+    }
+
+    private ResponseEntity<String> submit(List<Trade> trades) {
+        if (clusterService.submit(trades) == IngestAck.ENQUEUED) {
+            return ResponseEntity.accepted().body("Trades accepted for processing");
+        }
         return ResponseEntity.ok("Trades added successfully");
     }
 
+    /**
+     * Streaming bulk ingest: NDJSON or a JSON array of any size, committed in chunks.
+     * Bad records and duplicates are rejected individually and reported by line number.
+     */
+    @PostMapping(value = "/trades/bulk", consumes = {APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public BulkIngestResult bulkAddTrades(InputStream body) throws IOException {
+        if (clusterService.isEnabled()) {
+            throw new IllegalArgumentException("Bulk ingest is not routed across the cluster; use POST /trades");
+        }
+        return bulkTradeIngestService.ingest(body);
+    }
+
+
+    /**
+     * All trades, or only those matching every given filter ({@code from} inclusive, {@code to} exclusive).
+     * The same filters apply to the paged and streaming variants below. Written as a JSON array straight from
+     * a store snapshot, like the NDJSON stream, so the response is never materialized as a list.
+     */
+    @GetMapping(value = "/trades", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getAllTrades(@RequestParam(required = false) String traderId,
+                                                              @RequestParam(required = false) String commodity,
+                                                              @RequestParam(required = false) Instant from,
+                                                              @RequestParam(required = false) Instant to) {
+        Iterable<Trade> trades = tradeService.streamTrades(null, TradeFilter.of(traderId, commodity, from, to));
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                for (Trade trade : trades) {
+                    tradeWriter.writeValue(generator, trade);
+                }
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @GetMapping(value = "/trades", params = "limit", produces = MediaType.APPLICATION_JSON_VALUE)
+    public TradePage getTradesPage(@RequestParam int limit, @RequestParam(required = false) String after,
+                                   @RequestParam(required = false) String traderId,
+                                   @RequestParam(required = false) String commodity,
+                                   @RequestParam(required = false) Instant from,
+                                   @RequestParam(required = false) Instant to) {
+        return tradeService.getTradesPage(after, limit, TradeFilter.of(traderId, commodity, from, to));
+    }
+
+    /**
+     * Streams trades as newline-delimited JSON straight from a store snapshot, one trade in memory at a time.
+     */
+    @GetMapping(value = "/trades", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTrades(@RequestParam(required = false) String after,
+                                                              @RequestParam(required = false) String traderId,
+                                                              @RequestParam(required = false) String commodity,
+                                                              @RequestParam(required = false) Instant from,
+                                                              @RequestParam(required = false) Instant to) {
+        Iterable<Trade> trades = tradeService.streamTrades(after, TradeFilter.of(traderId, commodity, from, to));
 
-    @GetMapping("/trades")
-    public List<Trade> getAllTrades() {
-        return tradeService.getAllTrades();
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                for (Trade trade : trades) {
+                    tradeWriter.writeValue(generator, trade);
+                    generator.writeRaw('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE)).body(body);
     }
 
+    /**
+     * Serves the cached response for the current data version; {@code If-None-Match} with its ETag gets a 304.
+     * In cluster mode the response covers every node.
+     */
     @GetMapping("/insights")
-    public Map<String, Object> getInsights() {
-        return tradeService.getInsights();
+    public ResponseEntity<byte[]> getInsights(WebRequest request) {
+        InsightsCache.CachedInsights insights = clusterService.getInsights();
+        if (request.checkNotModified(insights.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(insights.etag())
+                .body(insights.json());
     }
 
-}
+    @GetMapping("/insights/top-traders")
+    public List<Map<String, Object>> getTopTradersByVolume(@RequestParam(defaultValue = "10") int limit,
+                                                           @RequestParam(required = false) String commodity) {
+        return tradeService.getTopTradersByVolume(limit, commodity);
+    }
+
+    @GetMapping("/insights/candles")
+    public List<Candle> getCandles(@RequestParam String commodity,
+                                   @RequestParam(defaultValue = "1m") String interval,
+                                   @RequestParam(required = false) Instant from,
+                                   @RequestParam(required = false) Instant to) {
+        return tradeService.getCandles(commodity, interval, from, to);
+    }
 
+    /**
+     * Ad-hoc group-by ({@code commodity}, {@code trader} or {@code commodity,trader}) over raw trades, with the
+     * same optional filters as {@code GET /trades}. Computed in parallel across cores.
+     */
+    @GetMapping("/insights/query")
+    public List<GroupAggregate> queryInsights(@RequestParam(defaultValue = "commodity") String groupBy,
+                                              @RequestParam(required = false) String traderId,
+                                              @RequestParam(required = false) String commodity,
+                                              @RequestParam(required = false) Instant from,
+                                              @RequestParam(required = false) Instant to) {
+        return tradeService.aggregate(TradeFilter.of(traderId, commodity, from, to), GroupBy.fromCode(groupBy));
+    }
+
+    @GetMapping("/insights/sketches")
+    public Map<String, CommoditySketchInsights> getSketchInsights(@RequestParam(required = false) String commodity) {
+        return tradeService.getSketchInsights(commodity);
+    }
+
+    /**
+     * Server-Sent Events: one "snapshot" event with the {@code /insights} shape (leaderboard cut to
+     * {@code trading.insights.stream.leaderboard-size}), then coalesced "delta" events. Event ids are data versions.
+     */
+    @GetMapping(value = "/insights/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamInsights() {
+        return insightsStreamService.subscribe();
+    }
+
+}
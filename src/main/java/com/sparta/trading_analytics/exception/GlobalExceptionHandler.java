@@ -1,13 +1,16 @@
 package com.sparta.trading_analytics.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.method.annotation.HandlerMethodValidationException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -53,6 +56,16 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(errors, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handles missing or unparseable query parameters.
+     */
+    @ExceptionHandler({MissingServletRequestParameterException.class, MethodArgumentTypeMismatchException.class})
+    public ResponseEntity<Map<String, Object>> handleBadRequestParameter(Exception ex) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("error", "Invalid request parameter: " + ex.getMessage());
+        return buildErrorResponse(errors, HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Handles manually thrown IllegalArgumentException (like duplicate detection).
      */
@@ -63,6 +76,39 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(errors, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handles a full asynchronous ingest queue (429 Too Many Requests with Retry-After in seconds).
+     */
+    @ExceptionHandler(IngestQueueFullException.class)
+    public ResponseEntity<Map<String, Object>> handleIngestQueueFull(IngestQueueFullException ex) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("error", ex.getMessage());
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body(buildErrorResponse(errors, HttpStatus.TOO_MANY_REQUESTS).getBody());
+    }
+
+    /**
+     * Handles a queued batch whose commit was not confirmed in time (503 Service Unavailable).
+     */
+    @ExceptionHandler(IngestTimeoutException.class)
+    public ResponseEntity<Map<String, Object>> handleIngestTimeout(IngestTimeoutException ex) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("error", ex.getMessage());
+        return buildErrorResponse(errors, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * Handles a cluster peer that could not serve its partition (503 Service Unavailable).
+     */
+    @ExceptionHandler(PeerUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handlePeerUnavailable(PeerUnavailableException ex) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("error", ex.getMessage());
+        return buildErrorResponse(errors, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     /**
      * Fallback for unexpected exceptions (500 Internal Server Error).
      */
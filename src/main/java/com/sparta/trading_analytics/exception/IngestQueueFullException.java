@@ -0,0 +1,20 @@
+package com.sparta.trading_analytics.exception;
+
+import java.time.Duration;
+
+/**
+ * The asynchronous ingest queue is full; the client should back off for {@link #getRetryAfter()}.
+ */
+public class IngestQueueFullException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public IngestQueueFullException(Duration retryAfter) {
+        super("Ingest queue is full, retry later");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
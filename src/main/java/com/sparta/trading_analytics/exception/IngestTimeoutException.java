@@ -0,0 +1,14 @@
+package com.sparta.trading_analytics.exception;
+
+import java.time.Duration;
+
+/**
+ * A queued batch was not committed within the configured wait. It stays queued and may still be committed,
+ * so the client should check before resubmitting (a resubmitted duplicate is rejected, not stored twice).
+ */
+public class IngestTimeoutException extends RuntimeException {
+
+    public IngestTimeoutException(Duration timeout) {
+        super("Batch was not committed within " + timeout.toMillis() + " ms; it may still be committed");
+    }
+}
@@ -0,0 +1,11 @@
+package com.sparta.trading_analytics.exception;
+
+/**
+ * A cluster peer could not be reached or failed unexpectedly while serving part of a request.
+ */
+public class PeerUnavailableException extends RuntimeException {
+
+    public PeerUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
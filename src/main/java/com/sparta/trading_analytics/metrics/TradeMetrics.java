@@ -0,0 +1,73 @@
+package com.sparta.trading_analytics.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot-path meters for ingest and insights.
+ * <p>
+ * Every meter is registered once up front and held in a field, so recording is a plain call on an existing
+ * meter: no tag lookup, no varargs, no boxing. Durations are taken with {@link System#nanoTime()} by the
+ * caller and passed in as longs.
+ */
+@Component
+public class TradeMetrics {
+
+    /**
+     * Metrics that record nothing, for services built outside Spring (e.g. in unit tests).
+     */
+    public static final TradeMetrics NONE = new TradeMetrics(new CompositeMeterRegistry());
+
+    private final DistributionSummary batchSize;
+    private final Timer ingestLatency;
+    private final Counter duplicatesInBatch;
+    private final Counter duplicatesInStorage;
+    private final Timer insightsCompute;
+
+    public TradeMetrics(MeterRegistry registry) {
+        this.batchSize = DistributionSummary.builder("trades.ingest.batch.size")
+                .description("Trades per accepted ingest batch")
+                .baseUnit("trades")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.ingestLatency = Timer.builder("trades.ingest.latency")
+                .description("Time to check and commit one ingest batch, including waiting for durability")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.duplicatesInBatch = Counter.builder("trades.duplicates.rejected")
+                .description("Trades rejected as duplicates")
+                .tag("scope", "batch")
+                .register(registry);
+        this.duplicatesInStorage = Counter.builder("trades.duplicates.rejected")
+                .description("Trades rejected as duplicates")
+                .tag("scope", "storage")
+                .register(registry);
+        this.insightsCompute = Timer.builder("trades.insights.compute")
+                .description("Time to compute the /insights response from the aggregates")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public void recordBatch(int trades, long elapsedNanos) {
+        batchSize.record(trades);
+        ingestLatency.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void duplicateInBatch() {
+        duplicatesInBatch.increment();
+    }
+
+    public void duplicateInStorage() {
+        duplicatesInStorage.increment();
+    }
+
+    public void recordInsights(long elapsedNanos) {
+        insightsCompute.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,32 @@
+package com.sparta.trading_analytics.metrics;
+
+import com.sparta.trading_analytics.service.TradeService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Store size gauges. They are sampled on scrape, so they cost nothing on the ingest path.
+ */
+@Component
+public class TradeStoreMetrics implements MeterBinder {
+
+    private final TradeService tradeService;
+
+    public TradeStoreMetrics(TradeService tradeService) {
+        this.tradeService = tradeService;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("trades.store.size", tradeService, TradeService::getTradeCount)
+                .description("Trades currently held in memory")
+                .baseUnit("trades")
+                .register(registry);
+        Gauge.builder("trades.store.heap", tradeService, TradeService::estimatedHeapBytes)
+                .description("Estimated heap held by the trade store, its duplicate index and the ingest-time analytics")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+}
@@ -0,0 +1,11 @@
+package com.sparta.trading_analytics.model;
+
+import java.util.List;
+
+/**
+ * Outcome of a streaming bulk ingest. {@code rejectedLines} lists the input line of each rejected record in
+ * ascending order (capped to the lowest lines, see {@code truncated}); {@code error} is set when the input stopped being parseable, in which
+ * case every record before it has still been processed.
+ */
+public record BulkIngestResult(long accepted, long rejected, List<Long> rejectedLines, boolean truncated, String error) {
+}
@@ -0,0 +1,10 @@
+package com.sparta.trading_analytics.model;
+
+import java.time.Instant;
+
+/**
+ * OHLC / VWAP summary of one commodity over one time bucket {@code [start, start + interval)}.
+ */
+public record Candle(Instant start, double open, double high, double low, double close,
+                     double vwap, long volume, long tradeCount) {
+}
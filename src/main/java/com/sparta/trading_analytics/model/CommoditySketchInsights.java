@@ -0,0 +1,15 @@
+package com.sparta.trading_analytics.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sketch-based summary of one commodity. Distinct traders, percentiles and heavy-hitter volumes are
+ * approximate; {@code tradeCount} is exact.
+ *
+ * @param pricePercentiles p50, p95 and p99 of the trade price, within 1% relative error
+ * @param heavyHitters     traders with the highest estimated volume (never underestimated), highest first
+ */
+public record CommoditySketchInsights(long tradeCount, long distinctTraders, Map<String, Double> pricePercentiles,
+                                      List<TraderRanking.TraderVolume> heavyHitters) {
+}
@@ -0,0 +1,15 @@
+package com.sparta.trading_analytics.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One row of an ad-hoc group-by query. {@code commodity} or {@code traderId} is omitted when the query does
+ * not group by it.
+ *
+ * @param averagePrice plain mean of trade prices, as in {@code /insights}
+ * @param vwap         volume-weighted average price
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record GroupAggregate(String commodity, String traderId, long tradeCount, long volume,
+                             double averagePrice, double vwap, double minPrice, double maxPrice) {
+}
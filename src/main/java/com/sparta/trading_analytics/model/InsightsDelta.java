@@ -0,0 +1,62 @@
+package com.sparta.trading_analytics.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What changed in {@code /insights} between two versions. Values are the new absolute values, not increments,
+ * so applying a delta is a plain overwrite. Sections without changes are omitted, and
+ * {@code topTradersByVolume} is only present when the leaderboard moved, in which case it is the whole board.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record InsightsDelta(Map<String, Integer> totalVolumeByCommodity,
+                            Map<String, Double> averagePriceByCommodity,
+                            List<TraderRow> topTradersByVolume) {
+
+    /**
+     * Leaderboard row as rendered in {@code /insights}: the volume is truncated to an integer.
+     */
+    public record TraderRow(String traderId, int volume) {
+    }
+
+    /**
+     * Diffs two insights responses; {@code previous} may be {@code null}.
+     */
+    public static InsightsDelta between(InsightsResponse previous, InsightsResponse next) {
+        Map<String, InsightsResponse.CommodityTotals> before = new HashMap<>();
+        if (previous != null) {
+            previous.commodities().forEach(totals -> before.put(totals.commodity(), totals));
+        }
+
+        Map<String, Integer> volumes = new LinkedHashMap<>();
+        Map<String, Double> averages = new LinkedHashMap<>();
+        for (InsightsResponse.CommodityTotals totals : next.commodities()) {
+            InsightsResponse.CommodityTotals old = before.get(totals.commodity());
+            if (old == null || old.totalVolume() != totals.totalVolume()) {
+                volumes.put(totals.commodity(), totals.totalVolume());
+            }
+            if (old == null || Double.compare(old.averagePrice(), totals.averagePrice()) != 0) {
+                averages.put(totals.commodity(), totals.averagePrice());
+            }
+        }
+
+        List<TraderRow> leaderboard = rows(next);
+        boolean moved = previous == null || !rows(previous).equals(leaderboard);
+        return new InsightsDelta(volumes.isEmpty() ? null : volumes, averages.isEmpty() ? null : averages,
+                moved ? leaderboard : null);
+    }
+
+    public boolean isEmpty() {
+        return totalVolumeByCommodity == null && averagePriceByCommodity == null && topTradersByVolume == null;
+    }
+
+    private static List<TraderRow> rows(InsightsResponse response) {
+        return response.topTradersByVolume().stream()
+                .map(trader -> new TraderRow(trader.traderId(), (int) trader.volume()))
+                .toList();
+    }
+}
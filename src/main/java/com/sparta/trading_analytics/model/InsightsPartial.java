@@ -0,0 +1,93 @@
+package com.sparta.trading_analytics.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Mergeable inputs of {@code /insights}: raw sums rather than averages, and traders ranked by volume. Partials
+ * over disjoint sets of traders (shards, cluster partitions) merge by adding the sums and interleaving the
+ * rankings; {@link #render()} turns the result into the response.
+ *
+ * @param version      data version the partial was taken at; merged partials add them up
+ * @param rankedTraders traders by volume descending, ties by trader ID
+ */
+public record InsightsPartial(long version,
+                              Map<String, Double> totalVolumeByCommodity,
+                              Map<String, Double> totalPriceByCommodity,
+                              Map<String, Integer> countByCommodity,
+                              List<TraderRanking.TraderVolume> rankedTraders) {
+
+    private static final Comparator<TraderRanking.TraderVolume> BY_VOLUME_DESC =
+            Comparator.comparingDouble(TraderRanking.TraderVolume::volume).reversed()
+                    .thenComparing(TraderRanking.TraderVolume::traderId);
+
+    public static InsightsPartial merge(List<InsightsPartial> partials) {
+        long version = 0;
+        Map<String, Double> volumes = new HashMap<>();
+        Map<String, Double> prices = new HashMap<>();
+        Map<String, Integer> counts = new HashMap<>();
+        List<TraderRanking.TraderVolume> traders = new ArrayList<>();
+        for (InsightsPartial partial : partials) {
+            version += partial.version();
+            partial.totalVolumeByCommodity().forEach((key, value) -> volumes.merge(key, value, Double::sum));
+            partial.totalPriceByCommodity().forEach((key, value) -> prices.merge(key, value, Double::sum));
+            partial.countByCommodity().forEach((key, value) -> counts.merge(key, value, Integer::sum));
+            traders.addAll(partial.rankedTraders());
+        }
+        traders.sort(BY_VOLUME_DESC);
+        return new InsightsPartial(version, volumes, prices, counts, traders);
+    }
+
+    /**
+     * The {@code /insights} response as records, for {@link com.sparta.trading_analytics.codec.InsightsJsonWriter}.
+     */
+    public InsightsResponse toResponse() {
+        List<InsightsResponse.CommodityTotals> commodities = new ArrayList<>(totalVolumeByCommodity.size());
+        totalVolumeByCommodity.forEach((commodity, volume) -> commodities.add(new InsightsResponse.CommodityTotals(
+                commodity, volume.intValue(), totalPriceByCommodity.get(commodity) / countByCommodity.get(commodity))));
+        return new InsightsResponse(version, commodities, rankedTraders);
+    }
+
+    /**
+     * The {@code /insights} response body as maps.
+     */
+    public Map<String, Object> render() {
+        if (countByCommodity.isEmpty()) {
+            Map<String, Object> emptyResponse = new HashMap<>();
+            emptyResponse.put("totalVolumeByCommodity", new HashMap<>());
+            emptyResponse.put("averagePriceByCommodity", new HashMap<>());
+            emptyResponse.put("topTradersByVolume", new ArrayList<>());
+            return emptyResponse;
+        }
+
+        Map<String, Double> averagePriceByCommodity = new HashMap<>();
+        totalPriceByCommodity.forEach((commodity, totalPrice) ->
+                averagePriceByCommodity.put(commodity, totalPrice / countByCommodity.get(commodity)));
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("totalVolumeByCommodity", totalVolumeByCommodity.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().intValue())));
+        response.put("averagePriceByCommodity", averagePriceByCommodity);
+        response.put("topTradersByVolume", traderRows(rankedTraders));
+        return response;
+    }
+
+    /**
+     * Leaderboard rows as rendered in responses: {@code traderId} and integer {@code volume}.
+     */
+    public static List<Map<String, Object>> traderRows(List<TraderRanking.TraderVolume> rankedTraders) {
+        return rankedTraders.stream()
+                .map(traderVolume -> {
+                    Map<String, Object> traderMap = new HashMap<>();
+                    traderMap.put("traderId", traderVolume.traderId());
+                    traderMap.put("volume", (int) traderVolume.volume());
+                    return traderMap;
+                })
+                .collect(Collectors.toList());
+    }
+}
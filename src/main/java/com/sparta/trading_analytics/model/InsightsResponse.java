@@ -0,0 +1,20 @@
+package com.sparta.trading_analytics.model;
+
+import java.util.List;
+
+/**
+ * Typed {@code /insights} response, encoded by {@link com.sparta.trading_analytics.codec.InsightsJsonWriter}
+ * without the intermediate maps of {@link InsightsPartial#render()}.
+ *
+ * @param version             data version the response describes
+ * @param commodities         in the iteration order of the partial's maps, which is the key order of the
+ *                            map-based rendering
+ * @param topTradersByVolume traders by volume descending; volumes are written truncated to integers
+ */
+public record InsightsResponse(long version,
+                               List<CommodityTotals> commodities,
+                               List<TraderRanking.TraderVolume> topTradersByVolume) {
+
+    public record CommodityTotals(String commodity, int totalVolume, double averagePrice) {
+    }
+}
@@ -0,0 +1,241 @@
+package com.sparta.trading_analytics.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Process-wide interning of commodity and trader IDs to dense ints, so the ingest path compares, hashes and
+ * indexes ints instead of Strings; names are only resolved back when rendering responses.
+ * <p>
+ * Symbols are never removed, so a table grows with the vocabulary of IDs ever committed. Parsers only
+ * {@linkplain #canonical(char[], int, int) look names up}; a name is interned when the service first commits a
+ * trade carrying it, so payloads rejected by validation leave no trace here. Each table is capped, and interning
+ * past the cap is rejected like any other invalid input. Lookups are lock-free, including straight from a
+ * parser's character buffer without building a String; only a first sighting takes the lock. Ids are assigned
+ * in arrival order and are not stable across restarts, so they are never persisted; state that is positioned by a
+ * hash of the symbol uses {@link #nameHash(int)}, which depends only on the name.
+ */
+public final class SymbolTable {
+
+    public static final SymbolTable COMMODITIES = new SymbolTable("commodity", 1 << 16);
+    public static final SymbolTable TRADERS = new SymbolTable("trader", 1 << 24);
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private record Entry(String name, int hash, int id, long nameHash) {
+    }
+
+    private final String kind;
+    private final int capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Open addressing with linear probing, at most half full; replaced wholesale when it grows
+    private volatile Entry[] slots = new Entry[INITIAL_CAPACITY * 2];
+    private volatile Entry[] byId = new Entry[INITIAL_CAPACITY];
+    private volatile int size;
+
+    /**
+     * @param kind     what the symbols name, for the error raised at the cap
+     * @param capacity most distinct symbols the table will hold
+     */
+    public SymbolTable(String kind, int capacity) {
+        this.kind = kind;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Id of {@code name}, assigning the next free one on first sighting.
+     *
+     * @throws IllegalArgumentException if {@code name} is new and the table is full
+     */
+    public int intern(String name) {
+        int hash = name.hashCode();
+        Entry entry = find(slots, name, hash);
+        return entry != null ? entry.id() : insert(name, hash);
+    }
+
+    /**
+     * The table's shared instance of the characters {@code chars[offset, offset + length)}, or a new String if
+     * they have never been interned; never interns, and allocates nothing when the symbol is known.
+     */
+    public String canonical(char[] chars, int offset, int length) {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        Entry[] table = slots;
+        int mask = table.length - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            Entry entry = table[slot];
+            if (entry == null) {
+                return new String(chars, offset, length);
+            }
+            if (entry.hash() == hash && matches(entry.name(), chars, offset, length)) {
+                return entry.name();
+            }
+        }
+    }
+
+    /**
+     * The table's shared instance equal to {@code name}, or {@code name} itself if it has never been interned.
+     */
+    public String canonical(String name) {
+        Entry entry = find(slots, name, name.hashCode());
+        return entry != null ? entry.name() : name;
+    }
+
+    /**
+     * Id of {@code name}, or -1 if it has never been interned.
+     */
+    public int lookup(String name) {
+        Entry entry = find(slots, name, name.hashCode());
+        return entry != null ? entry.id() : -1;
+    }
+
+    public String name(int id) {
+        return entry(id).name();
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the symbol's UTF-8 bytes. Unlike the id it is the same in every process, so it can
+     * position persisted state such as sketch registers.
+     */
+    public long nameHash(int id) {
+        return entry(id).nameHash();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Writes a symbol for persistence. Ids are not stable across restarts, so symbols are written by name:
+     * {@code [int length][UTF-8 bytes]}.
+     */
+    public static void writeName(DataOutput out, String name) throws IOException {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a name written by {@link #writeName(DataOutput, String)} and returns its id in this table.
+     */
+    public int readSymbol(DataInput in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return intern(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    private int insert(String name, int hash) {
+        lock.lock();
+        try {
+            // Another thread may have interned it since our lock-free miss
+            Entry existing = find(slots, name, hash);
+            if (existing != null) {
+                return existing.id();
+            }
+            int id = size;
+            if (id == capacity) {
+                throw new IllegalArgumentException("Too many distinct " + kind + " IDs: at most " + capacity + " are kept");
+            }
+            Entry entry = new Entry(name, hash, id, nameHash(name));
+            Entry[] currentById = byId;
+            if (id == currentById.length) {
+                currentById = Arrays.copyOf(currentById, currentById.length * 2);
+            }
+            currentById[id] = entry;
+            byId = currentById;
+
+            Entry[] table = slots;
+            if ((id + 1) * 2 > table.length) {
+                table = rehash(table, table.length * 2);
+            }
+            place(table, entry);
+            slots = table;
+            size = id + 1;
+            return id;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Entry entry(int id) {
+        Entry[] current = byId;
+        Entry entry = id >= 0 && id < current.length ? current[id] : null;
+        // An id picked up through a racy slot read may not be visible here yet
+        return entry != null ? entry : entryLocked(id);
+    }
+
+    private Entry entryLocked(int id) {
+        lock.lock();
+        try {
+            if (id < 0 || id >= size) {
+                throw new IllegalArgumentException("Unknown symbol id: " + id);
+            }
+            return byId[id];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static long nameHash(String name) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : name.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static Entry find(Entry[] table, String name, int hash) {
+        int mask = table.length - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            Entry entry = table[slot];
+            if (entry == null) {
+                return null;
+            }
+            if (entry.hash() == hash && entry.name().equals(name)) {
+                return entry;
+            }
+        }
+    }
+
+    private static Entry[] rehash(Entry[] table, int capacity) {
+        Entry[] grown = new Entry[capacity];
+        for (Entry entry : table) {
+            if (entry != null) {
+                place(grown, entry);
+            }
+        }
+        return grown;
+    }
+
+    private static void place(Entry[] table, Entry entry) {
+        int mask = table.length - 1;
+        int slot = spread(entry.hash()) & mask;
+        while (table[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = entry;
+    }
+
+    private static boolean matches(String name, char[] chars, int offset, int length) {
+        if (name.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (name.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -1,9 +1,15 @@
 package com.sparta.trading_analytics.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.sparta.trading_analytics.codec.InternedSymbolDeserializer;
+import com.sparta.trading_analytics.codec.TradeJsonSerializer;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PastOrPresent;
 import jakarta.validation.constraints.Positive;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -15,12 +21,15 @@ import java.time.Instant;
         description = "Trade details",
         example = "{ \"commodity\": \"Gold\", \"traderId\": \"T001\", \"price\": 2000.0, \"quantity\": 50, \"timestamp\": \"2025-05-10T10:00:00Z\" }"
 )
+@JsonSerialize(using = TradeJsonSerializer.class)
 public class Trade {
 
     @NotNull(message = "Commodity is required")
+    @JsonDeserialize(using = InternedSymbolDeserializer.Commodity.class)
     private String commodity;
 
     @NotNull(message = "Trader ID is required")
+    @JsonDeserialize(using = InternedSymbolDeserializer.Trader.class)
     private String traderId;
 
     @NotNull(message = "Price is required")
@@ -34,4 +43,58 @@ public class Trade {
     @NotNull(message = "Timestamp is required")
     @PastOrPresent(message = "Timestamp cannot be in the future")
     private Instant timestamp;
+
+    // SymbolTable ids, interned on first use by the service (after validation) and reset whenever the name changes
+    @Setter(AccessLevel.NONE)
+    private int commoditySymbol = -1;
+    @Setter(AccessLevel.NONE)
+    private int traderSymbol = -1;
+
+    public void setCommodity(String commodity) {
+        this.commodity = commodity;
+        this.commoditySymbol = -1;
+    }
+
+    public void setTraderId(String traderId) {
+        this.traderId = traderId;
+        this.traderSymbol = -1;
+    }
+
+    @JsonIgnore
+    public int getCommoditySymbol() {
+        if (commoditySymbol < 0) {
+            commoditySymbol = SymbolTable.COMMODITIES.intern(commodity);
+        }
+        return commoditySymbol;
+    }
+
+    @JsonIgnore
+    public int getTraderSymbol() {
+        if (traderSymbol < 0) {
+            traderSymbol = SymbolTable.TRADERS.intern(traderId);
+        }
+        return traderSymbol;
+    }
+
+    /**
+     * The commodity's id if it has ever been interned, else -1; unlike {@link #getCommoditySymbol()} never interns.
+     */
+    @JsonIgnore
+    public int lookupCommoditySymbol() {
+        if (commoditySymbol < 0) {
+            commoditySymbol = SymbolTable.COMMODITIES.lookup(commodity);
+        }
+        return commoditySymbol;
+    }
+
+    /**
+     * The trader's id if it has ever been interned, else -1; unlike {@link #getTraderSymbol()} never interns.
+     */
+    @JsonIgnore
+    public int lookupTraderSymbol() {
+        if (traderSymbol < 0) {
+            traderSymbol = SymbolTable.TRADERS.lookup(traderId);
+        }
+        return traderSymbol;
+    }
 }
@@ -1,25 +1,114 @@
 package com.sparta.trading_analytics.model;
 
-import lombok.Getter;
-
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.IntFunction;
 
-@Getter
+/**
+ * Per-commodity totals, held in arrays indexed by {@link SymbolTable#COMMODITIES} id so adding a trade is
+ * three array updates; the by-name maps are only built when rendering.
+ */
 public class TradeAggregationResult {
 
-    private final Map<String, Double> totalVolumeByCommodity = new HashMap<>();
-    private final Map<String, Double> totalPriceByCommodity = new HashMap<>();
-    private final Map<String, Integer> countByCommodity = new HashMap<>();
-    private final Map<String, Double> traderVolumes = new HashMap<>();
+    private double[] totalVolume = new double[16];
+    private double[] totalPrice = new double[16];
+    private int[] count = new int[16];
 
     public void addTrade(Trade trade) {
-        String commodity = trade.getCommodity();
-        String traderId = trade.getTraderId();
+        int commodity = trade.getCommoditySymbol();
+        ensureCapacity(commodity + 1);
+        totalVolume[commodity] += trade.getQuantity();
+        totalPrice[commodity] += trade.getPrice();
+        count[commodity]++;
+    }
+
+    /**
+     * Folds another partial result into this one and returns {@code this}, so partials built
+     * independently (per shard, per range) can be reduced into a single result.
+     */
+    public TradeAggregationResult combine(TradeAggregationResult other) {
+        ensureCapacity(other.count.length);
+        for (int commodity = 0; commodity < other.count.length; commodity++) {
+            totalVolume[commodity] += other.totalVolume[commodity];
+            totalPrice[commodity] += other.totalPrice[commodity];
+            count[commodity] += other.count[commodity];
+        }
+        return this;
+    }
+
+    /**
+     * Writes the totals, by commodity name, for a snapshot.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        int commodities = 0;
+        for (int c : count) {
+            if (c > 0) {
+                commodities++;
+            }
+        }
+        out.writeInt(commodities);
+        for (int commodity = 0; commodity < count.length; commodity++) {
+            if (count[commodity] > 0) {
+                SymbolTable.writeName(out, SymbolTable.COMMODITIES.name(commodity));
+                out.writeDouble(totalVolume[commodity]);
+                out.writeDouble(totalPrice[commodity]);
+                out.writeInt(count[commodity]);
+            }
+        }
+    }
+
+    /**
+     * Adds totals written by {@link #writeTo(DataOutput)}.
+     */
+    public void readFrom(DataInput in) throws IOException {
+        for (int i = in.readInt(); i > 0; i--) {
+            int commodity = SymbolTable.COMMODITIES.readSymbol(in);
+            ensureCapacity(commodity + 1);
+            totalVolume[commodity] += in.readDouble();
+            totalPrice[commodity] += in.readDouble();
+            count[commodity] += in.readInt();
+        }
+    }
+
+    public Map<String, Double> getTotalVolumeByCommodity() {
+        return byCommodity(commodity -> totalVolume[commodity]);
+    }
+
+    public Map<String, Double> getTotalPriceByCommodity() {
+        return byCommodity(commodity -> totalPrice[commodity]);
+    }
+
+    public Map<String, Integer> getCountByCommodity() {
+        return byCommodity(commodity -> count[commodity]);
+    }
+
+    private <V> Map<String, V> byCommodity(IntFunction<V> value) {
+        Map<String, V> map = new HashMap<>();
+        for (int commodity = 0; commodity < count.length; commodity++) {
+            if (count[commodity] > 0) {
+                map.put(SymbolTable.COMMODITIES.name(commodity), value.apply(commodity));
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Rough heap footprint of the per-commodity arrays, for monitoring.
+     */
+    public long estimatedHeapBytes() {
+        return (long) count.length * (Double.BYTES * 2 + Integer.BYTES);
+    }
 
-        totalVolumeByCommodity.merge(commodity, trade.getQuantity().doubleValue(), Double::sum);
-        totalPriceByCommodity.merge(commodity, trade.getPrice(), Double::sum);
-        countByCommodity.merge(commodity, 1, Integer::sum);
-        traderVolumes.merge(traderId, trade.getQuantity().doubleValue(), Double::sum);
+    private void ensureCapacity(int symbols) {
+        if (symbols > count.length) {
+            int capacity = Math.max(symbols, count.length * 2);
+            totalVolume = Arrays.copyOf(totalVolume, capacity);
+            totalPrice = Arrays.copyOf(totalPrice, capacity);
+            count = Arrays.copyOf(count, capacity);
+        }
     }
 }
@@ -0,0 +1,60 @@
+package com.sparta.trading_analytics.model;
+
+/**
+ * Identity of a trade for duplicate detection: commodity, traderId, timestamp, price and quantity, with the
+ * two IDs held as {@link SymbolTable} ids so building, hashing and comparing a key never touches a String.
+ */
+public final class TradeKey {
+
+    private final int commodity;
+    private final int trader;
+    private final long epochSecond;
+    private final int nanos;
+    private final long priceBits;
+    private final int quantity;
+    private final int hash;
+
+    private TradeKey(int commodity, int trader, long epochSecond, int nanos, long priceBits, int quantity) {
+        this.commodity = commodity;
+        this.trader = trader;
+        this.epochSecond = epochSecond;
+        this.nanos = nanos;
+        this.priceBits = priceBits;
+        this.quantity = quantity;
+        int h = commodity;
+        h = 31 * h + trader;
+        h = 31 * h + Long.hashCode(epochSecond);
+        h = 31 * h + nanos;
+        h = 31 * h + Long.hashCode(priceBits);
+        this.hash = 31 * h + quantity;
+    }
+
+    public static TradeKey of(Trade trade) {
+        return of(trade, trade.getCommoditySymbol(), trade.getTraderSymbol());
+    }
+
+    /**
+     * Key of {@code trade} with the given symbol ids instead of its interned ones, e.g. placeholders for
+     * symbols that are not interned yet.
+     */
+    public static TradeKey of(Trade trade, int commodity, int trader) {
+        return new TradeKey(commodity, trader, trade.getTimestamp().getEpochSecond(), trade.getTimestamp().getNano(),
+                Double.doubleToLongBits(trade.getPrice()), trade.getQuantity());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof TradeKey other && hash == other.hash
+                && commodity == other.commodity && trader == other.trader
+                && epochSecond == other.epochSecond && nanos == other.nanos
+                && priceBits == other.priceBits && quantity == other.quantity;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -0,0 +1,10 @@
+package com.sparta.trading_analytics.model;
+
+import java.util.List;
+
+/**
+ * One page of trades in arrival order. {@code nextCursor} resumes right after the last trade of the page,
+ * so it can also be used to poll for trades appended later.
+ */
+public record TradePage(List<Trade> trades, String nextCursor, boolean hasMore) {
+}
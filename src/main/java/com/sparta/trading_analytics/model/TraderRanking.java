@@ -0,0 +1,166 @@
+package com.sparta.trading_analytics.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Traders ordered by total volume (descending, ties broken by trader ID), maintained incrementally.
+ * <p>
+ * Traders are looked up by {@link SymbolTable#TRADERS} id in an open-addressed table, so adding volume never
+ * hashes a String; the name is resolved once, when a trader is first seen. Adding volume re-positions one
+ * trader in O(log n); reading the top k costs O(log n + k). Not thread-safe: callers guard it the same way as
+ * the aggregates it sits next to.
+ */
+public class TraderRanking {
+
+    private static final Comparator<TraderVolume> BY_VOLUME_DESC =
+            Comparator.comparingDouble(TraderVolume::volume).reversed().thenComparing(TraderVolume::traderId);
+
+    private static final int INITIAL_CAPACITY = 16;
+    // A TraderVolume plus its tree node; names are shared with the symbol table
+    private static final int ESTIMATED_BYTES_PER_TRADER = 64;
+
+    // Linear probing, at most half full; a free slot holds -1
+    private int[] traders = newSlots(INITIAL_CAPACITY);
+    private TraderVolume[] volumes = new TraderVolume[INITIAL_CAPACITY];
+    private final NavigableSet<TraderVolume> ranked = new TreeSet<>(BY_VOLUME_DESC);
+
+    /**
+     * @param trader {@link SymbolTable#TRADERS} id
+     */
+    public void addVolume(int trader, double volume) {
+        int slot = slotOf(trader);
+        TraderVolume previous = volumes[slot];
+        TraderVolume updated;
+        if (previous != null) {
+            ranked.remove(previous);
+            updated = new TraderVolume(previous.traderId(), previous.volume() + volume);
+        } else {
+            updated = new TraderVolume(SymbolTable.TRADERS.name(trader), volume);
+            traders[slot] = trader;
+        }
+        volumes[slot] = updated;
+        ranked.add(updated);
+        if (previous == null && ranked.size() * 2 > traders.length) {
+            grow();
+        }
+    }
+
+    /**
+     * The highest-volume traders, at most {@code limit} of them.
+     */
+    public List<TraderVolume> top(int limit) {
+        List<TraderVolume> top = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (TraderVolume traderVolume : ranked) {
+            if (top.size() == limit) {
+                break;
+            }
+            top.add(traderVolume);
+        }
+        return top;
+    }
+
+    public int size() {
+        return ranked.size();
+    }
+
+    /**
+     * Writes every trader's volume, by trader name, for a snapshot.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(ranked.size());
+        for (TraderVolume traderVolume : ranked) {
+            SymbolTable.writeName(out, traderVolume.traderId());
+            out.writeDouble(traderVolume.volume());
+        }
+    }
+
+    /**
+     * Adds volumes written by {@link #writeTo(DataOutput)}.
+     */
+    public void readFrom(DataInput in) throws IOException {
+        for (int i = in.readInt(); i > 0; i--) {
+            addVolume(SymbolTable.TRADERS.readSymbol(in), in.readDouble());
+        }
+    }
+
+    /**
+     * Top {@code limit} traders across several rankings over disjoint sets of traders (e.g. one per shard),
+     * by k-way merge: O(limit * log(rankings)), without re-sorting anything.
+     */
+    public static List<TraderVolume> mergeTop(List<TraderRanking> rankings, int limit) {
+        PriorityQueue<MergeHead> heads = new PriorityQueue<>(Math.max(1, rankings.size()),
+                (a, b) -> BY_VOLUME_DESC.compare(a.current, b.current));
+        int total = 0;
+        for (TraderRanking ranking : rankings) {
+            total += ranking.size();
+            Iterator<TraderVolume> iterator = ranking.ranked.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new MergeHead(iterator.next(), iterator));
+            }
+        }
+
+        List<TraderVolume> top = new ArrayList<>(Math.min(limit, total));
+        while (top.size() < limit && !heads.isEmpty()) {
+            MergeHead head = heads.poll();
+            top.add(head.current);
+            if (head.rest.hasNext()) {
+                head.current = head.rest.next();
+                heads.add(head);
+            }
+        }
+        return top;
+    }
+
+    /**
+     * Rough heap footprint: the lookup table and one ranked entry per trader, for monitoring.
+     */
+    public long estimatedHeapBytes() {
+        return (long) traders.length * (Integer.BYTES + Integer.BYTES) + (long) ranked.size() * ESTIMATED_BYTES_PER_TRADER;
+    }
+
+    // Slot holding trader, or the free slot where it belongs
+    private int slotOf(int trader) {
+        int mask = traders.length - 1;
+        int slot = (trader * 0x9E3779B9) >>> 1 & mask;
+        while (traders[slot] != -1 && traders[slot] != trader) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        int[] oldTraders = traders;
+        TraderVolume[] oldVolumes = volumes;
+        traders = newSlots(oldTraders.length * 2);
+        volumes = new TraderVolume[oldTraders.length * 2];
+        for (int i = 0; i < oldTraders.length; i++) {
+            if (oldTraders[i] != -1) {
+                int slot = slotOf(oldTraders[i]);
+                traders[slot] = oldTraders[i];
+                volumes[slot] = oldVolumes[i];
+            }
+        }
+    }
+
+    private static int[] newSlots(int capacity) {
+        int[] slots = new int[capacity];
+        Arrays.fill(slots, -1);
+        return slots;
+    }
+
+    public record TraderVolume(String traderId, double volume) {
+    }
+
+    private static final class MergeHead {
+        private TraderVolume current;
+        private final Iterator<TraderVolume> rest;
+
+        private MergeHead(TraderVolume current, Iterator<TraderVolume> rest) {
+            this.current = current;
+            this.rest = rest;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.sparta.trading_analytics.persistence;
+
+/**
+ * When journal writes are forced to disk.
+ */
+public enum FsyncPolicy {
+
+    /**
+     * Every batch is forced before it is acknowledged. Concurrent batches share one force (group commit).
+     */
+    ALWAYS,
+
+    /**
+     * Batches are acknowledged once written to the mapped segment; a background task forces periodically.
+     */
+    INTERVAL,
+
+    /**
+     * Never forced explicitly; the OS writes pages back when it sees fit.
+     */
+    NEVER
+}
@@ -0,0 +1,109 @@
+package com.sparta.trading_analytics.persistence;
+
+import com.sparta.trading_analytics.service.TradeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.OptionalLong;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Startup recovery and periodic snapshots.
+ * <p>
+ * Recovery runs once all singletons exist but before the web server starts taking requests: the newest
+ * snapshot's analytics, retention watermark and trades are loaded, then the WAL is replayed from the position
+ * that snapshot covers. After each periodic
+ * snapshot, WAL segments it fully covers are deleted.
+ */
+@Component
+@ConditionalOnProperty(prefix = "trading.persistence", name = "enabled", havingValue = "true")
+public class PersistenceManager implements SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PersistenceManager.class);
+
+    private final TradeService tradeService;
+    private final WriteAheadLog writeAheadLog;
+    private final SnapshotStore snapshotStore;
+    private final PersistenceProperties properties;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "trade-snapshotter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PersistenceManager(TradeService tradeService, WriteAheadLog writeAheadLog,
+                              SnapshotStore snapshotStore, PersistenceProperties properties) {
+        this.tradeService = tradeService;
+        this.writeAheadLog = writeAheadLog;
+        this.snapshotStore = snapshotStore;
+        this.properties = properties;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        recover();
+        long interval = properties.snapshotInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::snapshotQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void recover() {
+        long start = System.nanoTime();
+        try {
+            // Trades of a snapshot whose analytics were restored must not be counted a second time
+            AtomicBoolean stateRestored = new AtomicBoolean();
+            OptionalLong snapshotPosition = snapshotStore.loadLatest(
+                    state -> {
+                        stateRestored.set(tradeService.restoreState(state));
+                        if (!stateRestored.get()) {
+                            log.warn("Snapshot was taken with a different shard count; rebuilding analytics from its "
+                                    + "trades, without the contribution of trades evicted by retention");
+                        }
+                    },
+                    block -> {
+                        if (stateRestored.get()) {
+                            tradeService.restoreSnapshotTrades(block);
+                        } else {
+                            tradeService.restoreTrades(block);
+                        }
+                    });
+            long fromSnapshot = tradeService.getTradeCount();
+            writeAheadLog.replay(snapshotPosition.orElse(0), tradeService::restoreTrades);
+            log.info("Recovered {} trades ({} from snapshot, {} from WAL) in {} ms",
+                    tradeService.getTradeCount(), fromSnapshot, tradeService.getTradeCount() - fromSnapshot,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Trade recovery failed", e);
+        }
+    }
+
+    /**
+     * Writes a snapshot of the current store and drops the WAL segments it makes redundant.
+     */
+    public void snapshot() throws IOException {
+        TradeService.PersistentSnapshot snapshot = tradeService.snapshotForPersistence();
+        snapshotStore.write(snapshot.journalPosition(), snapshot.state(), snapshot.tradeCount(), snapshot.trades());
+        writeAheadLog.truncateBefore(snapshot.journalPosition());
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (Exception e) {
+            log.warn("Periodic snapshot failed; WAL is kept until the next one succeeds", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
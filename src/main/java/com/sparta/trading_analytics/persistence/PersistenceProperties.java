@@ -0,0 +1,27 @@
+package com.sparta.trading_analytics.persistence;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * {@code trading.persistence.*} settings.
+ *
+ * @param enabled          whether trades are journaled and recovered on startup
+ * @param dir              directory holding WAL segments and snapshots
+ * @param segmentSizeMb    size of each memory-mapped WAL segment
+ * @param fsync            when WAL writes are forced to disk
+ * @param fsyncInterval    force period for {@link FsyncPolicy#INTERVAL}
+ * @param snapshotInterval how often a snapshot is written (after which older WAL segments are deleted)
+ */
+@ConfigurationProperties(prefix = "trading.persistence")
+public record PersistenceProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("data") Path dir,
+        @DefaultValue("64") int segmentSizeMb,
+        @DefaultValue("always") FsyncPolicy fsync,
+        @DefaultValue("100ms") Duration fsyncInterval,
+        @DefaultValue("5m") Duration snapshotInterval) {
+}
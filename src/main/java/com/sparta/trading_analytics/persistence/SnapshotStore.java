@@ -0,0 +1,184 @@
+package com.sparta.trading_analytics.persistence;
+
+import com.sparta.trading_analytics.model.Trade;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Compact point-in-time copies of the trade store, tagged with the WAL position they cover.
+ * <p>
+ * File layout: {@code [int magic][int version][long walPosition][long tradeCount][int stateLength][state]}
+ * followed by {@link TradeBatchCodec} records of up to {@value #TRADES_PER_RECORD} trades. The state is the
+ * service's opaque encoding of its analytics and retention watermark: under retention the trades alone no
+ * longer add up to the aggregates. Version 1 files, which have no state, are still read. Files are written
+ * under a temporary name, forced and then atomically renamed, so a crash mid-write never leaves a partial
+ * snapshot behind.
+ */
+public class SnapshotStore {
+
+    static final int TRADES_PER_RECORD = 8192;
+
+    private static final int MAGIC = 0x54524144;
+    private static final int VERSION = 2;
+    private static final int STATELESS_VERSION = 1;
+    private static final int HEADER_BYTES = 2 * Integer.BYTES + 2 * Long.BYTES;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+
+    private final Path dir;
+
+    public SnapshotStore(Path dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * Writes a snapshot of {@code state} and {@code trades} covering the WAL up to {@code walPosition}, then
+     * removes older snapshots. A write that fails leaves no partial file behind.
+     */
+    public Path write(long walPosition, byte[] state, long tradeCount, Iterator<Trade> trades) throws IOException {
+        Files.createDirectories(dir);
+        Path target = dir.resolve(String.format("%s%020d%s", PREFIX, walPosition, SUFFIX));
+        Path temp = dir.resolve(target.getFileName() + ".tmp");
+
+        try {
+            writeTemp(temp, walPosition, state, tradeCount, trades);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        for (Path older : snapshotPaths()) {
+            if (!older.equals(target)) {
+                Files.deleteIfExists(older);
+            }
+        }
+        return target;
+    }
+
+    private static void writeTemp(Path temp, long walPosition, byte[] state, long tradeCount, Iterator<Trade> trades)
+            throws IOException {
+        TradeBatchCodec codec = new TradeBatchCodec();
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putLong(walPosition).putLong(tradeCount).putInt(state.length).flip();
+            writeFully(channel, header);
+            writeFully(channel, ByteBuffer.wrap(state));
+
+            List<Trade> block = new ArrayList<>(TRADES_PER_RECORD);
+            long written = 0;
+            while (trades.hasNext()) {
+                block.add(trades.next());
+                if (block.size() == TRADES_PER_RECORD || !trades.hasNext()) {
+                    writeFully(channel, codec.encode(block));
+                    written += block.size();
+                    block.clear();
+                }
+            }
+            if (written != tradeCount) {
+                throw new IllegalStateException("Snapshot expected " + tradeCount + " trades but got " + written);
+            }
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Hands the state of the newest snapshot to {@code stateConsumer}, then streams its trades to
+     * {@code consumer} in blocks. A version 1 snapshot has no state; {@code stateConsumer} is not called.
+     *
+     * @return the WAL position the snapshot covers, or empty if there is no snapshot
+     */
+    public OptionalLong loadLatest(Consumer<byte[]> stateConsumer, Consumer<List<Trade>> consumer) throws IOException {
+        List<Path> paths = snapshotPaths();
+        if (paths.isEmpty()) {
+            return OptionalLong.empty();
+        }
+        Path latest = paths.get(paths.size() - 1);
+
+        try (FileChannel channel = FileChannel.open(latest, StandardOpenOption.READ)) {
+            ByteBuffer header = readFully(channel, ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN), latest);
+            int magic = header.getInt();
+            int version = header.getInt();
+            if (magic != MAGIC || (version != VERSION && version != STATELESS_VERSION)) {
+                throw new IllegalStateException("Not a trade snapshot: " + latest);
+            }
+            long walPosition = header.getLong();
+            long tradeCount = header.getLong();
+            if (version == VERSION) {
+                int stateLength = readFully(channel, ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN), latest).getInt();
+                if (stateLength < 0 || stateLength > channel.size()) {
+                    throw new IllegalStateException("Corrupt snapshot " + latest);
+                }
+                stateConsumer.accept(readFully(channel, ByteBuffer.allocate(stateLength), latest).array());
+            }
+
+            ByteBuffer recordHeader = ByteBuffer.allocate(TradeBatchCodec.RECORD_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            ByteBuffer record = ByteBuffer.allocate(0);
+            long loaded = 0;
+            while (loaded < tradeCount) {
+                readFully(channel, recordHeader.clear(), latest);
+                int payloadLength = recordHeader.getInt(0);
+                if (payloadLength <= 0 || payloadLength > channel.size()) {
+                    throw new IllegalStateException("Corrupt snapshot " + latest + " after " + loaded + " trades");
+                }
+                int recordLength = TradeBatchCodec.RECORD_HEADER_BYTES + payloadLength;
+                if (record.capacity() < recordLength) {
+                    record = ByteBuffer.allocate(recordLength).order(ByteOrder.LITTLE_ENDIAN);
+                }
+                record.clear().limit(recordLength);
+                record.put(recordHeader);
+                readFully(channel, record, latest);
+
+                if (TradeBatchCodec.recordLength(record) != recordLength) {
+                    throw new IllegalStateException("Corrupt snapshot " + latest + " after " + loaded + " trades");
+                }
+                List<Trade> block = TradeBatchCodec.decode(record);
+                loaded += block.size();
+                consumer.accept(block);
+            }
+            return OptionalLong.of(walPosition);
+        }
+    }
+
+    // Fills the buffer's remaining space from the channel and flips it for reading
+    private static ByteBuffer readFully(FileChannel channel, ByteBuffer buffer, Path path) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IllegalStateException("Truncated snapshot: " + path);
+            }
+        }
+        return buffer.flip();
+    }
+
+    private List<Path> snapshotPaths() throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.sparta.trading_analytics.persistence;
+
+import com.sparta.trading_analytics.model.Trade;
+import com.sparta.trading_analytics.store.EpochNanos;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary framing shared by WAL segments and snapshot files.
+ * <p>
+ * A record is {@code [int payloadLength][int crc32c(payload)][payload]} and a payload is
+ * {@code [int tradeCount]} followed by trades as
+ * {@code [int len][commodity utf8][int len][traderId utf8][long epochNanos][double price][int quantity]}.
+ * Everything is little-endian. A zero length marks the end of the written data.
+ */
+final class TradeBatchCodec {
+
+    static final int RECORD_HEADER_BYTES = 2 * Integer.BYTES;
+
+    private ByteBuffer scratch = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * Encodes a batch into a complete record. The returned buffer is reused by the next call.
+     */
+    ByteBuffer encode(List<Trade> trades) {
+        ByteBuffer buffer = scratch;
+        buffer.clear();
+        buffer.position(RECORD_HEADER_BYTES);
+        buffer = ensure(buffer, Integer.BYTES);
+        buffer.putInt(trades.size());
+
+        for (Trade trade : trades) {
+            byte[] commodity = trade.getCommodity().getBytes(StandardCharsets.UTF_8);
+            byte[] traderId = trade.getTraderId().getBytes(StandardCharsets.UTF_8);
+            buffer = ensure(buffer, 2 * Integer.BYTES + commodity.length + traderId.length + Long.BYTES + Double.BYTES + Integer.BYTES);
+            buffer.putInt(commodity.length).put(commodity);
+            buffer.putInt(traderId.length).put(traderId);
+            buffer.putLong(EpochNanos.of(trade.getTimestamp()));
+            buffer.putDouble(trade.getPrice());
+            buffer.putInt(trade.getQuantity());
+        }
+
+        int payloadLength = buffer.position() - RECORD_HEADER_BYTES;
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), RECORD_HEADER_BYTES, payloadLength);
+        buffer.putInt(0, payloadLength);
+        buffer.putInt(Integer.BYTES, (int) crc.getValue());
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Length of the record starting at the buffer's position, or -1 if there is no complete, intact record
+     * there (end of data or a torn write). Does not move the buffer.
+     */
+    static int recordLength(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() < RECORD_HEADER_BYTES) {
+            return -1;
+        }
+        int payloadLength = buffer.getInt(start);
+        if (payloadLength <= 0 || payloadLength > buffer.remaining() - RECORD_HEADER_BYTES) {
+            return -1;
+        }
+        CRC32C crc = new CRC32C();
+        ByteBuffer payload = buffer.duplicate();
+        payload.position(start + RECORD_HEADER_BYTES).limit(start + RECORD_HEADER_BYTES + payloadLength);
+        crc.update(payload);
+        if ((int) crc.getValue() != buffer.getInt(start + Integer.BYTES)) {
+            return -1;
+        }
+        return RECORD_HEADER_BYTES + payloadLength;
+    }
+
+    /**
+     * Decodes the (already verified) record at the buffer's position and advances past it.
+     */
+    static List<Trade> decode(ByteBuffer buffer) {
+        buffer.getInt();
+        buffer.getInt();
+        int count = buffer.getInt();
+        List<Trade> trades = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Trade trade = new Trade();
+            trade.setCommodity(readString(buffer));
+            trade.setTraderId(readString(buffer));
+            trade.setTimestamp(EpochNanos.toInstant(buffer.getLong()));
+            trade.setPrice(buffer.getDouble());
+            trade.setQuantity(buffer.getInt());
+            trades.add(trade);
+        }
+        return trades;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(buffer.position(), bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private ByteBuffer ensure(ByteBuffer buffer, int needed) {
+        if (buffer.remaining() >= needed) {
+            return buffer;
+        }
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + needed))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.flip();
+        grown.put(buffer);
+        scratch = grown;
+        return grown;
+    }
+}
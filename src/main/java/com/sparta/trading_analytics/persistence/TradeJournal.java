@@ -0,0 +1,56 @@
+package com.sparta.trading_analytics.persistence;
+
+import com.sparta.trading_analytics.model.Trade;
+
+import java.io.Closeable;
+import java.util.List;
+
+/**
+ * Durable record of accepted batches, written before a batch is applied in memory.
+ * <p>
+ * {@link #append} is called under the service's sequence lock, in the same step that assigns the batch its
+ * arrival sequences and queues its per-shard slices, so journal order matches sequence order and each shard
+ * applies its slices in that order once the lock is released. {@link #awaitDurable} is called after the batch
+ * is applied and no lock is held, so waiting for the disk never blocks other ingest and concurrent batches can
+ * share one flush.
+ */
+public interface TradeJournal extends Closeable {
+
+    /**
+     * Journal that keeps nothing; used when persistence is disabled.
+     */
+    TradeJournal NONE = new TradeJournal() {
+        @Override
+        public long append(List<Trade> trades) {
+            return 0;
+        }
+
+        @Override
+        public void awaitDurable(long position) {
+        }
+
+        @Override
+        public long position() {
+            return 0;
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    /**
+     * Appends one batch and returns the journal position just past it.
+     */
+    long append(List<Trade> trades);
+
+    /**
+     * Blocks until everything up to {@code position} is as durable as the configured fsync policy requires.
+     */
+    void awaitDurable(long position);
+
+    /**
+     * Position just past the last appended batch.
+     */
+    long position();
+}
@@ -0,0 +1,281 @@
+package com.sparta.trading_analytics.persistence;
+
+import com.sparta.trading_analytics.model.Trade;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Append-only binary write-ahead log over memory-mapped segment files.
+ * <p>
+ * Segments are named after the log position of their first byte ({@code wal-<position>.log}) and are
+ * pre-sized and mapped read-write, so an append is a memory copy. Records use {@link TradeBatchCodec}
+ * framing; the length word is written last, so a crash mid-append leaves a record that fails verification
+ * and is treated as the end of the log on the next open.
+ * <p>
+ * With {@link FsyncPolicy#ALWAYS}, callers of {@link #awaitDurable} queue on a single force: whoever gets
+ * there first forces everything written so far, and every batch it covers returns without forcing again.
+ * Both locks are {@link ReentrantLock}s rather than monitors, so a virtual thread waiting on (or holding the
+ * lock across) a force parks instead of pinning its carrier thread.
+ */
+public class WriteAheadLog implements TradeJournal {
+
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path dir;
+    private final long segmentSize;
+    private final FsyncPolicy fsyncPolicy;
+    private final TradeBatchCodec codec = new TradeBatchCodec();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock forceLock = new ReentrantLock();
+    private final ScheduledExecutorService flusher;
+
+    // Guarded by writeLock
+    private Segment current;
+    private long writePosition;
+
+    // Guarded by forceLock
+    private long durablePosition;
+
+    public WriteAheadLog(Path dir, long segmentSize, FsyncPolicy fsyncPolicy, long fsyncIntervalMillis) {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.fsyncPolicy = fsyncPolicy;
+        try {
+            Files.createDirectories(dir);
+            openTail();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open write-ahead log in " + dir, e);
+        }
+        this.durablePosition = writePosition;
+
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "wal-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::sync, fsyncIntervalMillis, fsyncIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    @Override
+    public long append(List<Trade> trades) {
+        writeLock.lock();
+        try {
+            // The codec reuses one buffer, so encoding happens under the lock too
+            ByteBuffer record = codec.encode(trades);
+            // Keep room for the zero length word that terminates the data
+            int needed = record.remaining() + Integer.BYTES;
+            if (current.buffer.remaining() < needed) {
+                roll(needed);
+            }
+
+            MappedByteBuffer buffer = current.buffer;
+            int start = buffer.position();
+            buffer.position(start + Integer.BYTES);
+            buffer.put(record.position(Integer.BYTES));
+            buffer.putInt(start, record.getInt(0));
+            writePosition = current.base + buffer.position();
+            return writePosition;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot roll write-ahead log segment", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void awaitDurable(long position) {
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+            force(position);
+        }
+    }
+
+    @Override
+    public long position() {
+        writeLock.lock();
+        try {
+            return writePosition;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Forces everything written so far.
+     */
+    public void sync() {
+        force(Long.MAX_VALUE);
+    }
+
+    /**
+     * Reads every intact record at or after {@code fromPosition}, in log order.
+     */
+    public void replay(long fromPosition, Consumer<List<Trade>> consumer) throws IOException {
+        for (Path path : segmentPaths()) {
+            long base = baseOf(path);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+                int length;
+                while ((length = TradeBatchCodec.recordLength(buffer)) > 0) {
+                    if (base + buffer.position() >= fromPosition) {
+                        consumer.accept(TradeBatchCodec.decode(buffer));
+                    } else {
+                        buffer.position(buffer.position() + length);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes segments that lie entirely before {@code position} (e.g. once a snapshot covers them).
+     */
+    public void truncateBefore(long position) throws IOException {
+        writeLock.lock();
+        try {
+            List<Path> paths = segmentPaths();
+            for (int i = 0; i + 1 < paths.size(); i++) {
+                if (baseOf(paths.get(i + 1)) <= position && baseOf(paths.get(i)) != current.base) {
+                    Files.deleteIfExists(paths.get(i));
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        if (fsyncPolicy != FsyncPolicy.NEVER) {
+            sync();
+        }
+    }
+
+    private void force(long position) {
+        forceLock.lock();
+        try {
+            if (durablePosition >= position) {
+                return;
+            }
+            Segment segment;
+            long target;
+            writeLock.lock();
+            try {
+                segment = current;
+                target = writePosition;
+            } finally {
+                writeLock.unlock();
+            }
+            // Nothing written since the last force, e.g. an idle INTERVAL tick
+            if (target == durablePosition) {
+                return;
+            }
+            // Earlier segments were forced when they were rolled over
+            segment.buffer.force();
+            durablePosition = target;
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    // Finds the last segment and the end of its intact data, or starts the first segment
+    private void openTail() throws IOException {
+        List<Path> paths = segmentPaths();
+        if (paths.isEmpty()) {
+            current = Segment.create(dir, 0, segmentSize);
+            writePosition = 0;
+            return;
+        }
+
+        Path last = paths.get(paths.size() - 1);
+        current = Segment.open(last, baseOf(last));
+        MappedByteBuffer buffer = current.buffer;
+        int length;
+        while ((length = TradeBatchCodec.recordLength(buffer)) > 0) {
+            buffer.position(buffer.position() + length);
+        }
+        // Wipe whatever a torn write left behind so it can never be mistaken for data
+        int end = buffer.position();
+        for (int i = end; i < buffer.limit(); i++) {
+            if (buffer.get(i) != 0) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+        writePosition = current.base + end;
+    }
+
+    private void roll(int needed) throws IOException {
+        if (fsyncPolicy != FsyncPolicy.NEVER) {
+            current.buffer.force();
+        }
+        long base = current.base + current.buffer.position();
+        current = Segment.create(dir, base, Math.max(segmentSize, needed));
+    }
+
+    private List<Path> segmentPaths() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long baseOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static final class Segment {
+        private final long base;
+        private final MappedByteBuffer buffer;
+
+        private Segment(long base, MappedByteBuffer buffer) {
+            this.base = base;
+            this.buffer = buffer;
+        }
+
+        private static Segment create(Path dir, long base, long size) throws IOException {
+            Path path = dir.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, base, SEGMENT_SUFFIX));
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                return new Segment(base, buffer);
+            }
+        }
+
+        private static Segment open(Path path, long base) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                return new Segment(base, buffer);
+            }
+        }
+    }
+}
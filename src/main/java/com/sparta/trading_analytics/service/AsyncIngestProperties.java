@@ -0,0 +1,26 @@
+package com.sparta.trading_analytics.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * {@code trading.ingest.async.*} settings.
+ *
+ * @param enabled        whether {@code POST /trades} goes through the ingest queue instead of committing on the request thread
+ * @param queueCapacity  requests that may wait in the queue before new ones are refused with 429
+ * @param maxBatchTrades trades the writer coalesces into one commit before it stops taking more requests
+ * @param ack            when requests are answered
+ * @param retryAfter     {@code Retry-After} sent with 429 responses
+ * @param commitTimeout  how long a request waits for its batch to commit (with {@code ack=committed}) before 503
+ */
+@ConfigurationProperties(prefix = "trading.ingest.async")
+public record AsyncIngestProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("1024") int queueCapacity,
+        @DefaultValue("10000") int maxBatchTrades,
+        @DefaultValue("committed") IngestAck ack,
+        @DefaultValue("1s") Duration retryAfter,
+        @DefaultValue("30s") Duration commitTimeout) {
+}
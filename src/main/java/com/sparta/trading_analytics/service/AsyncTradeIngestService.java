@@ -0,0 +1,225 @@
+package com.sparta.trading_analytics.service;
+
+import com.sparta.trading_analytics.exception.IngestQueueFullException;
+import com.sparta.trading_analytics.exception.IngestTimeoutException;
+import com.sparta.trading_analytics.model.Trade;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Front door for {@code POST /trades}.
+ * <p>
+ * When {@code trading.ingest.async.enabled} is false, batches are committed on the calling thread. Otherwise
+ * request threads only put their batch on a bounded queue, and a single writer thread drains it, coalescing
+ * whatever is waiting (up to {@code max-batch-trades}) into one {@link TradeService#addTradeBatches} call,
+ * so a burst of small requests costs one lock round and one journal append instead of hundreds. A full queue
+ * is refused immediately with {@link IngestQueueFullException} rather than piling up blocked request threads.
+ * <p>
+ * On {@link #stop()} the writer commits everything queued and exits; a batch that slipped into the queue
+ * after its last poll is failed, never left waiting.
+ */
+@Service
+public class AsyncTradeIngestService implements SmartLifecycle, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncTradeIngestService.class);
+    private static final long POLL_MILLIS = 100;
+
+    private final TradeService tradeService;
+    private final AsyncIngestProperties properties;
+    private final BlockingQueue<PendingBatch> queue;
+
+    // Set before the writer is told to finish, and once it has exited
+    private volatile boolean stopping;
+    private volatile boolean stopped;
+    private Thread writer;
+
+    public AsyncTradeIngestService(TradeService tradeService, AsyncIngestProperties properties) {
+        if (properties.queueCapacity() <= 0 || properties.maxBatchTrades() <= 0) {
+            throw new IllegalArgumentException("trading.ingest.async queue-capacity and max-batch-trades must be positive");
+        }
+        this.tradeService = tradeService;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+    }
+
+    /**
+     * Submits one all-or-nothing batch.
+     *
+     * @return the acknowledgement level reached; with {@link IngestAck#COMMITTED} rejections are thrown as they
+     * would be by {@link TradeService#addTrades}
+     * @throws IngestQueueFullException if the queue has no room
+     */
+    public IngestAck submit(List<Trade> trades) {
+        if (!properties.enabled()) {
+            tradeService.addTrades(trades);
+            return IngestAck.COMMITTED;
+        }
+        if (stopping) {
+            throw new IllegalStateException("Ingest is shutting down");
+        }
+
+        PendingBatch pending = new PendingBatch(trades, new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            throw new IngestQueueFullException(properties.retryAfter());
+        }
+        // The writer may have exited between the check above and the offer; then take the batch back, unless
+        // stop() already drained (and failed) it
+        if (stopped && queue.remove(pending)) {
+            throw new IllegalStateException("Ingest is shutting down");
+        }
+        if (properties.ack() == IngestAck.ENQUEUED) {
+            return IngestAck.ENQUEUED;
+        }
+
+        try {
+            pending.done().get(properties.commitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IngestTimeoutException(properties.commitTimeout());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the batch to commit");
+        }
+        return IngestAck.COMMITTED;
+    }
+
+    public int queuedBatches() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        if (properties.enabled() && writer == null) {
+            writer = Thread.ofPlatform().name("trade-ingest-writer").start(this::drainLoop);
+        }
+    }
+
+    /**
+     * Refuses new batches, lets the writer commit everything already queued, then fails whatever a racing
+     * request queued after the writer's last poll.
+     */
+    @Override
+    public void stop() {
+        stopping = true;
+        if (writer != null) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                writer.interrupt();
+                Thread.currentThread().interrupt();
+            }
+            writer = null;
+        }
+        stopped = true;
+
+        List<PendingBatch> left = new ArrayList<>();
+        queue.drainTo(left);
+        if (!left.isEmpty()) {
+            log.warn("Failing {} batches queued after the ingest writer stopped", left.size());
+            IllegalStateException shuttingDown = new IllegalStateException("Ingest is shutting down");
+            for (PendingBatch pending : left) {
+                pending.done().completeExceptionally(shuttingDown);
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return writer != null;
+    }
+
+    // Stop after the web server has stopped taking requests, so nothing new is queued during the final drain
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("trades.ingest.queue.depth", this, AsyncTradeIngestService::queuedBatches)
+                .description("Batches waiting for the ingest writer")
+                .baseUnit("batches")
+                .register(registry);
+    }
+
+    private void drainLoop() {
+        List<PendingBatch> group = new ArrayList<>();
+        boolean interrupted = false;
+        while (!stopping || !queue.isEmpty()) {
+            PendingBatch first;
+            try {
+                first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // Treated as a request to stop: refuse new batches, commit what is queued, then exit
+                interrupted = true;
+                stopping = true;
+                continue;
+            }
+            if (first == null) {
+                continue;
+            }
+
+            group.add(first);
+            int trades = first.trades().size();
+            PendingBatch next;
+            while (trades < properties.maxBatchTrades() && (next = queue.poll()) != null) {
+                group.add(next);
+                trades += next.trades().size();
+            }
+
+            commit(group);
+            group.clear();
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void commit(List<PendingBatch> group) {
+        List<List<Trade>> submissions = new ArrayList<>(group.size());
+        for (PendingBatch pending : group) {
+            submissions.add(pending.trades());
+        }
+
+        try {
+            List<IllegalArgumentException> failures = tradeService.addTradeBatches(submissions);
+            for (int i = 0; i < group.size(); i++) {
+                IllegalArgumentException failure = failures.get(i);
+                if (failure == null) {
+                    group.get(i).done().complete(null);
+                } else {
+                    if (properties.ack() == IngestAck.ENQUEUED) {
+                        log.warn("Rejected queued batch of {} trades: {}", submissions.get(i).size(), failure.getMessage());
+                    }
+                    group.get(i).done().completeExceptionally(failure);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to commit {} queued batches", group.size(), e);
+            for (PendingBatch pending : group) {
+                pending.done().completeExceptionally(e);
+            }
+        }
+    }
+
+    private record PendingBatch(List<Trade> trades, CompletableFuture<Void> done) {
+    }
+}
@@ -0,0 +1,251 @@
+package com.sparta.trading_analytics.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sparta.trading_analytics.model.BulkIngestResult;
+import com.sparta.trading_analytics.model.SymbolTable;
+import com.sparta.trading_analytics.model.Trade;
+import com.sparta.trading_analytics.store.EpochNanos;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Streaming ingest for large uploads (NDJSON or one big JSON array).
+ * <p>
+ * Records are pulled one at a time from Jackson's streaming parser, checked against the same rules as the
+ * {@link Trade} bean-validation annotations, and handed to {@link TradeService} in chunks. Invalid records
+ * and duplicates are rejected individually instead of failing the whole upload.
+ */
+@Service
+public class BulkTradeIngestService {
+
+    private static final int MAX_REPORTED_LINES = 1_000;
+
+    private final TradeService tradeService;
+    private final JsonFactory jsonFactory;
+    private final int chunkSize;
+
+    public BulkTradeIngestService(TradeService tradeService,
+                                  ObjectMapper objectMapper,
+                                  @Value("${trading.ingest.bulk-chunk-size:10000}") int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("trading.ingest.bulk-chunk-size must be positive");
+        }
+        this.tradeService = tradeService;
+        this.jsonFactory = objectMapper.getFactory();
+        this.chunkSize = chunkSize;
+    }
+
+    public BulkIngestResult ingest(InputStream input) throws IOException {
+        Progress progress = new Progress(chunkSize);
+        String error = null;
+
+        try (JsonParser parser = jsonFactory.createParser(input)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+
+            while (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                long line = parser.currentTokenLocation().getLineNr();
+                Trade trade = token == JsonToken.START_OBJECT ? readTrade(parser) : null;
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                }
+
+                if (trade != null) {
+                    progress.add(trade, line);
+                    if (progress.pending.size() == chunkSize) {
+                        flush(progress);
+                    }
+                } else {
+                    progress.reject(line);
+                }
+                token = parser.nextToken();
+            }
+        } catch (JsonProcessingException e) {
+            long line = e.getLocation() != null ? e.getLocation().getLineNr() : -1;
+            progress.reject(line);
+            error = "Malformed JSON at line " + line + ": " + e.getOriginalMessage();
+        }
+
+        flush(progress);
+        return new BulkIngestResult(progress.accepted, progress.rejected, progress.rejectedLines(),
+                progress.rejected > progress.lowestRejectedLines.size(), error);
+    }
+
+    private void flush(Progress progress) {
+        if (progress.pending.isEmpty()) {
+            return;
+        }
+        List<Integer> duplicates = tradeService.addTradesSkippingDuplicates(progress.pending);
+        for (int index : duplicates) {
+            progress.reject(progress.pendingLines[index]);
+        }
+        progress.accepted += progress.pending.size() - duplicates.size();
+        progress.pending.clear();
+    }
+
+    /**
+     * Reads one object into a {@link Trade}, or returns {@code null} if it violates any of the
+     * constraints declared on {@link Trade}. Leaves the parser on the object's END_OBJECT.
+     */
+    static Trade readTrade(JsonParser parser) throws IOException {
+        String commodity = null;
+        String traderId = null;
+        Double price = null;
+        Integer quantity = null;
+        Instant timestamp = null;
+        boolean typeError = false;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            try {
+                switch (field) {
+                    case "commodity" -> commodity = readSymbol(parser, value, SymbolTable.COMMODITIES);
+                    case "traderId" -> traderId = readSymbol(parser, value, SymbolTable.TRADERS);
+                    case "price" -> price = readDouble(parser, value);
+                    case "quantity" -> quantity = readInt(parser, value);
+                    case "timestamp" -> timestamp = readInstant(parser, value);
+                    default -> parser.skipChildren();
+                }
+            } catch (IllegalArgumentException | ArithmeticException | DateTimeException e) {
+                typeError = true;
+                parser.skipChildren();
+            }
+        }
+
+        if (typeError || commodity == null || traderId == null
+                || price == null || price <= 0
+                || quantity == null || quantity <= 0
+                || timestamp == null || isInFuture(timestamp) || !isStorable(timestamp)) {
+            return null;
+        }
+
+        Trade trade = new Trade();
+        trade.setCommodity(commodity);
+        trade.setTraderId(traderId);
+        trade.setPrice(price);
+        trade.setQuantity(quantity);
+        trade.setTimestamp(timestamp);
+        return trade;
+    }
+
+    // Known IDs come back as the table's shared instance, read from the parser's buffer without a copy
+    private static String readSymbol(JsonParser parser, JsonToken value, SymbolTable table) throws IOException {
+        if (value == JsonToken.VALUE_STRING) {
+            return table.canonical(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        }
+        if (!value.isScalarValue()) {
+            throw new NumberFormatException("Expected a scalar value");
+        }
+        return table.canonical(parser.getValueAsString());
+    }
+
+    private static Double readDouble(JsonParser parser, JsonToken value) throws IOException {
+        if (value.isNumeric()) {
+            return parser.getDoubleValue();
+        }
+        if (value == JsonToken.VALUE_STRING) {
+            return Double.parseDouble(parser.getText());
+        }
+        throw new NumberFormatException("Expected a number");
+    }
+
+    private static Integer readInt(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() == JsonParser.NumberType.INT) {
+            return parser.getIntValue();
+        }
+        if (value == JsonToken.VALUE_NUMBER_FLOAT) {
+            // Databind's default float-to-int coercion: truncate, but refuse what does not fit an int
+            double number = parser.getDoubleValue();
+            if (!(number >= Integer.MIN_VALUE && number <= Integer.MAX_VALUE)) {
+                throw new ArithmeticException("Integer out of range");
+            }
+            return (int) number;
+        }
+        if (value == JsonToken.VALUE_STRING) {
+            return Integer.parseInt(parser.getText());
+        }
+        throw new NumberFormatException("Expected an integer");
+    }
+
+    private static Instant readInstant(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_STRING) {
+            return Instant.parse(parser.getText());
+        }
+        if (value.isNumeric()) {
+            // Same convention as Jackson's InstantDeserializer: numbers are epoch seconds
+            BigDecimal seconds = parser.getDecimalValue();
+            return Instant.ofEpochSecond(seconds.longValue(), seconds.remainder(BigDecimal.ONE).movePointRight(9).intValueExact());
+        }
+        throw new NumberFormatException("Expected a timestamp");
+    }
+
+    private static boolean isInFuture(Instant timestamp) {
+        return timestamp.isAfter(Instant.now());
+    }
+
+    private static boolean isStorable(Instant timestamp) {
+        try {
+            EpochNanos.of(timestamp);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static final class Progress {
+        private final List<Trade> pending;
+        private final long[] pendingLines;
+        // The lowest MAX_REPORTED_LINES lines seen so far, highest on top; duplicates are only found when
+        // their chunk is flushed, after later lines were already rejected as invalid
+        private final PriorityQueue<Long> lowestRejectedLines = new PriorityQueue<>(Comparator.reverseOrder());
+        private long accepted;
+        private long rejected;
+
+        private Progress(int chunkSize) {
+            this.pending = new ArrayList<>(chunkSize);
+            this.pendingLines = new long[chunkSize];
+        }
+
+        private void add(Trade trade, long line) {
+            pendingLines[pending.size()] = line;
+            pending.add(trade);
+        }
+
+        private void reject(long line) {
+            rejected++;
+            if (lowestRejectedLines.size() < MAX_REPORTED_LINES) {
+                lowestRejectedLines.add(line);
+            } else if (line < lowestRejectedLines.peek()) {
+                lowestRejectedLines.poll();
+                lowestRejectedLines.add(line);
+            }
+        }
+
+        private List<Long> rejectedLines() {
+            List<Long> lines = new ArrayList<>(lowestRejectedLines);
+            lines.sort(null);
+            return lines;
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.sparta.trading_analytics.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.sparta.trading_analytics.cluster.ClusterService;
+import com.sparta.trading_analytics.codec.BinaryTradeDecoder;
+import com.sparta.trading_analytics.codec.BinaryTradeFormat;
+import com.sparta.trading_analytics.model.Trade;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Bulk-loads the configured datasets on startup.
+ * <p>
+ * Runs as an {@link ApplicationRunner}, i.e. after persistence recovery and before Spring Boot switches the
+ * readiness state to {@code ACCEPTING_TRAFFIC}, so {@code /actuator/health/readiness} stays down until every
+ * dataset is in. NDJSON files are split at line boundaries into byte ranges that are parsed and committed in
+ * parallel; a JSON array is parsed in one pass and a binary file is decoded in place. Records are checked like
+ * {@code POST /trades/bulk}: invalid ones and duplicates are skipped, malformed JSON fails startup. In cluster
+ * mode only trades owned by this node are kept, so every node can be pointed at the same dataset.
+ */
+@Component
+@ConditionalOnProperty(prefix = "trading.preload", name = "enabled", havingValue = "true")
+public class DatasetPreloader implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DatasetPreloader.class);
+
+    private static final int RANGES_PER_THREAD = 4;
+    private static final int MIN_RANGE_BYTES = 1 << 20;
+
+    private final PreloadProperties properties;
+    private final TradeService tradeService;
+    private final Predicate<String> ownsTrader;
+    private final JsonFactory jsonFactory;
+    private final ResourceLoader resourceLoader;
+    private final int parallelism;
+
+    @Autowired
+    public DatasetPreloader(PreloadProperties properties, TradeService tradeService, ClusterService clusterService,
+                            ObjectMapper objectMapper, ResourceLoader resourceLoader) {
+        this(properties, tradeService, clusterService::owns, objectMapper, resourceLoader);
+    }
+
+    DatasetPreloader(PreloadProperties properties, TradeService tradeService, Predicate<String> ownsTrader,
+                     ObjectMapper objectMapper, ResourceLoader resourceLoader) {
+        if (properties.chunkSize() <= 0) {
+            throw new IllegalArgumentException("trading.preload.chunk-size must be positive");
+        }
+        if (properties.parallelism() < 0) {
+            throw new IllegalArgumentException("trading.preload.parallelism must not be negative");
+        }
+        this.properties = properties;
+        this.tradeService = tradeService;
+        this.ownsTrader = ownsTrader;
+        this.jsonFactory = objectMapper.getFactory();
+        this.resourceLoader = resourceLoader;
+        this.parallelism = properties.parallelism() > 0
+                ? properties.parallelism() : Runtime.getRuntime().availableProcessors();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        preload();
+    }
+
+    /**
+     * Loads every configured location in order.
+     *
+     * @return number of trades added
+     */
+    public long preload() throws IOException {
+        long accepted = 0;
+        for (String location : properties.locations()) {
+            accepted += load(location);
+        }
+        return accepted;
+    }
+
+    private long load(String location) throws IOException {
+        long start = System.nanoTime();
+        Resource resource = resourceLoader.getResource(location);
+        if (!resource.exists()) {
+            throw new IllegalStateException("Preload dataset " + location + " does not exist");
+        }
+
+        ByteBuffer data = read(resource, location);
+        Tally tally;
+        try {
+            tally = switch (formatOf(data)) {
+                case BINARY -> loadBinary(data);
+                case JSON_ARRAY -> loadJson(data, 0, location);
+                case NDJSON -> loadNdjson(data, location);
+            };
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Preload dataset " + location + ": " + e.getMessage(), e);
+        }
+
+        log.info("Preloaded {} trades from {} ({} invalid or duplicate, {} owned by other nodes) in {} ms",
+                tally.accepted, location, tally.rejected, tally.foreign, (System.nanoTime() - start) / 1_000_000);
+        return tally.accepted;
+    }
+
+    private static ByteBuffer read(Resource resource, String location) throws IOException {
+        if (resource.isFile()) {
+            try (FileChannel channel = FileChannel.open(resource.getFile().toPath(), StandardOpenOption.READ)) {
+                if (channel.size() > Integer.MAX_VALUE) {
+                    throw new IllegalStateException("Preload dataset " + location + " is larger than 2 GB; split it into several locations");
+                }
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+        try (InputStream input = resource.getInputStream()) {
+            return ByteBuffer.wrap(input.readAllBytes());
+        }
+    }
+
+    private enum Format { BINARY, JSON_ARRAY, NDJSON }
+
+    private static Format formatOf(ByteBuffer data) {
+        if (data.remaining() >= Integer.BYTES
+                && data.duplicate().order(BinaryTradeFormat.BYTE_ORDER).getInt() == BinaryTradeFormat.MAGIC) {
+            return Format.BINARY;
+        }
+        for (int i = data.position(); i < data.limit(); i++) {
+            byte b = data.get(i);
+            if (!Character.isWhitespace(b)) {
+                return b == '[' ? Format.JSON_ARRAY : Format.NDJSON;
+            }
+        }
+        return Format.NDJSON;
+    }
+
+    private Tally loadBinary(ByteBuffer data) {
+        List<Trade> trades = BinaryTradeDecoder.decode(data);
+        Tally tally = new Tally(properties.chunkSize());
+        for (Trade trade : trades) {
+            add(tally, trade);
+        }
+        flush(tally);
+        return tally;
+    }
+
+    /**
+     * Splits the file into byte ranges ending on a newline and parses them concurrently; each worker commits
+     * its own chunks. {@link TradeService} applies a chunk shard by shard, so workers only queue behind each other
+     * for the journal append and sequence allocation (see {@code PreloadBenchmark} for measured scaling).
+     */
+    private Tally loadNdjson(ByteBuffer data, String location) throws IOException {
+        List<Integer> bounds = lineAlignedBounds(data);
+        if (bounds.size() == 2) {
+            return loadJson(data, 0, location);
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(Math.min(parallelism, bounds.size() - 1), runnable -> {
+            Thread thread = new Thread(runnable, "trade-preload-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Tally>> ranges = new ArrayList<>(bounds.size() - 1);
+            for (int i = 0; i + 1 < bounds.size(); i++) {
+                ByteBuffer range = data.duplicate().position(bounds.get(i)).limit(bounds.get(i + 1)).slice();
+                int offset = bounds.get(i);
+                ranges.add(workers.submit(() -> loadJson(range, offset, location)));
+            }
+
+            Tally total = new Tally(0);
+            for (Future<Tally> range : ranges) {
+                Tally tally = await(range);
+                total.accepted += tally.accepted;
+                total.rejected += tally.rejected;
+                total.foreign += tally.foreign;
+            }
+            return total;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private List<Integer> lineAlignedBounds(ByteBuffer data) {
+        int size = data.limit();
+        int rangeCount = Math.max(1, Math.min(parallelism * RANGES_PER_THREAD, size / MIN_RANGE_BYTES));
+        List<Integer> bounds = new ArrayList<>(rangeCount + 1);
+        bounds.add(0);
+        for (int i = 1; i < rangeCount; i++) {
+            int bound = (int) ((long) size * i / rangeCount);
+            while (bound < size && data.get(bound - 1) != '\n') {
+                bound++;
+            }
+            if (bound > bounds.get(bounds.size() - 1) && bound < size) {
+                bounds.add(bound);
+            }
+        }
+        bounds.add(size);
+        return bounds;
+    }
+
+    /**
+     * Parses a JSON array or a run of whole NDJSON lines. {@code offset} is where {@code data} starts in the
+     * file, for error messages.
+     */
+    private Tally loadJson(ByteBuffer data, long offset, String location) throws IOException {
+        Tally tally = new Tally(properties.chunkSize());
+        try (JsonParser parser = jsonFactory.createParser(new ByteBufferBackedInputStream(data))) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+
+            while (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                Trade trade = token == JsonToken.START_OBJECT ? BulkTradeIngestService.readTrade(parser) : null;
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                }
+                if (trade != null) {
+                    add(tally, trade);
+                } else {
+                    tally.rejected++;
+                }
+                token = parser.nextToken();
+            }
+        } catch (JsonProcessingException e) {
+            long position = e.getLocation() != null ? offset + e.getLocation().getByteOffset() : offset;
+            throw new IllegalStateException("Malformed JSON in preload dataset " + location
+                    + " near byte " + position + ": " + e.getOriginalMessage(), e);
+        }
+        flush(tally);
+        return tally;
+    }
+
+    private void add(Tally tally, Trade trade) {
+        if (!ownsTrader.test(trade.getTraderId())) {
+            tally.foreign++;
+            return;
+        }
+        tally.pending.add(trade);
+        if (tally.pending.size() == properties.chunkSize()) {
+            flush(tally);
+        }
+    }
+
+    private void flush(Tally tally) {
+        if (tally.pending.isEmpty()) {
+            return;
+        }
+        int duplicates = tradeService.addTradesSkippingDuplicates(tally.pending).size();
+        tally.accepted += tally.pending.size() - duplicates;
+        tally.rejected += duplicates;
+        tally.pending.clear();
+    }
+
+    private static Tally await(Future<Tally> range) throws IOException {
+        try {
+            return range.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while preloading", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static final class Tally {
+        private final List<Trade> pending;
+        private long accepted;
+        private long rejected;
+        private long foreign;
+
+        private Tally(int chunkSize) {
+            this.pending = new ArrayList<>(chunkSize);
+        }
+    }
+}
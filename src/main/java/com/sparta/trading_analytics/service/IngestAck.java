@@ -0,0 +1,15 @@
+package com.sparta.trading_analytics.service;
+
+/**
+ * When an asynchronous ingest request is answered.
+ */
+public enum IngestAck {
+    /**
+     * As soon as the batch is queued (202 Accepted). Rejections such as duplicates are only logged.
+     */
+    ENQUEUED,
+    /**
+     * Once the batch has been checked and committed, with the same responses as synchronous ingest.
+     */
+    COMMITTED
+}
@@ -0,0 +1,59 @@
+package com.sparta.trading_analytics.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sparta.trading_analytics.codec.InsightsJsonWriter;
+import com.sparta.trading_analytics.model.InsightsResponse;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Serialized {@code /insights} response for the current data version.
+ * <p>
+ * Polls between batches get the cached bytes without touching the shards. The ETag combines the version with
+ * a per-process id, since versions restart from zero (and may then describe different data) after a restart.
+ * A new version is encoded from the typed {@link InsightsResponse} by {@link InsightsJsonWriter}.
+ */
+@Service
+public class InsightsCache {
+
+    private final TradeService tradeService;
+    private final JsonFactory jsonFactory;
+    private final String instanceId = Long.toHexString(System.currentTimeMillis());
+
+    private final AtomicReference<CachedInsights> cached = new AtomicReference<>();
+
+    public InsightsCache(TradeService tradeService, ObjectMapper objectMapper) {
+        this.tradeService = tradeService;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    public CachedInsights get() {
+        CachedInsights current = cached.get();
+        if (current != null && current.version() == tradeService.getVersion()) {
+            return current;
+        }
+
+        InsightsResponse insights = tradeService.getInsightsResponse();
+        byte[] json = InsightsJsonWriter.toJson(jsonFactory, insights);
+        CachedInsights computed = new CachedInsights(insights.version(), etag(insights.version()), json);
+
+        // Racing pollers may compute concurrently; keep whichever is newest
+        cached.accumulateAndGet(computed, (kept, fresh) -> kept == null || kept.version() < fresh.version() ? fresh : kept);
+        return computed;
+    }
+
+    /**
+     * Quoted entity tag of this process's data at {@code version}; also tags the cluster partial at that version.
+     */
+    public String etag(long version) {
+        return "\"" + instanceId + "-" + version + "\"";
+    }
+
+    /**
+     * @param etag quoted entity tag for the {@code ETag} header
+     */
+    public record CachedInsights(long version, String etag, byte[] json) {
+    }
+}
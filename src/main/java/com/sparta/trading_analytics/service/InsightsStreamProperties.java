@@ -0,0 +1,22 @@
+package com.sparta.trading_analytics.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * {@code trading.insights.stream.*} settings.
+ *
+ * @param tick            how often changes are coalesced into one delta per subscriber
+ * @param bufferSize      deltas queued per subscriber before it is dropped to a snapshot resync
+ * @param leaderboardSize how many top traders snapshots and deltas carry
+ * @param heartbeat       idle time after which a subscriber is sent an SSE comment
+ */
+@ConfigurationProperties(prefix = "trading.insights.stream")
+public record InsightsStreamProperties(
+        @DefaultValue("100ms") Duration tick,
+        @DefaultValue("16") int bufferSize,
+        @DefaultValue("10") int leaderboardSize,
+        @DefaultValue("15s") Duration heartbeat) {
+}
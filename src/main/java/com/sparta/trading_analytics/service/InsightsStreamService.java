@@ -0,0 +1,261 @@
+package com.sparta.trading_analytics.service;
+
+import com.sparta.trading_analytics.model.InsightsDelta;
+import com.sparta.trading_analytics.model.InsightsResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Pushes insight changes to subscribers. A ticker compares the data version once per
+ * {@link InsightsStreamProperties#tick() tick} and, if it moved, diffs the insights into one
+ * {@link InsightsDelta}, so any burst of ingest within a tick becomes a single message.
+ * <p>
+ * Every subscriber gets a "snapshot" event first and "delta" events after that, each with the data version as
+ * its event id. Deltas are offered to a bounded per-subscriber queue drained by the subscriber's own virtual
+ * thread; a subscriber whose queue is full loses its pending deltas and is sent a fresh snapshot instead. The
+ * ticker never waits on a subscriber and ingest never waits on the ticker beyond the shared read locks.
+ * <p>
+ * A subscriber that has not been sent anything for a {@link InsightsStreamProperties#heartbeat() heartbeat}
+ * interval gets an SSE comment, which keeps idle proxies from closing the stream and detects clients that went
+ * away without closing it.
+ */
+@Service
+public class InsightsStreamService implements SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(InsightsStreamService.class);
+
+    static final String SNAPSHOT_EVENT = "snapshot";
+    static final String DELTA_EVENT = "delta";
+    static final String HEARTBEAT_COMMENT = "heartbeat";
+
+    private static final long POLL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final TradeService tradeService;
+    private final InsightsStreamProperties properties;
+    private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "insights-stream-ticker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Only touched by the ticker thread
+    private InsightsResponse published;
+
+    public InsightsStreamService(TradeService tradeService, InsightsStreamProperties properties) {
+        if (properties.tick().isNegative() || properties.tick().isZero()) {
+            throw new IllegalArgumentException("trading.insights.stream.tick must be positive");
+        }
+        if (properties.heartbeat().isNegative() || properties.heartbeat().isZero()) {
+            throw new IllegalArgumentException("trading.insights.stream.heartbeat must be positive");
+        }
+        if (properties.bufferSize() < 1 || properties.leaderboardSize() < 1) {
+            throw new IllegalArgumentException(
+                    "trading.insights.stream.buffer-size and leaderboard-size must be at least 1");
+        }
+        this.tradeService = tradeService;
+        this.properties = properties;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        // Baseline for the first delta, so early subscribers are not resynced by the first tick
+        published = tradeService.getInsightsResponse(properties.leaderboardSize());
+        long interval = properties.tick().toMillis();
+        ticker.scheduleWithFixedDelay(this::tickQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens an SSE stream; the emitter never times out and is released when the client goes away, which the
+     * heartbeat detects at the latest.
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscription subscription = subscribe(new EventSink() {
+            @Override
+            public void send(String name, long version, Object data) throws IOException {
+                emitter.send(SseEmitter.event().name(name).id(Long.toString(version)).data(data));
+            }
+
+            @Override
+            public void heartbeat() throws IOException {
+                emitter.send(SseEmitter.event().comment(HEARTBEAT_COMMENT));
+            }
+        });
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(error -> subscription.close());
+        subscription.onFailure(emitter::completeWithError);
+        return emitter;
+    }
+
+    Subscription subscribe(EventSink sink) {
+        Subscription subscription = new Subscription(sink, properties.bufferSize(), properties.heartbeat().toNanos());
+        subscriptions.add(subscription);
+        subscription.start();
+        return subscription;
+    }
+
+    int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Publishes one coalesced delta if the data changed since the last tick.
+     */
+    void tick() {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        InsightsResponse previous = published;
+        if (previous != null && previous.version() == tradeService.getVersion()) {
+            return;
+        }
+        InsightsResponse next = tradeService.getInsightsResponse(properties.leaderboardSize());
+        published = next;
+        if (previous == null) {
+            // Nothing to diff against yet: anyone whose snapshot predates this version starts over
+            for (Subscription subscription : subscriptions) {
+                if (subscription.sentVersion < next.version()) {
+                    subscription.resync = true;
+                }
+            }
+            return;
+        }
+        InsightsDelta delta = InsightsDelta.between(previous, next);
+        if (delta.isEmpty()) {
+            return;
+        }
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(new Event(DELTA_EVENT, next.version(), delta));
+        }
+    }
+
+    private void tickQuietly() {
+        try {
+            tick();
+        } catch (Exception e) {
+            log.warn("Insights stream tick failed; retrying at the next tick", e);
+        }
+    }
+
+    private TradeService.VersionedInsights snapshot() {
+        return tradeService.getVersionedInsights(properties.leaderboardSize());
+    }
+
+    @Override
+    public void destroy() {
+        ticker.shutdownNow();
+        subscriptions.forEach(Subscription::close);
+    }
+
+    @FunctionalInterface
+    interface EventSink {
+        void send(String name, long version, Object data) throws IOException;
+
+        default void heartbeat() throws IOException {
+        }
+    }
+
+    private record Event(String name, long version, Object data) {
+    }
+
+    final class Subscription {
+
+        private final EventSink sink;
+        private final BlockingQueue<Event> queue;
+        private final long heartbeatNanos;
+        private volatile boolean resync = true;
+        private volatile long sentVersion = -1;
+        private volatile boolean closed;
+        private volatile Consumer<Throwable> onFailure = error -> { };
+        private volatile Thread sender;
+
+        private Subscription(EventSink sink, int bufferSize, long heartbeatNanos) {
+            this.sink = sink;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+            this.heartbeatNanos = heartbeatNanos;
+        }
+
+        private void start() {
+            sender = Thread.ofVirtual().name("insights-stream-subscriber").start(this::run);
+        }
+
+        private void onFailure(Consumer<Throwable> onFailure) {
+            this.onFailure = onFailure;
+        }
+
+        boolean needsResync() {
+            return resync;
+        }
+
+        private void offer(Event event) {
+            if (!queue.offer(event)) {
+                resync = true;
+                queue.clear();
+            }
+        }
+
+        private void run() {
+            try {
+                long lastSent = System.nanoTime();
+                while (!closed) {
+                    if (resync) {
+                        resync = false;
+                        queue.clear();
+                        TradeService.VersionedInsights current = snapshot();
+                        // Recorded before sending, so a tick racing with the send does not resync it again
+                        sentVersion = current.version();
+                        sink.send(SNAPSHOT_EVENT, current.version(), current.insights());
+                        lastSent = System.nanoTime();
+                        continue;
+                    }
+                    long untilHeartbeat = heartbeatNanos - (System.nanoTime() - lastSent);
+                    if (untilHeartbeat <= 0) {
+                        sink.heartbeat();
+                        lastSent = System.nanoTime();
+                        continue;
+                    }
+                    Event event = queue.poll(Math.min(untilHeartbeat, POLL_NANOS), TimeUnit.NANOSECONDS);
+                    // Deltas already covered by the last snapshot are stale
+                    if (event != null && event.version() > sentVersion) {
+                        sentVersion = event.version();
+                        sink.send(event.name(), event.version(), event.data());
+                        lastSent = System.nanoTime();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.debug("Insights subscriber dropped", e);
+                onFailure.accept(e);
+            } finally {
+                close();
+            }
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            subscriptions.remove(this);
+            if (sender != null && sender != Thread.currentThread()) {
+                sender.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.sparta.trading_analytics.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * {@code trading.preload.*} settings.
+ *
+ * @param enabled     whether the datasets are loaded on startup, before the readiness probe reports ready
+ * @param locations   Spring resource locations of JSON-array, NDJSON or binary ({@code application/octet-stream}
+ *                    format) trade files
+ * @param parallelism parser threads for NDJSON files; 0 means one per available processor
+ * @param chunkSize   trades per commit
+ */
+@ConfigurationProperties(prefix = "trading.preload")
+public record PreloadProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue List<String> locations,
+        @DefaultValue("0") int parallelism,
+        @DefaultValue("10000") int chunkSize) {
+}
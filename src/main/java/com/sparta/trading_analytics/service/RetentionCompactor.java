@@ -0,0 +1,86 @@
+package com.sparta.trading_analytics.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically evicts raw trades older than the retention window. Aggregates already hold their contribution
+ * (they are updated on ingest), so eviction frees the store and the uniqueness index, and drops the second and
+ * minute candle buckets that are older than the window; hourly candles keep the full history.
+ */
+@Component
+@ConditionalOnProperty(prefix = "trading.retention", name = "enabled", havingValue = "true")
+public class RetentionCompactor implements SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(RetentionCompactor.class);
+
+    private final TradeService tradeService;
+    private final RetentionProperties properties;
+    private final Clock clock;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "trade-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RetentionCompactor(TradeService tradeService, RetentionProperties properties) {
+        this(tradeService, properties, Clock.systemUTC());
+    }
+
+    RetentionCompactor(TradeService tradeService, RetentionProperties properties, Clock clock) {
+        if (properties.window().isNegative() || properties.window().isZero()) {
+            throw new IllegalArgumentException("trading.retention.window must be positive");
+        }
+        if (properties.compactionInterval().isNegative() || properties.compactionInterval().isZero()) {
+            throw new IllegalArgumentException("trading.retention.compaction-interval must be positive");
+        }
+        this.tradeService = tradeService;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long interval = properties.compactionInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::compactQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Evicts everything older than the retention window as of now.
+     *
+     * @return number of raw trades evicted
+     */
+    public long compact() {
+        Instant cutoff = clock.instant().minus(properties.window());
+        long start = System.nanoTime();
+        long evicted = tradeService.evictBefore(cutoff);
+        if (evicted > 0) {
+            log.info("Evicted {} trades older than {} in {} ms", evicted, cutoff,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        return evicted;
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (Exception e) {
+            log.warn("Retention compaction failed; retrying at the next interval", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,20 @@
+package com.sparta.trading_analytics.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * {@code trading.retention.*} settings.
+ *
+ * @param enabled            whether raw trades older than {@code window} are evicted
+ * @param window             how long raw trades (and duplicate detection) are kept, by trade timestamp
+ * @param compactionInterval how often the compactor evicts aged trades
+ */
+@ConfigurationProperties(prefix = "trading.retention")
+public record RetentionProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("24h") Duration window,
+        @DefaultValue("1m") Duration compactionInterval) {
+}
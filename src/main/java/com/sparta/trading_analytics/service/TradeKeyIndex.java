@@ -0,0 +1,59 @@
+package com.sparta.trading_analytics.service;
+
+import com.sparta.trading_analytics.model.TradeKey;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uniqueness index partitioned by the hour of the trade timestamp.
+ * <p>
+ * A trade and its duplicates share a timestamp, so a lookup only ever touches one partition, and retention
+ * drops a whole hour of keys by removing one map entry. Not thread-safe: guarded by the owning shard's lock.
+ */
+final class TradeKeyIndex {
+
+    static final long PARTITION_NANOS = TimeUnit.HOURS.toNanos(1);
+
+    private final Map<Long, Set<TradeKey>> partitions = new HashMap<>();
+    private long size;
+
+    /**
+     * Start of the partition containing {@code epochNanos}; retention cut-offs are rounded down to it.
+     */
+    static long partitionStart(long epochNanos) {
+        return Math.floorDiv(epochNanos, PARTITION_NANOS) * PARTITION_NANOS;
+    }
+
+    boolean contains(TradeKey key, long epochNanos) {
+        Set<TradeKey> partition = partitions.get(Math.floorDiv(epochNanos, PARTITION_NANOS));
+        return partition != null && partition.contains(key);
+    }
+
+    void add(TradeKey key, long epochNanos) {
+        if (partitions.computeIfAbsent(Math.floorDiv(epochNanos, PARTITION_NANOS), p -> new HashSet<>()).add(key)) {
+            size++;
+        }
+    }
+
+    /**
+     * Drops every partition that ends at or before {@code epochNanos} (a partition start).
+     */
+    void evictBefore(long epochNanos) {
+        long firstKept = Math.floorDiv(epochNanos, PARTITION_NANOS);
+        partitions.entrySet().removeIf(partition -> {
+            if (partition.getKey() < firstKept) {
+                size -= partition.getValue().size();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    long size() {
+        return size;
+    }
+}
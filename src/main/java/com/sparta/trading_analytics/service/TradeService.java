@@ -1,122 +1,1080 @@
 package com.sparta.trading_analytics.service;
 
+import com.sparta.trading_analytics.analytics.CandleBook;
+import com.sparta.trading_analytics.analytics.CandleInterval;
+import com.sparta.trading_analytics.analytics.GroupBy;
+import com.sparta.trading_analytics.analytics.ParallelAggregator;
+import com.sparta.trading_analytics.analytics.SketchBook;
+import com.sparta.trading_analytics.metrics.TradeMetrics;
+import com.sparta.trading_analytics.model.Candle;
+import com.sparta.trading_analytics.model.CommoditySketchInsights;
+import com.sparta.trading_analytics.model.GroupAggregate;
+import com.sparta.trading_analytics.model.InsightsPartial;
+import com.sparta.trading_analytics.model.InsightsResponse;
+import com.sparta.trading_analytics.model.SymbolTable;
 import com.sparta.trading_analytics.model.Trade;
 import com.sparta.trading_analytics.model.TradeAggregationResult;
+import com.sparta.trading_analytics.model.TradeKey;
+import com.sparta.trading_analytics.model.TradePage;
+import com.sparta.trading_analytics.model.TraderRanking;
+import com.sparta.trading_analytics.persistence.TradeJournal;
+import com.sparta.trading_analytics.store.ColumnarTradeStore;
+import com.sparta.trading_analytics.store.EpochNanos;
+import com.sparta.trading_analytics.store.TradeCursor;
+import com.sparta.trading_analytics.store.TradeFilter;
+import com.sparta.trading_analytics.store.TradeSnapshot;
+import com.sparta.trading_analytics.store.TradeStoreFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
 import java.util.*;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 @Service
 public class TradeService {
 
-    private final List<Trade> trades = new CopyOnWriteArrayList<>();
+    private static final int MAX_PAGE_SIZE = 10_000;
+    private static final int DEFAULT_SHARD_COUNT = 8;
+
+    // Trades are partitioned by trader ID and each shard has its own lock. A batch checks and reserves its
+    // keys shard by shard, journals and takes its arrival sequences in one short ordered step, then applies
+    // its slices shard by shard, so batches only ever wait for each other on the shards they share.
+    private final TradeShard[] shards;
+
+    // Batches hold the read side from their first check until they are applied; consistent readers take the
+    // write side just long enough to read-lock every shard, so no one sees a half-applied batch
+    private final ReentrantReadWriteLock batchGate = new ReentrantReadWriteLock();
+
+    // Orders journal appends and sequence allocation, so the journal replays in arrival order
+    private final ReentrantLock sequenceLock = new ReentrantLock();
+
+    // Arrival sequence of the next accepted trade; guarded by sequenceLock
+    private long nextSequence;
+
+    // Accepted batches are journaled before they are applied in memory
+    private final TradeJournal journal;
+
+    private final TradeMetrics metrics;
+
+    // Retention watermark (a TradeKeyIndex partition start): older trades have been evicted, together
+    // with the uniqueness keys that would catch their duplicates
+    private volatile long retainedFrom = Long.MIN_VALUE;
+
+    // Bumped once per batch that changes the data, once all of it is applied and before it leaves the gate
+    private final AtomicLong version = new AtomicLong();
+
+    // For tests in this package; everything else names its store and shard count
+    TradeService() {
+        this(ColumnarTradeStore::new, DEFAULT_SHARD_COUNT);
+    }
+
+    public TradeService(TradeStoreFactory tradeStoreFactory, int shardCount) {
+        this(tradeStoreFactory, shardCount, TradeJournal.NONE, TradeMetrics.NONE);
+    }
+
+    @Autowired
+    public TradeService(TradeStoreFactory tradeStoreFactory,
+                        @Value("${trading.store.shards:" + DEFAULT_SHARD_COUNT + "}") int shardCount,
+                        TradeJournal journal,
+                        TradeMetrics metrics) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("trading.store.shards must be positive");
+        }
+        this.journal = journal;
+        this.metrics = metrics;
+        this.shards = new TradeShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new TradeShard(tradeStoreFactory.create());
+        }
+    }
 
     public void addTrades(List<Trade> newTrades) {
-        Set<String> batchSeen = new HashSet<>();
+        IllegalArgumentException failure = addTradeBatches(List.of(newTrades)).get(0);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Commits several independent submissions with one journal append. Each submission is still
+     * all-or-nothing with the same rules as {@link #addTrades}; trades committed by an earlier submission in
+     * the list count as already stored for the later ones.
+     *
+     * @return for each submission, {@code null} if it was committed or the reason it was rejected
+     */
+    public List<IllegalArgumentException> addTradeBatches(List<List<Trade>> submissions) {
+        long startNanos = System.nanoTime();
+        List<IllegalArgumentException> failures = new ArrayList<>(submissions.size());
+        int committedTrades = 0;
+        long journalPosition;
+
+        batchGate.readLock().lock();
+        try {
+            ShardedBatch batch = new ShardedBatch(true);
+            for (List<Trade> newTrades : submissions) {
+                int[] shardOf;
+                TradeKey[] keys;
+                try {
+                    for (Trade newTrade : newTrades) {
+                        String invalid = invalidReason(newTrade);
+                        if (invalid != null) {
+                            throw new IllegalArgumentException(invalid);
+                        }
+                    }
+                    shardOf = routeToShards(newTrades);
+                    keys = checkSubmission(newTrades, shardOf);
+                } catch (IllegalArgumentException e) {
+                    failures.add(e);
+                    continue;
+                }
+                for (int i = 0; i < keys.length; i++) {
+                    batch.add(shardOf[i], newTrades.get(i), keys[i]);
+                }
+                committedTrades += keys.length;
+                failures.add(null);
+            }
+
+            journalPosition = batch.commit(true);
+        } finally {
+            batchGate.readLock().unlock();
+        }
+        if (committedTrades > 0) {
+            journal.awaitDurable(journalPosition);
+            metrics.recordBatch(committedTrades, System.nanoTime() - startNanos);
+        }
+        return failures;
+    }
+
+    // Every check for one all-or-nothing submission. When they pass, its keys are returned and reserved in
+    // their shards, so no concurrent batch can take them before this one is applied. Symbols are only looked up
+    // while checking, and interned once the submission has passed, so a rejected one leaves no new symbols behind.
+    private TradeKey[] checkSubmission(List<Trade> newTrades, int[] shardOf) {
+        Set<TradeKey> batchSeen = new HashSet<>();
+        TradeKey[] keys = new TradeKey[newTrades.size()];
+        long[] epochNanos = new long[keys.length];
+        // Symbols never seen before get ids of their own below zero, which no stored trade can carry
+        Map<String, Integer> newCommodities = new HashMap<>();
+        Map<String, Integer> newTraders = new HashMap<>();
+        int[] knownShardOf = shardOf.clone();
+        int[] newShardOf = new int[shardOf.length];
+        Arrays.fill(newShardOf, -1);
 
-        for (Trade newTrade : newTrades) {
+        for (int i = 0; i < keys.length; i++) {
+            Trade newTrade = newTrades.get(i);
             // Create a unique key for the trade (all fields that define uniqueness)
-            String key = newTrade.getCommodity() + "|" +
-                    newTrade.getTraderId() + "|" +
-                    newTrade.getTimestamp() + "|" +
-                    newTrade.getPrice() + "|" +
-                    newTrade.getQuantity();
+            int commodity = symbolOrPlaceholder(newTrade.lookupCommoditySymbol(), newTrade.getCommodity(), newCommodities);
+            int trader = symbolOrPlaceholder(newTrade.lookupTraderSymbol(), newTrade.getTraderId(), newTraders);
+            TradeKey key = TradeKey.of(newTrade, commodity, trader);
 
             // Check for duplicates within the same batch
             if (!batchSeen.add(key)) {
+                metrics.duplicateInBatch();
                 throw new IllegalArgumentException("Duplicate trade detected within submission batch for trader: "
                         + newTrade.getTraderId() + ", commodity: " + newTrade.getCommodity() + ", time: " + newTrade.getTimestamp());
             }
 
-            // Check for duplicates against already stored trades
-            boolean duplicateInStorage = trades.stream().anyMatch(existing ->
-                    existing.getCommodity().equals(newTrade.getCommodity()) &&
-                            existing.getTraderId().equals(newTrade.getTraderId()) &&
-                            existing.getTimestamp().equals(newTrade.getTimestamp()) &&
-                            existing.getPrice().equals(newTrade.getPrice()) &&
-                            existing.getQuantity().equals(newTrade.getQuantity())
-            );
+            // Reject unstorable timestamps before any shard has been touched
+            epochNanos[i] = EpochNanos.of(newTrade.getTimestamp());
+
+            // Duplicates of trades evicted by retention can no longer be detected, so refuse anything that old
+            if (epochNanos[i] < retainedFrom) {
+                throw new IllegalArgumentException("Trade timestamp is older than the retention window for trader: "
+                        + newTrade.getTraderId() + ", commodity: " + newTrade.getCommodity() + ", time: " + newTrade.getTimestamp());
+            }
+            keys[i] = key;
+            if (commodity < 0 || trader < 0) {
+                newShardOf[i] = shardOf[i];
+                knownShardOf[i] = -1;
+            }
+        }
+
+        // Check for duplicates against stored and in-flight trades (only the owning shard can hold them)
+        int[][] known = positionsByShard(knownShardOf);
+        reserveOrReject(known, keys, epochNanos, newTrades, null);
 
-            if (duplicateInStorage) {
+        // Accepted: intern the new symbols and reserve those trades under their real keys. Only a concurrent
+        // submission that has just been accepted with the same new trade can still collide with them.
+        int[][] fresh = positionsByShard(newShardOf);
+        try {
+            for (int[] positions : fresh) {
+                for (int i : positions) {
+                    keys[i] = TradeKey.of(newTrades.get(i));
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            releaseAll(known, keys, shards.length);
+            throw e;
+        }
+        reserveOrReject(fresh, keys, epochNanos, newTrades, known);
+        return keys;
+    }
+
+    private static int symbolOrPlaceholder(int symbol, String name, Map<String, Integer> placeholders) {
+        return symbol >= 0 ? symbol : placeholders.computeIfAbsent(name, n -> -1 - placeholders.size());
+    }
+
+    // Reserves the keys at the given positions one shard at a time; a duplicate gives back what earlier shards
+    // (and any already reserved positions) hold and rejects the submission
+    private void reserveOrReject(int[][] positions, TradeKey[] keys, long[] epochNanos, List<Trade> newTrades,
+                                 int[][] alreadyReserved) {
+        for (int shard = 0; shard < shards.length; shard++) {
+            int duplicate = reserveAll(shard, positions[shard], keys, epochNanos);
+            if (duplicate >= 0) {
+                releaseAll(positions, keys, shard);
+                if (alreadyReserved != null) {
+                    releaseAll(alreadyReserved, keys, shards.length);
+                }
+                metrics.duplicateInStorage();
+                Trade newTrade = newTrades.get(duplicate);
                 throw new IllegalArgumentException("Duplicate trade detected in storage for trader: "
                         + newTrade.getTraderId() + ", commodity: " + newTrade.getCommodity() + ", time: " + newTrade.getTimestamp());
             }
         }
+    }
+
+    private void releaseAll(int[][] positions, TradeKey[] keys, int shardsReserved) {
+        for (int shard = 0; shard < shardsReserved; shard++) {
+            release(shard, keysAt(positions[shard], keys));
+        }
+    }
+
+    // Reserves the keys at the given positions if none of them is taken, otherwise reserves nothing and
+    // returns the position of the first taken one
+    private int reserveAll(int shard, int[] positions, TradeKey[] keys, long[] epochNanos) {
+        if (positions.length == 0) {
+            return -1;
+        }
+        TradeShard target = shards[shard];
+        target.lock.writeLock().lock();
+        try {
+            for (int i : positions) {
+                if (target.isTaken(keys[i], epochNanos[i])) {
+                    return i;
+                }
+            }
+            for (int i : positions) {
+                target.reserve(keys[i]);
+            }
+            return -1;
+        } finally {
+            target.lock.writeLock().unlock();
+        }
+    }
+
+    private void release(int shard, List<TradeKey> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        shards[shard].lock.writeLock().lock();
+        try {
+            shards[shard].release(keys);
+        } finally {
+            shards[shard].lock.writeLock().unlock();
+        }
+    }
+
+    private static List<TradeKey> keysAt(int[] positions, TradeKey[] keys) {
+        List<TradeKey> selected = new ArrayList<>(positions.length);
+        for (int i : positions) {
+            selected.add(keys[i]);
+        }
+        return selected;
+    }
+
+    /**
+     * Lenient counterpart of {@link #addTrades} for bulk loads: duplicates (within the batch or against
+     * storage) and trades older than the retention window are skipped instead of failing the whole batch.
+     *
+     * @return positions within {@code newTrades} of the rejected trades
+     */
+    public List<Integer> addTradesSkippingDuplicates(List<Trade> newTrades) {
+        return ingestSkippingDuplicates(newTrades, true, true);
+    }
+
+    /**
+     * Re-applies trades recovered from a snapshot or the journal on startup. They are not journaled again.
+     */
+    public void restoreTrades(List<Trade> recoveredTrades) {
+        ingestSkippingDuplicates(recoveredTrades, false, true);
+    }
+
+    /**
+     * Re-applies the analytics and retention watermark saved by {@link #snapshotForPersistence()}, before
+     * the snapshot's trades are loaded with {@link #restoreSnapshotTrades(List)}. They include the
+     * contribution of trades retention had already evicted, which the snapshot no longer holds.
+     *
+     * @return false, leaving everything untouched, if the state was saved with a different shard count; the
+     * trades must then be loaded with {@link #restoreTrades(List)}, and evicted trades' contribution is lost
+     */
+    public boolean restoreState(byte[] state) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(state));
+            if (in.readInt() != shards.length) {
+                return false;
+            }
+            long watermark = in.readLong();
+            for (TradeShard shard : shards) {
+                shard.lock.writeLock().lock();
+                try {
+                    shard.readAnalytics(in);
+                } finally {
+                    shard.lock.writeLock().unlock();
+                }
+            }
+            retainedFrom = Math.max(retainedFrom, watermark);
+            version.incrementAndGet();
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt snapshot state", e);
+        }
+    }
+
+    /**
+     * Loads trades of a snapshot whose state {@link #restoreState(byte[]) was restored}: into the store and
+     * the uniqueness index only, as the analytics already count them. They are not journaled again.
+     */
+    public void restoreSnapshotTrades(List<Trade> recoveredTrades) {
+        ingestSkippingDuplicates(recoveredTrades, false, false);
+    }
+
+    /**
+     * Store snapshots of every shard together with the journal position they correspond to and the
+     * serialized analytics and retention watermark, all captured between two batches. The analytics are
+     * encoded while the shards are locked for reading.
+     */
+    public PersistentSnapshot snapshotForPersistence() {
+        ByteArrayOutputStream state = new ByteArrayOutputStream();
+        lockAllForRead();
+        try {
+            TradeSnapshot[] snapshots = new TradeSnapshot[shards.length];
+            DataOutputStream out = new DataOutputStream(state);
+            out.writeInt(shards.length);
+            out.writeLong(retainedFrom);
+            for (int i = 0; i < shards.length; i++) {
+                snapshots[i] = shards[i].store.snapshot();
+                shards[i].writeAnalytics(out);
+            }
+            out.flush();
+            return new PersistentSnapshot(snapshots, journal.position(), state.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            unlockAllForRead();
+        }
+    }
+
+    private List<Integer> ingestSkippingDuplicates(List<Trade> newTrades, boolean journaled, boolean aggregated) {
+        long startNanos = System.nanoTime();
+        int[] shardOf = routeToShards(newTrades);
+        TradeKey[] keys = new TradeKey[newTrades.size()];
+        long[] epochNanos = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            // Invalid trades, and trades too old to keep, keep a null key and are rejected like duplicates. Any
+            // other rejection is a duplicate of an accepted or stored trade, whose symbols are interned already.
+            if (invalidReason(newTrades.get(i)) == null) {
+                epochNanos[i] = EpochNanos.of(newTrades.get(i).getTimestamp());
+                if (!journaled || epochNanos[i] >= retainedFrom) {
+                    keys[i] = TradeKey.of(newTrades.get(i));
+                }
+            }
+        }
+        int[][] positions = positionsByShard(shardOf);
+        boolean[] accepted = new boolean[keys.length];
+        List<Integer> rejected = new ArrayList<>();
+        long journalPosition;
+
+        batchGate.readLock().lock();
+        try {
+            for (int shard = 0; shard < shards.length; shard++) {
+                reserveNew(shard, positions[shard], keys, epochNanos, journaled, accepted);
+            }
+
+            ShardedBatch batch = new ShardedBatch(aggregated);
+            for (int i = 0; i < keys.length; i++) {
+                if (accepted[i]) {
+                    batch.add(shardOf[i], newTrades.get(i), keys[i]);
+                } else {
+                    rejected.add(i);
+                }
+            }
+            journalPosition = batch.commit(journaled);
+        } finally {
+            batchGate.readLock().unlock();
+        }
+        if (journaled) {
+            journal.awaitDurable(journalPosition);
+            metrics.recordBatch(newTrades.size() - rejected.size(), System.nanoTime() - startNanos);
+        }
+        return rejected;
+    }
+
+    // Reserves every key at the given positions that is not taken, a duplicate of an earlier one or (if asked
+    // to check) older than the retention window, and marks it accepted
+    private void reserveNew(int shard, int[] positions, TradeKey[] keys, long[] epochNanos, boolean checkRetention,
+                            boolean[] accepted) {
+        if (positions.length == 0) {
+            return;
+        }
+        TradeShard target = shards[shard];
+        Set<TradeKey> batchSeen = new HashSet<>();
+        target.lock.writeLock().lock();
+        try {
+            for (int i : positions) {
+                if (keys[i] == null || checkRetention && epochNanos[i] < retainedFrom) {
+                    continue;
+                }
+                if (batchSeen.contains(keys[i])) {
+                    metrics.duplicateInBatch();
+                } else if (target.isTaken(keys[i], epochNanos[i])) {
+                    metrics.duplicateInStorage();
+                } else {
+                    batchSeen.add(keys[i]);
+                    target.reserve(keys[i]);
+                    accepted[i] = true;
+                }
+            }
+        } finally {
+            target.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Evicts raw trades, uniqueness keys and sub-hour candles older than {@code cutoff} (rounded down to a
+     * whole hour). Their contribution to insights, rankings, sketches and hourly candles is kept, so totals
+     * stay exact; snapshots persist it together with the cut-off. From then on, trades older
+     * than the cut-off are rejected, since their duplicates could no longer be detected.
+     *
+     * @return number of raw trades evicted
+     */
+    public long evictBefore(Instant cutoff) {
+        long cutoffNanos = TradeKeyIndex.partitionStart(EpochNanos.of(cutoff));
+        // Raise the watermark between batches: every batch checked against the old one has been applied by
+        // then, so its keys are in the index before the shards are evicted below
+        batchGate.writeLock().lock();
+        try {
+            if (cutoffNanos <= retainedFrom) {
+                return 0;
+            }
+            retainedFrom = cutoffNanos;
+        } finally {
+            batchGate.writeLock().unlock();
+        }
+
+        long evicted = 0;
+        for (TradeShard shard : shards) {
+            shard.lock.writeLock().lock();
+            try {
+                evicted += shard.evictBefore(cutoffNanos);
+            } finally {
+                shard.lock.writeLock().unlock();
+            }
+        }
+        return evicted;
+    }
 
-        trades.addAll(newTrades);
+    public long getTradeCount() {
+        long count = 0;
+        for (TradeSnapshot snapshot : snapshots()) {
+            count += snapshot.size();
+        }
+        return count;
     }
 
+    /**
+     * Rough heap held by the stores, duplicate indexes and ingest-time analytics, for monitoring. Each shard
+     * keeps its own figure current as it changes, so this takes no lock and never waits on ingest.
+     */
+    public long estimatedHeapBytes() {
+        long bytes = 0;
+        for (TradeShard shard : shards) {
+            bytes += shard.estimatedHeapBytes();
+        }
+        return bytes;
+    }
 
+    /**
+     * Every stored trade in arrival order.
+     */
     public List<Trade> getAllTrades() {
-        return new ArrayList<>(trades);
+        TradeSnapshot[] snapshots = snapshots();
+        long total = 0;
+        for (TradeSnapshot snapshot : snapshots) {
+            total += snapshot.size();
+        }
+
+        List<Trade> allTrades = new ArrayList<>((int) total);
+        ArrivalOrder.from(snapshots, 0).forEachRemaining(allTrades::add);
+        return allTrades;
+    }
+
+    public TradePage getTradesPage(String after, int limit) {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        TradeCursor cursor = TradeCursor.decode(after);
+        return page(ArrivalOrder.from(snapshots(), cursor.sequence()), cursor, limit);
+    }
+
+    /**
+     * Lazily iterates trades from snapshots taken now, so callers can stream them without buffering.
+     * The cursor is validated eagerly.
+     */
+    public Iterable<Trade> streamTrades(String after) {
+        TradeCursor from = TradeCursor.decode(after);
+        TradeSnapshot[] snapshots = snapshots();
+        return () -> ArrivalOrder.from(snapshots, from.sequence());
+    }
+
+    /**
+     * Trades matching every given filter, in the same order as {@link #getAllTrades()}, looked up through
+     * the stores' secondary indexes. A trader filter only searches that trader's shard.
+     */
+    public List<Trade> getTrades(TradeFilter filter) {
+        if (filter.isUnfiltered()) {
+            return getAllTrades();
+        }
+        MatchingRows matches = findMatchingRows(filter, 0, Integer.MAX_VALUE);
+        List<Trade> trades = new ArrayList<>(matches.count());
+        matches.trades().forEach(trades::add);
+        return trades;
+    }
+
+    /**
+     * Filtered counterpart of {@link #getTradesPage(String, int)}; the cursor points at the next matching trade.
+     */
+    public TradePage getTradesPage(String after, int limit, TradeFilter filter) {
+        if (filter.isUnfiltered()) {
+            return getTradesPage(after, limit);
+        }
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        // One extra match per shard tells whether there is a next page
+        TradeCursor cursor = TradeCursor.decode(after);
+        MatchingRows matches = findMatchingRows(filter, cursor.sequence(), limit + 1);
+        return page(ArrivalOrder.of(matches.snapshots(), matches.rows()), cursor, limit);
+    }
+
+    private static TradePage page(ArrivalOrder trades, TradeCursor from, int limit) {
+        List<Trade> page = new ArrayList<>();
+        while (page.size() < limit && trades.hasNext()) {
+            page.add(trades.next());
+        }
+        TradeCursor next = page.isEmpty() ? from : new TradeCursor(trades.lastSequence() + 1);
+        return new TradePage(page, next.encode(), trades.hasNext());
+    }
+
+    /**
+     * Filtered counterpart of {@link #streamTrades(String)}. Matching rows are found up front; the trades
+     * themselves are materialized lazily.
+     */
+    public Iterable<Trade> streamTrades(String after, TradeFilter filter) {
+        if (filter.isUnfiltered()) {
+            return streamTrades(after);
+        }
+        return findMatchingRows(filter, TradeCursor.decode(after).sequence(), Integer.MAX_VALUE).trades();
+    }
+
+    // Absolute rows matching the filter with a sequence of at least fromSequence, at most limit per shard,
+    // with the snapshots to read them from, all captured between two batches
+    private MatchingRows findMatchingRows(TradeFilter filter, long fromSequence, int limit) {
+        int onlyShard = filter.traderId() == null ? -1 : shardIndex(filter.traderId());
+        TradeSnapshot[] snapshots = new TradeSnapshot[shards.length];
+        long[][] rows = new long[shards.length][];
+
+        lockAllForRead();
+        try {
+            for (int i = 0; i < shards.length; i++) {
+                snapshots[i] = shards[i].store.snapshot();
+                long fromRow = snapshots[i].firstRow() + snapshots[i].firstRowFrom(fromSequence);
+                rows[i] = onlyShard < 0 || onlyShard == i ? shards[i].store.findRows(filter, fromRow, limit) : new long[0];
+            }
+        } finally {
+            unlockAllForRead();
+        }
+        return new MatchingRows(snapshots, rows);
+    }
+
+    /**
+     * Data version: increases with every batch that adds trades. Equal versions mean identical insights.
+     */
+    public long getVersion() {
+        return version.get();
     }
 
     public Map<String, Object> getInsights() {
-        if (trades.isEmpty()) {
-            return buildEmptyInsightsResponse();
-        }
-
-        TradeAggregationResult result = aggregateTrades();
-        Map<String, Double> averagePriceByCommodity = calculateAveragePrices(result);
-        List<Map<String, Object>> allTradersByVolume = buildAllTradersList(result);
-
-        Map<String, Object> response = new LinkedHashMap<>();
-        response.put("totalVolumeByCommodity", convertToIntegerMap(result.getTotalVolumeByCommodity()));
-        response.put("averagePriceByCommodity", averagePriceByCommodity);
-        response.put("topTradersByVolume", allTradersByVolume);
-        return response;
-    }
-
-    // Aggregate all trades into a single result object
-    private TradeAggregationResult aggregateTrades() {
-        TradeAggregationResult result = new TradeAggregationResult();
-        for (Trade trade : trades) {
-            result.addTrade(trade);
-        }
-        return result;
-    }
-
-    // Calculate average prices
-    private Map<String, Double> calculateAveragePrices(TradeAggregationResult result) {
-        Map<String, Double> averagePrices = new HashMap<>();
-        for (String commodity : result.getTotalPriceByCommodity().keySet()) {
-            double totalPrice = result.getTotalPriceByCommodity().get(commodity);
-            int count = result.getCountByCommodity().get(commodity);
-            averagePrices.put(commodity, totalPrice / count);
-        }
-        return averagePrices;
-    }
-
-    // Helper to build full trader list
-    private List<Map<String, Object>> buildAllTradersList(TradeAggregationResult result) {
-        return result.getTraderVolumes().entrySet().stream()
-                .sorted((e1, e2) -> Double.compare(e2.getValue(), e1.getValue()))
-                .map(entry -> {
-                    Map<String, Object> traderMap = new HashMap<>();
-                    traderMap.put("traderId", entry.getKey());
-                    traderMap.put("volume", entry.getValue().intValue());
-                    return traderMap;
-                })
-                .collect(Collectors.toList());
-    }
-
-    // Return an empty response map if no trades exist
-    private Map<String, Object> buildEmptyInsightsResponse() {
-        Map<String, Object> emptyResponse = new HashMap<>();
-        emptyResponse.put("totalVolumeByCommodity", new HashMap<>());
-        emptyResponse.put("averagePriceByCommodity", new HashMap<>());
-        emptyResponse.put("topTradersByVolume", new ArrayList<>());
-        return emptyResponse;
-    }
-
-    // Convert double map to integer map (for volumes)
-    private Map<String, Integer> convertToIntegerMap(Map<String, Double> doubleMap) {
-        return doubleMap.entrySet().stream()
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        e -> e.getValue().intValue()
-                ));
+        return getVersionedInsights().insights();
+    }
+
+    /**
+     * Insights together with the exact {@link #getVersion() version} they were computed at.
+     */
+    public VersionedInsights getVersionedInsights() {
+        return getVersionedInsights(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Same as {@link #getVersionedInsights()} but with {@code topTradersByVolume} cut to the first
+     * {@code topTraders} entries, which avoids materialising the full leaderboard.
+     */
+    public VersionedInsights getVersionedInsights(int topTraders) {
+        long startNanos = System.nanoTime();
+        lockAllForRead();
+        try {
+            return new VersionedInsights(version.get(), computeInsights(topTraders));
+        } finally {
+            unlockAllForRead();
+            metrics.recordInsights(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Insights as typed records, for encoding without intermediate maps.
+     */
+    public InsightsResponse getInsightsResponse() {
+        return getInsightsResponse(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Same as {@link #getInsightsResponse()} but with the leaderboard cut to the first {@code topTraders} entries.
+     */
+    public InsightsResponse getInsightsResponse(int topTraders) {
+        long startNanos = System.nanoTime();
+        lockAllForRead();
+        try {
+            return insightsPartial(topTraders).toResponse();
+        } finally {
+            unlockAllForRead();
+            metrics.recordInsights(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Mergeable form of the insights, for combining with other nodes' partitions.
+     */
+    public InsightsPartial getInsightsPartial() {
+        lockAllForRead();
+        try {
+            return insightsPartial(Integer.MAX_VALUE);
+        } finally {
+            unlockAllForRead();
+        }
+    }
+
+    // Callers hold every shard's read lock
+    private Map<String, Object> computeInsights(int topTraders) {
+        return insightsPartial(topTraders).render();
+    }
+
+    // Callers hold every shard's read lock
+    private InsightsPartial insightsPartial(int topTraders) {
+        TradeAggregationResult aggregates = new TradeAggregationResult();
+        List<TraderRanking> rankings = new ArrayList<>(shards.length);
+        int traderCount = 0;
+        for (TradeShard shard : shards) {
+            aggregates.combine(shard.aggregates);
+            rankings.add(shard.traderRanking);
+            traderCount += shard.traderRanking.size();
+        }
+        return new InsightsPartial(version.get(),
+                aggregates.getTotalVolumeByCommodity(),
+                aggregates.getTotalPriceByCommodity(),
+                aggregates.getCountByCommodity(),
+                TraderRanking.mergeTop(rankings, Math.min(traderCount, topTraders)));
+    }
+
+    public List<Map<String, Object>> getTopTradersByVolume(int limit, String commodity) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+
+        lockAllForRead();
+        try {
+            int symbol = commodity == null ? -1 : SymbolTable.COMMODITIES.lookup(commodity);
+            List<TraderRanking> rankings = new ArrayList<>(shards.length);
+            for (TradeShard shard : shards) {
+                TraderRanking ranking = commodity == null ? shard.traderRanking : shard.traderRanking(symbol);
+                if (ranking != null) {
+                    rankings.add(ranking);
+                }
+            }
+            return InsightsPartial.traderRows(TraderRanking.mergeTop(rankings, limit));
+        } finally {
+            unlockAllForRead();
+        }
+    }
+
+    /**
+     * Pre-aggregated candles for one commodity. {@code from} is rounded down to its bucket so the candle
+     * containing it is included; {@code to} is exclusive. Missing bounds mean unbounded.
+     */
+    public List<Candle> getCandles(String commodity, String interval, Instant from, Instant to) {
+        CandleInterval candleInterval = CandleInterval.fromCode(interval);
+        long fromNanos = from == null ? Long.MIN_VALUE : candleInterval.bucketStart(EpochNanos.of(from));
+        long toNanos = to == null ? Long.MAX_VALUE : EpochNanos.of(to);
+
+        lockAllForRead();
+        try {
+            List<CandleBook> books = new ArrayList<>(shards.length);
+            for (TradeShard shard : shards) {
+                books.add(shard.candleBook);
+            }
+            return CandleBook.query(books, commodity, candleInterval, fromNanos, toNanos);
+        } finally {
+            unlockAllForRead();
+        }
+    }
+
+    /**
+     * Approximate per-commodity statistics from the shards' sketches, for every commodity or just one.
+     */
+    public Map<String, CommoditySketchInsights> getSketchInsights(String commodity) {
+        lockAllForRead();
+        try {
+            List<SketchBook> books = new ArrayList<>(shards.length);
+            for (TradeShard shard : shards) {
+                books.add(shard.sketchBook);
+            }
+            return SketchBook.summarize(books, commodity);
+        } finally {
+            unlockAllForRead();
+        }
+    }
+
+    /**
+     * Ad-hoc group-by over the raw trades, for questions the ingest-time aggregates cannot answer.
+     */
+    public List<GroupAggregate> aggregate(TradeFilter filter, GroupBy groupBy) {
+        return aggregate(filter, groupBy, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Same as {@link #aggregate(TradeFilter, GroupBy)} on the given pool. Trader and commodity filters narrow
+     * the rows through the secondary indexes first; a time range alone is checked during the parallel scan,
+     * since wide ranges are where the scan pays off.
+     */
+    public List<GroupAggregate> aggregate(TradeFilter filter, GroupBy groupBy, ForkJoinPool pool) {
+        TradeSnapshot[] snapshots;
+        long[][] rows;
+        if (filter.traderId() != null || filter.commodity() != null) {
+            MatchingRows matches = findMatchingRows(filter, 0, Integer.MAX_VALUE);
+            snapshots = matches.snapshots();
+            rows = matches.rows();
+        } else {
+            snapshots = snapshots();
+            rows = new long[shards.length][];
+        }
+        return ParallelAggregator.aggregate(pool, snapshots, rows, filter.fromNanos(), filter.toNanos(), groupBy);
+    }
+
+    private int shardIndex(String traderId) {
+        return shardIndex(traderId, shards.length);
+    }
+
+    static int shardIndex(String traderId, int shardCount) {
+        return Math.floorMod(traderId.hashCode(), shardCount);
+    }
+
+    // A trader-less trade is only ever rejected, so any shard will do for it
+    private int[] routeToShards(List<Trade> trades) {
+        int[] shardOf = new int[trades.size()];
+        for (int i = 0; i < shardOf.length; i++) {
+            String traderId = trades.get(i).getTraderId();
+            shardOf[i] = traderId == null ? 0 : shardIndex(traderId);
+        }
+        return shardOf;
+    }
+
+    // Why the trade cannot be stored, or null if it can. Checked before any shard is touched, since the
+    // aggregates and sketches updated on commit assume every field is present and positive; the REST layer
+    // validates the same constraints, but the binary, cluster and service entry points must not rely on it.
+    private static String invalidReason(Trade trade) {
+        if (trade.getCommodity() == null || trade.getTraderId() == null || trade.getTimestamp() == null
+                || trade.getPrice() == null || trade.getQuantity() == null) {
+            return "Trade is missing a required field for trader: " + trade.getTraderId() + ", commodity: " + trade.getCommodity();
+        }
+        if (!(trade.getPrice() > 0) || Double.isInfinite(trade.getPrice())) {
+            return "Price must be positive for trader: " + trade.getTraderId() + ", commodity: " + trade.getCommodity();
+        }
+        if (trade.getQuantity() <= 0) {
+            return "Quantity must be positive for trader: " + trade.getTraderId() + ", commodity: " + trade.getCommodity();
+        }
+        return null;
+    }
+
+    // For each shard, the positions (ascending) of the trades routed to it
+    // Positions of the trades routed to each shard; a negative shard leaves the trade out
+    private int[][] positionsByShard(int[] shardOf) {
+        int[] counts = new int[shards.length];
+        for (int shard : shardOf) {
+            if (shard >= 0) {
+                counts[shard]++;
+            }
+        }
+        int[][] positions = new int[shards.length][];
+        for (int i = 0; i < shards.length; i++) {
+            positions[i] = new int[counts[i]];
+            counts[i] = 0;
+        }
+        for (int i = 0; i < shardOf.length; i++) {
+            if (shardOf[i] >= 0) {
+                positions[shardOf[i]][counts[shardOf[i]]++] = i;
+            }
+        }
+        return positions;
+    }
+
+    // Read-locks every shard at a point where no batch is half-applied: the gate's write lock waits out the
+    // batches in flight and holds off new ones only while the shard locks are being taken
+    private void lockAllForRead() {
+        batchGate.writeLock().lock();
+        try {
+            for (TradeShard shard : shards) {
+                shard.lock.readLock().lock();
+            }
+        } finally {
+            batchGate.writeLock().unlock();
+        }
+    }
+
+    private void unlockAllForRead() {
+        for (int i = shards.length - 1; i >= 0; i--) {
+            shards[i].lock.readLock().unlock();
+        }
+    }
+
+    // Store snapshots of every shard taken at one consistent point between batches
+    private TradeSnapshot[] snapshots() {
+        TradeSnapshot[] snapshots = new TradeSnapshot[shards.length];
+        lockAllForRead();
+        try {
+            for (int i = 0; i < shards.length; i++) {
+                snapshots[i] = shards[i].store.snapshot();
+            }
+        } finally {
+            unlockAllForRead();
+        }
+        return snapshots;
+    }
+
+    public record VersionedInsights(long version, Map<String, Object> insights) {
+    }
+
+    private record MatchingRows(TradeSnapshot[] snapshots, long[][] rows) {
+
+        int count() {
+            int count = 0;
+            for (long[] shardRows : rows) {
+                count += shardRows.length;
+            }
+            return count;
+        }
+
+        Iterable<Trade> trades() {
+            return () -> ArrivalOrder.of(snapshots, rows);
+        }
+    }
+
+    // Trades of every shard's snapshot merged back into arrival order. Each shard's rows are sorted by
+    // sequence, so the next trade is always at the head of one of them.
+    private static final class ArrivalOrder implements Iterator<Trade> {
+        private final TradeSnapshot[] snapshots;
+        // Absolute rows to visit per shard, or null to visit every row from the start position on
+        private final long[][] rows;
+        // Per shard, the next relative row or the next index into rows
+        private final long[] positions;
+        // Per shard, the sequence at its head, Long.MAX_VALUE once it is exhausted
+        private final long[] heads;
+        private long lastSequence = -1;
+
+        private ArrivalOrder(TradeSnapshot[] snapshots, long[][] rows, long[] positions) {
+            this.snapshots = snapshots;
+            this.rows = rows;
+            this.positions = positions;
+            this.heads = new long[snapshots.length];
+            for (int i = 0; i < snapshots.length; i++) {
+                heads[i] = headSequence(i);
+            }
+        }
+
+        static ArrivalOrder from(TradeSnapshot[] snapshots, long fromSequence) {
+            long[] positions = new long[snapshots.length];
+            for (int i = 0; i < snapshots.length; i++) {
+                positions[i] = snapshots[i].firstRowFrom(fromSequence);
+            }
+            return new ArrivalOrder(snapshots, null, positions);
+        }
+
+        static ArrivalOrder of(TradeSnapshot[] snapshots, long[][] rows) {
+            return new ArrivalOrder(snapshots, rows, new long[snapshots.length]);
+        }
+
+        // Relative row at the head of the shard, or -1 once it is exhausted
+        private long headRow(int shard) {
+            long position = positions[shard];
+            if (rows == null) {
+                return position < snapshots[shard].size() ? position : -1;
+            }
+            return position < rows[shard].length ? rows[shard][(int) position] - snapshots[shard].firstRow() : -1;
+        }
+
+        private long headSequence(int shard) {
+            long row = headRow(shard);
+            return row < 0 ? Long.MAX_VALUE : snapshots[shard].sequence(row);
+        }
+
+        private int nextShard() {
+            int next = -1;
+            long lowest = Long.MAX_VALUE;
+            for (int i = 0; i < heads.length; i++) {
+                if (heads[i] < lowest) {
+                    lowest = heads[i];
+                    next = i;
+                }
+            }
+            return next;
+        }
+
+        // Sequence of the trade last returned by next()
+        long lastSequence() {
+            return lastSequence;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextShard() >= 0;
+        }
+
+        @Override
+        public Trade next() {
+            int shard = nextShard();
+            if (shard < 0) {
+                throw new NoSuchElementException();
+            }
+            long row = headRow(shard);
+            lastSequence = heads[shard];
+            positions[shard]++;
+            heads[shard] = headSequence(shard);
+            return snapshots[shard].get(row);
+        }
+    }
+
+    /**
+     * Per-shard store snapshots plus the journal position they cover.
+     *
+     * @param state analytics and retention watermark, for {@link #restoreState(byte[])}
+     */
+    public record PersistentSnapshot(TradeSnapshot[] shards, long journalPosition, byte[] state) {
+
+        public long tradeCount() {
+            long count = 0;
+            for (TradeSnapshot snapshot : shards) {
+                count += snapshot.size();
+            }
+            return count;
+        }
+
+        // In arrival order, so recovery re-applies them in the order they were accepted
+        public Iterator<Trade> trades() {
+            return ArrivalOrder.from(shards, 0);
+        }
+    }
+
+    // A batch split by owning shard, committed shard by shard once every check has passed and its keys
+    // are reserved
+    private final class ShardedBatch {
+        private final List<Trade> accepted = new ArrayList<>();
+        private final List<List<Trade>> trades = new ArrayList<>(shards.length);
+        private final List<List<TradeKey>> keys = new ArrayList<>(shards.length);
+        private final boolean aggregated;
+        // Shard of each accepted trade, by position
+        private int[] shardOf = new int[16];
+
+        private ShardedBatch(boolean aggregated) {
+            this.aggregated = aggregated;
+            for (int i = 0; i < shards.length; i++) {
+                trades.add(new ArrayList<>());
+                keys.add(new ArrayList<>());
+            }
+        }
+
+        private void add(int shard, Trade trade, TradeKey key) {
+            if (accepted.size() == shardOf.length) {
+                shardOf = Arrays.copyOf(shardOf, shardOf.length * 2);
+            }
+            shardOf[accepted.size()] = shard;
+            accepted.add(trade);
+            trades.get(shard).add(trade);
+            keys.get(shard).add(key);
+        }
+
+        // Journal (if asked to), take the next sequences and queue the slices in one ordered step, then apply
+        // them shard by shard; returns the journal position to wait on. Caller holds the gate's read lock.
+        private long commit(boolean journaled) {
+            if (accepted.isEmpty()) {
+                return 0;
+            }
+            TradeShard.Slice[] slices = new TradeShard.Slice[shards.length];
+            long journalPosition;
+            sequenceLock.lock();
+            try {
+                journalPosition = journaled ? journal.append(accepted) : 0;
+                long[][] sequences = sequences(nextSequence);
+                nextSequence += accepted.size();
+                for (int i = 0; i < shards.length; i++) {
+                    if (!trades.get(i).isEmpty()) {
+                        slices[i] = new TradeShard.Slice(trades.get(i), keys.get(i), sequences[i], aggregated);
+                        shards[i].enqueue(slices[i]);
+                    }
+                }
+            } catch (RuntimeException e) {
+                sequenceLock.unlock();
+                for (int i = 0; i < shards.length; i++) {
+                    release(i, keys.get(i));
+                }
+                throw e;
+            }
+            sequenceLock.unlock();
+
+            for (int i = 0; i < shards.length; i++) {
+                if (slices[i] != null) {
+                    shards[i].lock.writeLock().lock();
+                    try {
+                        shards[i].applyThrough(slices[i]);
+                    } finally {
+                        shards[i].lock.writeLock().unlock();
+                    }
+                }
+            }
+            version.incrementAndGet();
+            return journalPosition;
+        }
+
+        // Per shard, the sequences of its trades when the batch starts at the given one
+        private long[][] sequences(long first) {
+            long[][] sequences = new long[shards.length][];
+            int[] filled = new int[shards.length];
+            for (int i = 0; i < shards.length; i++) {
+                sequences[i] = new long[trades.get(i).size()];
+            }
+            for (int position = 0; position < accepted.size(); position++) {
+                int shard = shardOf[position];
+                sequences[shard][filled[shard]++] = first + position;
+            }
+            return sequences;
+        }
     }
 }
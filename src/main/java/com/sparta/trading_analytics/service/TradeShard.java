@@ -0,0 +1,232 @@
+package com.sparta.trading_analytics.service;
+
+import com.sparta.trading_analytics.analytics.CandleBook;
+import com.sparta.trading_analytics.analytics.SketchBook;
+import com.sparta.trading_analytics.model.SymbolTable;
+import com.sparta.trading_analytics.model.Trade;
+import com.sparta.trading_analytics.model.TradeAggregationResult;
+import com.sparta.trading_analytics.model.TradeKey;
+import com.sparta.trading_analytics.model.TraderRanking;
+import com.sparta.trading_analytics.store.EpochNanos;
+import com.sparta.trading_analytics.store.TradeStore;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One hash partition (by trader ID) of the trade data: its own store, uniqueness index and ingest-time
+ * aggregates, guarded by its own lock. Because a trader always maps to the same shard, duplicate checks and
+ * per-trader rankings never need to look outside it.
+ * <p>
+ * A batch touches a shard twice, each time under this shard's lock alone: once to check its keys and
+ * {@link #reserve} them, and once to apply its {@link Slice}. Slices are queued in global sequence order and
+ * whichever batch holds the lock applies every slice queued ahead of its own, so rows stay sorted by sequence
+ * and a stalled batch never holds up another batch's slice.
+ */
+final class TradeShard {
+
+    // TradeKey (six primitive fields) plus a HashSet node
+    private static final int ESTIMATED_BYTES_PER_KEY = 96;
+
+    final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    final TradeStore store;
+
+    // Uniqueness index over every trade accepted into this shard within the retention window
+    final TradeKeyIndex tradeKeys = new TradeKeyIndex();
+
+    // All-time aggregates, updated on ingest so insights never replay the store (and survive retention)
+    final TradeAggregationResult aggregates = new TradeAggregationResult();
+
+    // Trader leaderboards, overall and per commodity, kept sorted as volume comes in
+    final TraderRanking traderRanking = new TraderRanking();
+    // Indexed by commodity symbol
+    TraderRanking[] traderRankingByCommodity = new TraderRanking[16];
+
+    // Time-bucketed OHLC/VWAP per commodity
+    final CandleBook candleBook = new CandleBook();
+
+    // Fixed-size per-commodity sketches: distinct traders, price percentiles, heavy hitters
+    final SketchBook sketchBook = new SketchBook();
+
+    // Keys of checked trades whose slice is queued but not applied yet; guarded by the write lock
+    private final Set<TradeKey> reserved = new HashSet<>();
+
+    // Slices in sequence order; offered under the service's sequence lock, applied under the write lock
+    private final Queue<Slice> pending = new ConcurrentLinkedQueue<>();
+
+    // Sum over traderRankingByCommodity, kept as the rankings grow; guarded by the write lock
+    private long commodityRankingBytes;
+
+    // Refreshed under the write lock whenever the shard changes, so monitoring reads it without locking
+    private volatile long heapBytes;
+
+    TradeShard(TradeStore store) {
+        this.store = store;
+    }
+
+    // Whether the key belongs to a stored trade or to one reserved by a batch in flight; caller holds the write lock
+    boolean isTaken(TradeKey key, long epochNanos) {
+        return reserved.contains(key) || tradeKeys.contains(key, epochNanos);
+    }
+
+    // Caller holds the write lock
+    void reserve(TradeKey key) {
+        reserved.add(key);
+    }
+
+    // Gives back the reservations of a batch that is not going to be applied; caller holds the write lock
+    void release(List<TradeKey> keys) {
+        keys.forEach(reserved::remove);
+    }
+
+    void enqueue(Slice slice) {
+        pending.add(slice);
+    }
+
+    // Applies queued slices in order until the given one is in; caller holds the write lock
+    void applyThrough(Slice slice) {
+        while (!slice.applied) {
+            Slice next = pending.poll();
+            try {
+                commit(next.trades, next.keys, next.sequences, next.aggregated);
+            } finally {
+                next.applied = true;
+            }
+        }
+        measureHeap();
+    }
+
+    // Apply an already validated, de-duplicated slice of a batch; caller holds the write lock
+    private void commit(List<Trade> trades, List<TradeKey> keys, long[] sequences, boolean aggregated) {
+        store.append(trades, sequences);
+        for (int i = 0; i < trades.size(); i++) {
+            Trade trade = trades.get(i);
+            long epochNanos = EpochNanos.of(trade.getTimestamp());
+            reserved.remove(keys.get(i));
+            tradeKeys.add(keys.get(i), epochNanos);
+            if (!aggregated) {
+                continue;
+            }
+            aggregates.addTrade(trade);
+            int commodity = trade.getCommoditySymbol();
+            int trader = trade.getTraderSymbol();
+            traderRanking.addVolume(trader, trade.getQuantity());
+            TraderRanking ranking = commodityRanking(commodity);
+            long rankingBytes = ranking.estimatedHeapBytes();
+            ranking.addVolume(trader, trade.getQuantity());
+            commodityRankingBytes += ranking.estimatedHeapBytes() - rankingBytes;
+            candleBook.addTrade(commodity, epochNanos, trade.getPrice(), trade.getQuantity());
+            sketchBook.addTrade(commodity, trader, trade.getPrice(), trade.getQuantity());
+        }
+    }
+
+    private TraderRanking commodityRanking(int commodity) {
+        if (commodity >= traderRankingByCommodity.length) {
+            traderRankingByCommodity = Arrays.copyOf(traderRankingByCommodity,
+                    Math.max(commodity + 1, traderRankingByCommodity.length * 2));
+        }
+        TraderRanking ranking = traderRankingByCommodity[commodity];
+        if (ranking == null) {
+            ranking = new TraderRanking();
+            traderRankingByCommodity[commodity] = ranking;
+            commodityRankingBytes += ranking.estimatedHeapBytes();
+        }
+        return ranking;
+    }
+
+    // Ranking of one commodity's traders, or null if it has none here; caller holds the read lock
+    TraderRanking traderRanking(int commodity) {
+        return commodity >= 0 && commodity < traderRankingByCommodity.length ? traderRankingByCommodity[commodity] : null;
+    }
+
+    // Drop raw trades, uniqueness keys and sub-hour candles older than the cut-off; aggregates, rankings,
+    // sketches and hourly candles keep their contribution. Caller holds the write lock.
+    long evictBefore(long epochNanos) {
+        tradeKeys.evictBefore(epochNanos);
+        candleBook.evictBefore(epochNanos);
+        long evicted = store.evictBefore(epochNanos);
+        measureHeap();
+        return evicted;
+    }
+
+    /**
+     * Rough heap held by this shard: stored rows, uniqueness keys and every ingest-time structure, as of the
+     * last commit or eviction. Needs no lock.
+     */
+    long estimatedHeapBytes() {
+        return heapBytes;
+    }
+
+    // Every term is O(1); caller holds the write lock
+    private void measureHeap() {
+        heapBytes = store.estimatedHeapBytes() + tradeKeys.size() * ESTIMATED_BYTES_PER_KEY
+                + aggregates.estimatedHeapBytes() + traderRanking.estimatedHeapBytes() + commodityRankingBytes
+                + candleBook.estimatedHeapBytes() + sketchBook.estimatedHeapBytes();
+    }
+
+    // Everything derived from the trades at ingest, which retention keeps after the trades themselves are
+    // evicted; caller holds the read lock
+    void writeAnalytics(DataOutput out) throws IOException {
+        aggregates.writeTo(out);
+        traderRanking.writeTo(out);
+        int commodities = 0;
+        for (TraderRanking ranking : traderRankingByCommodity) {
+            if (ranking != null) {
+                commodities++;
+            }
+        }
+        out.writeInt(commodities);
+        for (int commodity = 0; commodity < traderRankingByCommodity.length; commodity++) {
+            if (traderRankingByCommodity[commodity] != null) {
+                SymbolTable.writeName(out, SymbolTable.COMMODITIES.name(commodity));
+                traderRankingByCommodity[commodity].writeTo(out);
+            }
+        }
+        candleBook.writeTo(out);
+        sketchBook.writeTo(out);
+    }
+
+    // Adds what writeAnalytics wrote; caller holds the write lock
+    void readAnalytics(DataInput in) throws IOException {
+        aggregates.readFrom(in);
+        traderRanking.readFrom(in);
+        for (int i = in.readInt(); i > 0; i--) {
+            TraderRanking ranking = commodityRanking(SymbolTable.COMMODITIES.readSymbol(in));
+            long rankingBytes = ranking.estimatedHeapBytes();
+            ranking.readFrom(in);
+            commodityRankingBytes += ranking.estimatedHeapBytes() - rankingBytes;
+        }
+        candleBook.readFrom(in);
+        sketchBook.readFrom(in);
+        measureHeap();
+    }
+
+    /**
+     * The part of one batch that belongs to this shard, with the arrival sequence of each trade.
+     */
+    static final class Slice {
+        private final List<Trade> trades;
+        private final List<TradeKey> keys;
+        private final long[] sequences;
+        // False when the trades' contribution is already in restored analytics
+        private final boolean aggregated;
+        // Guarded by the shard's write lock
+        private boolean applied;
+
+        Slice(List<Trade> trades, List<TradeKey> keys, long[] sequences, boolean aggregated) {
+            this.trades = trades;
+            this.keys = keys;
+            this.sequences = sequences;
+            this.aggregated = aggregated;
+        }
+    }
+}
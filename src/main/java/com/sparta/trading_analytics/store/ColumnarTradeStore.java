@@ -0,0 +1,355 @@
+package com.sparta.trading_analytics.store;
+
+import com.sparta.trading_analytics.model.Trade;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only, chunked columnar {@link TradeStore}.
+ * <p>
+ * Each chunk holds a fixed number of rows in primitive arrays (one per column); commodity and trader IDs
+ * are dictionary-encoded to ints. Appending a batch only touches the tail chunk(s), so its cost is
+ * proportional to the batch rather than to the store. A batch is published by a single volatile write of
+ * the new size, after which every row of it is visible to snapshots taken from then on.
+ * <p>
+ * Secondary indexes are maintained on append: per-trader and per-commodity posting lists of row numbers. Each
+ * chunk also records the oldest and newest trade timestamp it holds, so time-range lookups walk the chunks in
+ * row order and skip those outside the range.
+ * <p>
+ * Every row also carries the arrival sequence it was appended with, so several stores can be read back
+ * merged in one global order.
+ * <p>
+ * Retention drops whole chunks from the front. Rows keep their absolute numbers (see
+ * {@link TradeSnapshot#firstRow()}), so cursors handed out before an eviction stay meaningful.
+ */
+public class ColumnarTradeStore implements TradeStore {
+
+    static final int CHUNK_SHIFT = 12;
+    public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final long CHUNK_BYTES = (long) CHUNK_SIZE * (Integer.BYTES * 3 + Long.BYTES * 2 + Double.BYTES);
+    // One int offset in each of the two posting lists
+    private static final int INDEX_BYTES_PER_ROW = Integer.BYTES * 2;
+
+    // Serializes writers and index lookups; a lock rather than a monitor, so virtual threads never pin on it
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final SymbolDictionary commodities = new SymbolDictionary();
+    private final SymbolDictionary traders = new SymbolDictionary();
+
+    // Retained chunks; chunks[0] holds absolute row rows.firstRow
+    private volatile Rows rows = new Rows(new Chunk[16], 0);
+    // Absolute row number one past the last appended row
+    private volatile long endRow;
+
+    // Secondary indexes, indexed by dictionary id; guarded by the writer's exclusion
+    private RowList[] rowsByTrader = new RowList[64];
+    private RowList[] rowsByCommodity = new RowList[16];
+
+    @Override
+    public void append(List<Trade> trades, long[] sequences) {
+        lock.lock();
+        try {
+            Chunk[] current = rows.chunks;
+            long firstRow = rows.firstRow;
+            long row = endRow;
+
+            for (int i = 0; i < trades.size(); i++) {
+                Trade trade = trades.get(i);
+                int chunkIndex = (int) ((row - firstRow) >>> CHUNK_SHIFT);
+                if (chunkIndex == current.length) {
+                    current = Arrays.copyOf(current, current.length * 2);
+                }
+                Chunk chunk = current[chunkIndex];
+                if (chunk == null) {
+                    chunk = new Chunk();
+                    current[chunkIndex] = chunk;
+                }
+
+                int offset = (int) (row & CHUNK_MASK);
+                int commodityId = commodities.encode(trade.getCommoditySymbol(), trade.getCommodity());
+                int traderId = traders.encode(trade.getTraderSymbol(), trade.getTraderId());
+                long epochNanos = EpochNanos.of(trade.getTimestamp());
+                index(row, commodityId, traderId);
+                chunk.commodity[offset] = commodityId;
+                chunk.trader[offset] = traderId;
+                chunk.epochNanos[offset] = epochNanos;
+                chunk.sequence[offset] = sequences[i];
+                chunk.minEpochNanos = Math.min(chunk.minEpochNanos, epochNanos);
+                chunk.maxEpochNanos = Math.max(chunk.maxEpochNanos, epochNanos);
+                chunk.price[offset] = trade.getPrice();
+                chunk.quantity[offset] = trade.getQuantity();
+                row++;
+            }
+
+            // Publish chunks before the end row: readers load the end row first, then chunks
+            if (current != rows.chunks) {
+                rows = new Rows(current, firstRow);
+            }
+            endRow = row;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long evictBefore(long epochNanos) {
+        lock.lock();
+        try {
+            Rows current = rows;
+            int evictable = 0;
+            while (current.firstRow + (long) (evictable + 1) * CHUNK_SIZE <= endRow
+                    && current.chunks[evictable].maxEpochNanos < epochNanos) {
+                evictable++;
+            }
+            if (evictable == 0) {
+                return 0;
+            }
+
+            Chunk[] retained = Arrays.copyOfRange(current.chunks, evictable, current.chunks.length);
+            long firstRow = current.firstRow + (long) evictable * CHUNK_SIZE;
+            rows = new Rows(retained, firstRow);
+            trimIndexes(firstRow);
+            return (long) evictable * CHUNK_SIZE;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long[] findRows(TradeFilter filter, long fromRow, int limit) {
+        lock.lock();
+        try {
+            Rows current = rows;
+            long start = Math.max(fromRow, current.firstRow);
+            int traderId = filter.traderId() == null ? -1 : traders.lookup(filter.traderId());
+            int commodityId = filter.commodity() == null ? -1 : commodities.lookup(filter.commodity());
+            if ((filter.traderId() != null && traderId < 0) || (filter.commodity() != null && commodityId < 0)
+                    || filter.fromNanos() >= filter.toNanos() || limit <= 0) {
+                return new long[0];
+            }
+
+            // Drive the scan from the smallest applicable index and check the other predicates per row
+            RowList candidates = null;
+            if (traderId >= 0) {
+                candidates = postings(rowsByTrader, traderId);
+            }
+            if (commodityId >= 0) {
+                RowList byCommodity = postings(rowsByCommodity, commodityId);
+                if (candidates == null || byCommodity.size() < candidates.size()) {
+                    candidates = byCommodity;
+                }
+            }
+            if (candidates != null && filter.hasTimeRange()
+                    && rowsInTimeRange(current, start, filter, candidates.size()) < candidates.size()) {
+                candidates = null;
+            }
+
+            long[] matches = new long[Math.min(limit, 64)];
+            int found = 0;
+            if (candidates == null) {
+                // Walk the chunks in row order, skipping those whose timestamps all fall outside the range
+                long row = start;
+                while (row < endRow && found < limit) {
+                    Chunk chunk = current.chunks[(int) ((row - current.firstRow) >>> CHUNK_SHIFT)];
+                    long chunkEnd = Math.min(endRow, (row & ~(long) CHUNK_MASK) + CHUNK_SIZE);
+                    if (overlaps(chunk, filter)) {
+                        for (; row < chunkEnd && found < limit; row++) {
+                            if (matches(current, row, traderId, commodityId, filter)) {
+                                matches = append(matches, found++, row);
+                            }
+                        }
+                    }
+                    row = chunkEnd;
+                }
+            } else {
+                for (int i = candidates.indexOf(start); i < candidates.size() && found < limit; i++) {
+                    long row = candidates.get(i);
+                    if (matches(current, row, traderId, commodityId, filter)) {
+                        matches = append(matches, found++, row);
+                    }
+                }
+            }
+            return Arrays.copyOf(matches, found);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static boolean matches(Rows rows, long row, int traderId, int commodityId, TradeFilter filter) {
+        Chunk chunk = rows.chunks[(int) ((row - rows.firstRow) >>> CHUNK_SHIFT)];
+        int offset = (int) (row & CHUNK_MASK);
+        return (traderId < 0 || chunk.trader[offset] == traderId)
+                && (commodityId < 0 || chunk.commodity[offset] == commodityId)
+                && chunk.epochNanos[offset] >= filter.fromNanos() && chunk.epochNanos[offset] < filter.toNanos();
+    }
+
+    private static long[] append(long[] rows, int index, long row) {
+        if (index == rows.length) {
+            rows = Arrays.copyOf(rows, rows.length * 2);
+        }
+        rows[index] = row;
+        return rows;
+    }
+
+    private static boolean overlaps(Chunk chunk, TradeFilter filter) {
+        return chunk.maxEpochNanos >= filter.fromNanos() && chunk.minEpochNanos < filter.toNanos();
+    }
+
+    // Rows (>= start) in chunks overlapping the time range, counted from chunk metadata only; stops once
+    // there are at least as many as the cheaper alternative has
+    private long rowsInTimeRange(Rows rows, long start, TradeFilter filter, int alternativeSize) {
+        long total = 0;
+        long row = start;
+        while (row < endRow && total < alternativeSize) {
+            long chunkEnd = Math.min(endRow, (row & ~(long) CHUNK_MASK) + CHUNK_SIZE);
+            if (overlaps(rows.chunks[(int) ((row - rows.firstRow) >>> CHUNK_SHIFT)], filter)) {
+                total += chunkEnd - row;
+            }
+            row = chunkEnd;
+        }
+        return total;
+    }
+
+    private void index(long row, int commodityId, int traderId) {
+        rowsByTrader = postingsForAppend(rowsByTrader, traderId);
+        rowsByTrader[traderId].add(row);
+        rowsByCommodity = postingsForAppend(rowsByCommodity, commodityId);
+        rowsByCommodity[commodityId].add(row);
+    }
+
+    private static RowList[] postingsForAppend(RowList[] postings, int id) {
+        if (id >= postings.length) {
+            postings = Arrays.copyOf(postings, Math.max(postings.length * 2, id + 1));
+        }
+        if (postings[id] == null) {
+            postings[id] = new RowList();
+        }
+        return postings;
+    }
+
+    private static RowList postings(RowList[] postings, int id) {
+        RowList list = id < postings.length ? postings[id] : null;
+        return list != null ? list : new RowList();
+    }
+
+    private void trimIndexes(long firstRow) {
+        for (RowList list : rowsByTrader) {
+            if (list != null) {
+                list.trimBefore(firstRow);
+            }
+        }
+        for (RowList list : rowsByCommodity) {
+            if (list != null) {
+                list.trimBefore(firstRow);
+            }
+        }
+    }
+
+    @Override
+    public long size() {
+        return endRow - rows.firstRow;
+    }
+
+    @Override
+    public long estimatedHeapBytes() {
+        long chunkCount = (size() + CHUNK_MASK) >>> CHUNK_SHIFT;
+        return chunkCount * CHUNK_BYTES + size() * INDEX_BYTES_PER_ROW
+                + commodities.estimatedHeapBytes() + traders.estimatedHeapBytes();
+    }
+
+    @Override
+    public TradeSnapshot snapshot() {
+        long snapshotEnd = endRow;
+        Rows snapshotRows = rows;
+        return new Snapshot(snapshotRows.chunks, snapshotRows.firstRow, Math.max(0, snapshotEnd - snapshotRows.firstRow));
+    }
+
+    private record Rows(Chunk[] chunks, long firstRow) {
+    }
+
+    private static final class Chunk {
+        final int[] commodity = new int[CHUNK_SIZE];
+        final int[] trader = new int[CHUNK_SIZE];
+        final long[] epochNanos = new long[CHUNK_SIZE];
+        final long[] sequence = new long[CHUNK_SIZE];
+        final double[] price = new double[CHUNK_SIZE];
+        final int[] quantity = new int[CHUNK_SIZE];
+        // Oldest and newest trade timestamp in the chunk: time-range lookups skip chunks outside the range,
+        // and retention can tell when all of it has aged out
+        long minEpochNanos = Long.MAX_VALUE;
+        long maxEpochNanos = Long.MIN_VALUE;
+    }
+
+    private final class Snapshot implements TradeSnapshot {
+
+        private final Chunk[] chunks;
+        private final long firstRow;
+        private final long size;
+
+        private Snapshot(Chunk[] chunks, long firstRow, long size) {
+            this.chunks = chunks;
+            this.firstRow = firstRow;
+            this.size = size;
+        }
+
+        @Override
+        public long size() {
+            return size;
+        }
+
+        @Override
+        public long firstRow() {
+            return firstRow;
+        }
+
+        @Override
+        public int commodityId(long row) {
+            return chunk(row).commodity[(int) (row & CHUNK_MASK)];
+        }
+
+        @Override
+        public int traderId(long row) {
+            return chunk(row).trader[(int) (row & CHUNK_MASK)];
+        }
+
+        @Override
+        public long epochNanos(long row) {
+            return chunk(row).epochNanos[(int) (row & CHUNK_MASK)];
+        }
+
+        @Override
+        public long sequence(long row) {
+            return chunk(row).sequence[(int) (row & CHUNK_MASK)];
+        }
+
+        @Override
+        public double price(long row) {
+            return chunk(row).price[(int) (row & CHUNK_MASK)];
+        }
+
+        @Override
+        public int quantity(long row) {
+            return chunk(row).quantity[(int) (row & CHUNK_MASK)];
+        }
+
+        @Override
+        public SymbolDictionary commodities() {
+            return commodities;
+        }
+
+        @Override
+        public SymbolDictionary traders() {
+            return traders;
+        }
+
+        private Chunk chunk(long row) {
+            if (row < 0 || row >= size) {
+                throw new IndexOutOfBoundsException("Row " + row + " outside snapshot of size " + size);
+            }
+            return chunks[(int) (row >>> CHUNK_SHIFT)];
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.sparta.trading_analytics.store;
+
+import java.time.Instant;
+
+/**
+ * Conversions between {@link Instant} and a single long of nanoseconds since the epoch,
+ * which is how timestamps are kept in the columnar store.
+ */
+public final class EpochNanos {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private EpochNanos() {
+    }
+
+    public static long of(Instant instant) {
+        try {
+            return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), NANOS_PER_SECOND), instant.getNano());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Timestamp out of supported range: " + instant);
+        }
+    }
+
+    public static Instant toInstant(long epochNanos) {
+        return Instant.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND), Math.floorMod(epochNanos, NANOS_PER_SECOND));
+    }
+}
@@ -0,0 +1,73 @@
+package com.sparta.trading_analytics.store;
+
+import java.util.Arrays;
+
+/**
+ * Growable, ascending list of absolute row numbers: a posting list of the secondary indexes.
+ * <p>
+ * Rows are held as int offsets from the list's first row, half the size of absolute longs; retention moves the
+ * base forward when it trims the front.
+ */
+final class RowList {
+
+    private long base;
+    private int[] offsets = new int[4];
+    private int size;
+
+    void add(long row) {
+        if (size == 0) {
+            base = row;
+        }
+        if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, Math.max(4, size * 2));
+        }
+        offsets[size++] = Math.toIntExact(row - base);
+    }
+
+    int size() {
+        return size;
+    }
+
+    long get(int index) {
+        return base + offsets[index];
+    }
+
+    /**
+     * Index of the first row {@code >= row}, or {@link #size()} if there is none.
+     */
+    int indexOf(long row) {
+        if (size == 0 || row <= base) {
+            return 0;
+        }
+        long offset = row - base;
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (offsets[mid] < offset) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Drops every row below {@code row}.
+     */
+    void trimBefore(long row) {
+        int from = indexOf(row);
+        if (from == 0) {
+            return;
+        }
+        size -= from;
+        int shift = size == 0 ? 0 : offsets[from];
+        int[] retained = new int[Math.max(size, 4)];
+        for (int i = 0; i < size; i++) {
+            retained[i] = offsets[from + i] - shift;
+        }
+        offsets = retained;
+        base += shift;
+    }
+}
@@ -0,0 +1,89 @@
+package com.sparta.trading_analytics.store;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Dictionary encoding of repeated strings (commodities, trader IDs) to dense ints.
+ * <p>
+ * Encoding is done by the store's single writer; decoding and lookups are lock-free.
+ */
+public class SymbolDictionary {
+
+    private static final int ESTIMATED_BYTES_PER_SYMBOL = 120;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] symbols = new String[64];
+    private volatile int size;
+
+    // Writer-only cache: SymbolTable id -> local id + 1 (0 = not cached yet)
+    private int[] idBySymbol = new int[64];
+
+    /**
+     * Returns the id of the symbol, assigning the next free id if it has not been seen before.
+     */
+    public int encode(String symbol) {
+        lock.lock();
+        try {
+            Integer id = ids.get(symbol);
+            if (id != null) {
+                return id;
+            }
+            int next = size;
+            String[] current = symbols;
+            if (next == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[next] = symbol;
+            symbols = current;
+            size = next + 1;
+            ids.put(symbol, next);
+            return next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Same as {@link #encode(String)} for a name already interned in a
+     * {@link com.sparta.trading_analytics.model.SymbolTable}: after the first sighting this is an array read.
+     * Only the store's writer may call it.
+     */
+    public int encode(int symbol, String name) {
+        if (symbol < idBySymbol.length && idBySymbol[symbol] != 0) {
+            return idBySymbol[symbol] - 1;
+        }
+        int id = encode(name);
+        if (symbol >= idBySymbol.length) {
+            idBySymbol = Arrays.copyOf(idBySymbol, Math.max(symbol + 1, idBySymbol.length * 2));
+        }
+        idBySymbol[symbol] = id + 1;
+        return id;
+    }
+
+    /**
+     * Returns the id of the symbol, or -1 if it has never been encoded.
+     */
+    public int lookup(String symbol) {
+        Integer id = ids.get(symbol);
+        return id != null ? id : -1;
+    }
+
+    public String decode(int id) {
+        return symbols[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Rough heap footprint: a short String plus its map entry per symbol, and the id array.
+     */
+    public long estimatedHeapBytes() {
+        return (long) size * ESTIMATED_BYTES_PER_SYMBOL + (long) (symbols.length + idBySymbol.length) * Integer.BYTES;
+    }
+}
@@ -0,0 +1,41 @@
+package com.sparta.trading_analytics.store;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Position to resume reading from: the arrival sequence of the next trade to return. Sequences are global
+ * across shards and only grow, so a cursor stays valid when retention evicts older rows and can be used to
+ * poll for trades appended later. Serialized as an opaque token that clients must treat as arbitrary.
+ */
+public record TradeCursor(long sequence) {
+
+    public static final TradeCursor START = new TradeCursor(0);
+
+    public String encode() {
+        byte[] bytes = ByteBuffer.allocate(Long.BYTES).putLong(sequence).array();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Decodes a cursor token; a {@code null} or empty token means "from the beginning".
+     */
+    public static TradeCursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return START;
+        }
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(token);
+            if (bytes.length != Long.BYTES) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            long sequence = ByteBuffer.wrap(bytes).getLong();
+            if (sequence < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new TradeCursor(sequence);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.sparta.trading_analytics.store;
+
+import java.time.Instant;
+
+/**
+ * Conjunction of optional trade predicates. {@code null} symbols and unbounded nanos mean "any".
+ *
+ * @param fromNanos inclusive lower bound on the trade timestamp
+ * @param toNanos   exclusive upper bound on the trade timestamp
+ */
+public record TradeFilter(String traderId, String commodity, long fromNanos, long toNanos) {
+
+    public static final TradeFilter NONE = new TradeFilter(null, null, Long.MIN_VALUE, Long.MAX_VALUE);
+
+    public static TradeFilter of(String traderId, String commodity, Instant from, Instant to) {
+        return new TradeFilter(traderId, commodity,
+                from == null ? Long.MIN_VALUE : EpochNanos.of(from),
+                to == null ? Long.MAX_VALUE : EpochNanos.of(to));
+    }
+
+    public boolean isUnfiltered() {
+        return traderId == null && commodity == null && !hasTimeRange();
+    }
+
+    public boolean hasTimeRange() {
+        return fromNanos != Long.MIN_VALUE || toNanos != Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,98 @@
+package com.sparta.trading_analytics.store;
+
+import com.sparta.trading_analytics.model.Trade;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Point-in-time, read-only view of a {@link TradeStore}.
+ * <p>
+ * Rows are addressed by their position in append order, counting from the oldest retained trade. The primitive accessors let hot loops read the
+ * columns directly without materializing a {@link Trade} per row.
+ */
+public interface TradeSnapshot extends Iterable<Trade> {
+
+    long size();
+
+    /**
+     * Absolute append position of row 0: the number of trades evicted by retention before this snapshot.
+     */
+    long firstRow();
+
+    int commodityId(long row);
+
+    int traderId(long row);
+
+    long epochNanos(long row);
+
+    /**
+     * Arrival sequence the row was appended with; ascending within a snapshot.
+     */
+    long sequence(long row);
+
+    double price(long row);
+
+    int quantity(long row);
+
+    SymbolDictionary commodities();
+
+    SymbolDictionary traders();
+
+    /**
+     * First row whose sequence is at least {@code sequence}, or {@link #size()} if there is none.
+     */
+    default long firstRowFrom(long sequence) {
+        long low = 0;
+        long high = size();
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (sequence(mid) < sequence) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Materializes the trade stored at the given row.
+     */
+    default Trade get(long row) {
+        Trade trade = new Trade();
+        trade.setCommodity(commodities().decode(commodityId(row)));
+        trade.setTraderId(traders().decode(traderId(row)));
+        trade.setPrice(price(row));
+        trade.setQuantity(quantity(row));
+        trade.setTimestamp(EpochNanos.toInstant(epochNanos(row)));
+        return trade;
+    }
+
+    @Override
+    default Iterator<Trade> iterator() {
+        return iterator(0);
+    }
+
+    /**
+     * Iterates the trades of this snapshot starting at the given row.
+     */
+    default Iterator<Trade> iterator(long fromRow) {
+        return new Iterator<>() {
+            private long row = fromRow;
+
+            @Override
+            public boolean hasNext() {
+                return row < size();
+            }
+
+            @Override
+            public Trade next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return get(row++);
+            }
+        };
+    }
+}
@@ -0,0 +1,65 @@
+package com.sparta.trading_analytics.store;
+
+import com.sparta.trading_analytics.model.Trade;
+
+import java.util.List;
+
+/**
+ * Append-only storage for accepted trades.
+ * <p>
+ * Appends are expected to come from a single writer at a time (the caller serializes them);
+ * readers work off {@link #snapshot()} and never block the writer.
+ */
+public interface TradeStore {
+
+    /**
+     * Appends a batch of already validated trades. The whole batch becomes visible to readers at once.
+     * {@code sequences} gives each trade its position in the caller's global arrival order; they must be
+     * ascending and above every sequence already stored, so rows stay sorted by sequence.
+     */
+    void append(List<Trade> trades, long[] sequences);
+
+    /**
+     * Appends with each trade's absolute row as its sequence, for a store used on its own.
+     */
+    default void append(List<Trade> trades) {
+        TradeSnapshot snapshot = snapshot();
+        long next = snapshot.firstRow() + snapshot.size();
+        long[] sequences = new long[trades.size()];
+        for (int i = 0; i < sequences.length; i++) {
+            sequences[i] = next + i;
+        }
+        append(trades, sequences);
+    }
+
+    /**
+     * Drops the oldest trades once everything in their storage unit is older than {@code epochNanos}. Trades
+     * are dropped in append order, so an old trade appended late is kept until its neighbours age out too.
+     *
+     * @return number of trades dropped
+     */
+    long evictBefore(long epochNanos);
+
+    /**
+     * Absolute row numbers of the trades matching {@code filter}, ascending, starting at row {@code fromRow} and
+     * at most {@code limit} of them. Served from secondary indexes maintained on append, so the cost follows the
+     * smallest applicable index rather than the store size. Callers must not run it concurrently with
+     * {@link #append} or {@link #evictBefore}; the rows can then be read through any later {@link #snapshot()}.
+     */
+    long[] findRows(TradeFilter filter, long fromRow, int limit);
+
+    /**
+     * Number of trades currently stored.
+     */
+    long size();
+
+    /**
+     * Rough number of heap bytes held by the store, for monitoring.
+     */
+    long estimatedHeapBytes();
+
+    /**
+     * A stable, point-in-time view of the store. Trades appended afterwards are not visible through it.
+     */
+    TradeSnapshot snapshot();
+}
@@ -0,0 +1,10 @@
+package com.sparta.trading_analytics.store;
+
+/**
+ * Creates the {@link TradeStore} backing each shard.
+ */
+@FunctionalInterface
+public interface TradeStoreFactory {
+
+    TradeStore create();
+}
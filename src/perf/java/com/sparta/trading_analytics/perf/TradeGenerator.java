@@ -0,0 +1,144 @@
+package com.sparta.trading_analytics.perf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sparta.trading_analytics.model.Trade;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Deterministic synthetic trades modelled on the bundled {@code data,json} sample: the same commodities,
+ * prices jittered around each sample price and quantities around each sample quantity.
+ * <p>
+ * Commodities follow the sample's own mix by default ({@link CommodityMix#SAMPLE}) or are equally likely
+ * ({@link CommodityMix#UNIFORM}). Traders are uniform, or Zipf-distributed with a positive {@code traderSkew}
+ * so that {@code T000000} is the busiest, {@code T000001} the next and so on.
+ * <p>
+ * Every generated trade has a distinct timestamp (one millisecond apart), so a generator never produces
+ * duplicates of its own output. Not thread-safe.
+ */
+public class TradeGenerator {
+
+    private static final String SAMPLE_RESOURCE = "/data,json";
+    private static final Instant DEFAULT_START = Instant.parse("2025-05-10T00:00:00Z");
+
+    /**
+     * How commodities are picked: in proportion to their rows in the sample, or all equally often.
+     */
+    public enum CommodityMix {
+        SAMPLE, UNIFORM
+    }
+
+    private final List<Profile> profiles;
+    private final List<List<Profile>> profilesByCommodity;
+    private final CommodityMix commodityMix;
+    private final int traderCount;
+    // Cumulative Zipf weights by trader rank, or null for uniform traders
+    private final double[] traderCdf;
+    private final SplittableRandom random;
+    private long sequence;
+    private final long startMillis;
+
+    public TradeGenerator(long seed, int traderCount) {
+        this(seed, traderCount, DEFAULT_START);
+    }
+
+    public TradeGenerator(long seed, int traderCount, Instant start) {
+        this(seed, traderCount, start, 0, CommodityMix.SAMPLE);
+    }
+
+    public TradeGenerator(long seed, int traderCount, Instant start, double traderSkew, CommodityMix commodityMix) {
+        if (traderCount <= 0) {
+            throw new IllegalArgumentException("traderCount must be positive");
+        }
+        if (traderSkew < 0) {
+            throw new IllegalArgumentException("traderSkew must not be negative");
+        }
+        this.profiles = loadProfiles();
+        this.profilesByCommodity = List.copyOf(profiles.stream()
+                .collect(Collectors.groupingBy(Profile::commodity, LinkedHashMap::new, Collectors.toList()))
+                .values());
+        this.commodityMix = commodityMix;
+        this.traderCount = traderCount;
+        this.traderCdf = traderSkew > 0 ? zipfCdf(traderCount, traderSkew) : null;
+        this.random = new SplittableRandom(seed);
+        this.startMillis = start.toEpochMilli();
+    }
+
+    public Trade next() {
+        Profile profile = switch (commodityMix) {
+            case SAMPLE -> profiles.get(random.nextInt(profiles.size()));
+            case UNIFORM -> {
+                List<Profile> commodity = profilesByCommodity.get(random.nextInt(profilesByCommodity.size()));
+                yield commodity.get(random.nextInt(commodity.size()));
+            }
+        };
+        Trade trade = new Trade();
+        trade.setCommodity(profile.commodity);
+        trade.setTraderId(String.format("T%06d", nextTrader()));
+        trade.setPrice(Math.max(0.01, profile.price * (1 + 0.02 * (random.nextDouble() - 0.5))));
+        trade.setQuantity(Math.max(1, (int) (profile.quantity * (0.5 + random.nextDouble()))));
+        trade.setTimestamp(Instant.ofEpochMilli(startMillis + sequence++));
+        return trade;
+    }
+
+    public List<Trade> nextBatch(int size) {
+        List<Trade> batch = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            batch.add(next());
+        }
+        return batch;
+    }
+
+    public List<String> commodities() {
+        return profiles.stream().map(profile -> profile.commodity).toList();
+    }
+
+    private int nextTrader() {
+        if (traderCdf == null) {
+            return random.nextInt(traderCount);
+        }
+        int rank = Arrays.binarySearch(traderCdf, random.nextDouble());
+        return Math.min(rank < 0 ? -rank - 1 : rank, traderCount - 1);
+    }
+
+    private static double[] zipfCdf(int traderCount, double skew) {
+        double[] cdf = new double[traderCount];
+        double total = 0;
+        for (int rank = 0; rank < traderCount; rank++) {
+            total += 1 / Math.pow(rank + 1, skew);
+            cdf[rank] = total;
+        }
+        for (int rank = 0; rank < traderCount; rank++) {
+            cdf[rank] /= total;
+        }
+        return cdf;
+    }
+
+    private static List<Profile> loadProfiles() {
+        try (InputStream input = TradeGenerator.class.getResourceAsStream(SAMPLE_RESOURCE)) {
+            if (input == null) {
+                throw new IllegalStateException("Sample data " + SAMPLE_RESOURCE + " not found on the classpath");
+            }
+            List<Profile> profiles = new ArrayList<>();
+            for (JsonNode node : new ObjectMapper().readTree(input)) {
+                profiles.add(new Profile(node.get("commodity").asText(), node.get("price").asDouble(), node.get("quantity").asInt()));
+            }
+            return profiles;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Profile(String commodity, double price, int quantity) {
+    }
+}
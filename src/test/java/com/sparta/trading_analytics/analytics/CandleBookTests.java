@@ -0,0 +1,79 @@
+package com.sparta.trading_analytics.analytics;
+
+import com.sparta.trading_analytics.model.Candle;
+import com.sparta.trading_analytics.model.SymbolTable;
+import com.sparta.trading_analytics.store.EpochNanos;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CandleBookTests {
+
+    private static final Instant BASE = Instant.parse("2025-05-10T10:00:00Z");
+    private static final int GOLD = SymbolTable.COMMODITIES.intern("Gold");
+    private static final int SILVER = SymbolTable.COMMODITIES.intern("Silver");
+
+    @Test
+    void testQuery_OhlcAndVwapPerMinute() {
+        CandleBook book = new CandleBook();
+        book.addTrade(GOLD, nanos(BASE.plusSeconds(10)), 2000.0, 10);
+        book.addTrade(GOLD, nanos(BASE.plusSeconds(50)), 2010.0, 30);
+        book.addTrade(GOLD, nanos(BASE.plusSeconds(5)), 1990.0, 10);  // Late arrival, earliest timestamp
+        book.addTrade(GOLD, nanos(BASE.plusSeconds(70)), 2020.0, 5);
+
+        List<Candle> candles = book.query("Gold", CandleInterval.ONE_MINUTE, Long.MIN_VALUE, Long.MAX_VALUE);
+
+        assertEquals(2, candles.size());
+        Candle first = candles.get(0);
+        assertEquals(BASE, first.start());
+        assertEquals(1990.0, first.open());
+        assertEquals(2010.0, first.high());
+        assertEquals(1990.0, first.low());
+        assertEquals(2010.0, first.close());
+        assertEquals(50, first.volume());
+        assertEquals(3, first.tradeCount());
+        assertEquals((2000.0 * 10 + 2010.0 * 30 + 1990.0 * 10) / 50, first.vwap(), 1e-9);
+
+        assertEquals(BASE.plusSeconds(60), candles.get(1).start());
+    }
+
+    @Test
+    void testQuery_RangeAndResolution() {
+        CandleBook book = new CandleBook();
+        for (int i = 0; i < 180; i++) {
+            book.addTrade(SILVER, nanos(BASE.plusSeconds(i)), 25.0, 1);
+        }
+
+        assertEquals(180, book.query("Silver", CandleInterval.ONE_SECOND, Long.MIN_VALUE, Long.MAX_VALUE).size());
+        assertEquals(1, book.query("Silver", CandleInterval.ONE_HOUR, Long.MIN_VALUE, Long.MAX_VALUE).size());
+
+        List<Candle> middle = book.query("Silver", CandleInterval.ONE_MINUTE,
+                nanos(BASE.plusSeconds(60)), nanos(BASE.plusSeconds(120)));
+        assertEquals(1, middle.size());
+        assertEquals(60, middle.get(0).volume());
+
+        assertTrue(book.query("Copper", CandleInterval.ONE_MINUTE, Long.MIN_VALUE, Long.MAX_VALUE).isEmpty());
+    }
+
+    private static long nanos(Instant instant) {
+        return EpochNanos.of(instant);
+    }
+
+    @Test
+    void testEvictBefore_DropsSubHourBucketsOnly() {
+        CandleBook book = new CandleBook();
+        for (int i = 0; i < 180; i++) {
+            book.addTrade(SILVER, nanos(BASE.plusSeconds(i)), 25.0, 1);
+        }
+
+        assertEquals(120 + 2, book.evictBefore(nanos(BASE.plusSeconds(120))));
+
+        assertEquals(60, book.query("Silver", CandleInterval.ONE_SECOND, Long.MIN_VALUE, Long.MAX_VALUE).size());
+        assertEquals(1, book.query("Silver", CandleInterval.ONE_MINUTE, Long.MIN_VALUE, Long.MAX_VALUE).size());
+        List<Candle> hours = book.query("Silver", CandleInterval.ONE_HOUR, Long.MIN_VALUE, Long.MAX_VALUE);
+        assertEquals(180, hours.get(0).volume());
+    }
+}
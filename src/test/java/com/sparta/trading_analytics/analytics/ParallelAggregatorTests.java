@@ -0,0 +1,100 @@
+package com.sparta.trading_analytics.analytics;
+
+import com.sparta.trading_analytics.model.GroupAggregate;
+import com.sparta.trading_analytics.model.Trade;
+import com.sparta.trading_analytics.store.ColumnarTradeStore;
+import com.sparta.trading_analytics.store.EpochNanos;
+import com.sparta.trading_analytics.store.TradeSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.sparta.trading_analytics.util.TestDataUtil.createTrade;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelAggregatorTests {
+
+    private static final Instant BASE = Instant.parse("2025-05-10T10:00:00Z");
+
+    @Test
+    void testAggregate_MatchesSequentialGroupBy() {
+        Random random = new Random(7);
+        ColumnarTradeStore[] stores = {new ColumnarTradeStore(), new ColumnarTradeStore(), new ColumnarTradeStore()};
+        List<Trade> all = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            Trade trade = createTrade("C" + random.nextInt(4), "T" + random.nextInt(50),
+                    1 + random.nextInt(100), 1 + random.nextInt(10), BASE.plusSeconds(i));
+            stores[i % stores.length].append(List.of(trade));
+            all.add(trade);
+        }
+        TradeSnapshot[] snapshots = Arrays.stream(stores).map(ColumnarTradeStore::snapshot).toArray(TradeSnapshot[]::new);
+        Instant from = BASE.plusSeconds(5_000);
+        Instant to = BASE.plusSeconds(15_000);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (GroupBy groupBy : GroupBy.values()) {
+                // Small slices so the work is actually forked
+                List<GroupAggregate> parallel = ParallelAggregator.aggregate(pool, snapshots, new long[3][],
+                        EpochNanos.of(from), EpochNanos.of(to), groupBy, 512);
+
+                Map<String, long[]> expected = new HashMap<>();
+                for (Trade trade : all) {
+                    if (!trade.getTimestamp().isBefore(from) && trade.getTimestamp().isBefore(to)) {
+                        long[] countAndVolume = expected.computeIfAbsent(key(groupBy, trade.getCommodity(), trade.getTraderId()), k -> new long[2]);
+                        countAndVolume[0]++;
+                        countAndVolume[1] += trade.getQuantity();
+                    }
+                }
+
+                assertEquals(expected.size(), parallel.size(), groupBy.name());
+                for (GroupAggregate aggregate : parallel) {
+                    long[] countAndVolume = expected.get(key(groupBy, aggregate.commodity(), aggregate.traderId()));
+                    assertEquals(countAndVolume[0], aggregate.tradeCount());
+                    assertEquals(countAndVolume[1], aggregate.volume());
+                }
+                for (int i = 1; i < parallel.size(); i++) {
+                    assertTrue(parallel.get(i - 1).volume() >= parallel.get(i).volume());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testAggregate_OverIndexedRows() {
+        ColumnarTradeStore store = new ColumnarTradeStore();
+        store.append(List.of(
+                createTrade("Gold", "T001", 2000.0, 10, BASE),
+                createTrade("Oil", "T001", 80.0, 5, BASE),
+                createTrade("Gold", "T002", 2100.0, 30, BASE),
+                createTrade("Gold", "T001", 2200.0, 10, BASE)));
+
+        List<GroupAggregate> result = ParallelAggregator.aggregate(ForkJoinPool.commonPool(),
+                new TradeSnapshot[]{store.snapshot()}, new long[][]{{0, 3}}, Long.MIN_VALUE, Long.MAX_VALUE, GroupBy.COMMODITY);
+
+        assertEquals(1, result.size());
+        GroupAggregate gold = result.get(0);
+        assertEquals("Gold", gold.commodity());
+        assertNull(gold.traderId());
+        assertEquals(2, gold.tradeCount());
+        assertEquals(20, gold.volume());
+        assertEquals(2100.0, gold.averagePrice());
+        assertEquals(2000.0, gold.minPrice());
+        assertEquals(2200.0, gold.maxPrice());
+    }
+
+    @Test
+    void testGroupBy_FromCode() {
+        assertEquals(GroupBy.COMMODITY_AND_TRADER, GroupBy.fromCode("trader,commodity"));
+        assertEquals(GroupBy.TRADER, GroupBy.fromCode("trader"));
+        assertThrows(IllegalArgumentException.class, () -> GroupBy.fromCode("price"));
+    }
+
+    private static String key(GroupBy groupBy, String commodity, String traderId) {
+        return (groupBy.byCommodity() ? commodity : "") + "|" + (groupBy.byTrader() ? traderId : "");
+    }
+}
@@ -0,0 +1,152 @@
+package com.sparta.trading_analytics.analytics;
+
+import com.sparta.trading_analytics.model.CommoditySketchInsights;
+import com.sparta.trading_analytics.model.SymbolTable;
+import com.sparta.trading_analytics.model.TraderRanking;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SketchTests {
+
+    @Test
+    void testHyperLogLog_EstimatesWithinFewPercentAndMerges() {
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        for (int i = 0; i < 100_000; i++) {
+            // Overlapping halves: 150k distinct in total
+            first.addHash(SketchHash.hash64(i));
+            second.addHash(SketchHash.hash64(i + 50_000));
+        }
+
+        assertEquals(100_000, first.estimate(), 100_000 * 0.05);
+        first.merge(second);
+        assertEquals(150_000, first.estimate(), 150_000 * 0.05);
+
+        HyperLogLog small = new HyperLogLog();
+        for (int i = 0; i < 3; i++) {
+            small.addHash(SketchHash.hash64(i));
+            small.addHash(SketchHash.hash64(i));
+        }
+        assertEquals(3, small.estimate());
+    }
+
+    @Test
+    void testDDSketch_QuantilesWithinRelativeAccuracy() {
+        DDSketch sketch = new DDSketch();
+        DDSketch left = new DDSketch();
+        DDSketch right = new DDSketch();
+        for (int i = 1; i <= 10_000; i++) {
+            sketch.add(i);
+            (i % 2 == 0 ? left : right).add(i);
+        }
+        left.merge(right);
+
+        for (double q : new double[]{0.5, 0.95, 0.99}) {
+            double exact = Math.floor(q * 9_999) + 1;
+            assertEquals(exact, sketch.quantile(q), exact * DDSketch.RELATIVE_ACCURACY);
+            assertEquals(sketch.quantile(q), left.quantile(q));
+        }
+        assertEquals(1.0, sketch.quantile(0));
+        assertEquals(10_000.0, sketch.quantile(1));
+        assertTrue(Double.isNaN(new DDSketch().quantile(0.5)));
+
+        // Values it cannot place are refused without throwing
+        assertFalse(sketch.add(0));
+        assertFalse(sketch.add(-1));
+        assertFalse(sketch.add(Double.NaN));
+        assertFalse(sketch.add(Double.POSITIVE_INFINITY));
+        assertEquals(10_000, sketch.count());
+    }
+
+    @Test
+    void testDDSketch_WideRangeCollapsesLowestBinsOnly() {
+        DDSketch sketch = new DDSketch();
+        for (int i = 0; i < 1_000; i++) {
+            sketch.add(1e-30);
+            sketch.add(1e30);
+        }
+        sketch.add(5e29);
+
+        assertEquals(2_001, sketch.count());
+        assertEquals(1e30, sketch.quantile(0.99), 1e30 * DDSketch.RELATIVE_ACCURACY);
+    }
+
+    @Test
+    void testSketchBook_ShardedBooksMatchSingleBook() {
+        Random random = new Random(42);
+        SketchBook single = new SketchBook();
+        List<SketchBook> shards = List.of(new SketchBook(), new SketchBook(), new SketchBook());
+        int gold = SymbolTable.COMMODITIES.intern("Gold");
+
+        for (int i = 0; i < 50_000; i++) {
+            // A few whales among many small traders
+            String trader = i % 10 == 0 ? "W" + (i % 3) : "T" + random.nextInt(5_000);
+            int quantity = trader.startsWith("W") ? 1_000 : 1 + random.nextInt(10);
+            double price = 1_000 + random.nextInt(1_000);
+            int symbol = SymbolTable.TRADERS.intern(trader);
+            single.addTrade(gold, symbol, price, quantity);
+            shards.get(Math.floorMod(trader.hashCode(), shards.size())).addTrade(gold, symbol, price, quantity);
+        }
+
+        CommoditySketchInsights expected = SketchBook.summarize(List.of(single), null).get("Gold");
+        CommoditySketchInsights merged = SketchBook.summarize(shards, "Gold").get("Gold");
+
+        assertEquals(50_000, merged.tradeCount());
+        assertEquals(expected.distinctTraders(), merged.distinctTraders());
+        assertEquals(expected.pricePercentiles(), merged.pricePercentiles());
+        assertEquals(5_003, merged.distinctTraders(), 5_003 * 0.05);
+
+        List<String> topThree = merged.heavyHitters().stream().limit(3).map(TraderRanking.TraderVolume::traderId).sorted().toList();
+        assertEquals(List.of("W0", "W1", "W2"), topThree);
+        assertTrue(merged.heavyHitters().get(0).volume() >= 5_000_000 / 3);
+        assertEquals(Map.of(), SketchBook.summarize(shards, "Oil"));
+    }
+
+    @Test
+    void testSketchBook_RestoresIntoTableWithDifferentIds() throws IOException {
+        // Two processes that interned the same names in different orders
+        SymbolTable commoditiesBefore = new SymbolTable("commodity", 16);
+        SymbolTable tradersBefore = new SymbolTable("trader", 64);
+        SymbolTable commoditiesAfter = new SymbolTable("commodity", 16);
+        SymbolTable tradersAfter = new SymbolTable("trader", 64);
+        commoditiesAfter.intern("Oil");
+        for (int i = 0; i < 10; i++) {
+            tradersAfter.intern("X" + i);
+        }
+        for (int i = 14; i >= 0; i--) {
+            tradersAfter.intern("T" + i);
+        }
+
+        SketchBook before = new SketchBook(commoditiesBefore, tradersBefore);
+        SketchBook reference = new SketchBook(commoditiesBefore, tradersBefore);
+        for (int i = 0; i < 15; i++) {
+            int trader = tradersBefore.intern("T" + i);
+            before.addTrade(commoditiesBefore.intern("Gold"), trader, 100.0 + i, i + 1);
+            reference.addTrade(commoditiesBefore.intern("Gold"), trader, 100.0 + i, i + 1);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        before.writeTo(new DataOutputStream(bytes));
+
+        SketchBook restored = new SketchBook(commoditiesAfter, tradersAfter);
+        restored.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        // The same traders trade again after the restart
+        for (int i = 0; i < 15; i++) {
+            restored.addTrade(commoditiesAfter.intern("Gold"), tradersAfter.intern("T" + i), 200.0, 1_000);
+            reference.addTrade(commoditiesBefore.intern("Gold"), tradersBefore.intern("T" + i), 200.0, 1_000);
+        }
+
+        CommoditySketchInsights expected = SketchBook.summarize(List.of(reference), "Gold").get("Gold");
+        assertEquals(expected, SketchBook.summarize(List.of(restored), "Gold").get("Gold"));
+        assertEquals(15, expected.distinctTraders());
+    }
+}
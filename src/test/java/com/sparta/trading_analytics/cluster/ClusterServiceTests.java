@@ -0,0 +1,35 @@
+package com.sparta.trading_analytics.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClusterServiceTests {
+
+    @Test
+    void testRetryAfter_DelaySeconds() {
+        assertEquals(Duration.ofSeconds(5), ClusterService.retryAfter("5"));
+        assertEquals(Duration.ofSeconds(5), ClusterService.retryAfter(" 5 "));
+    }
+
+    @Test
+    void testRetryAfter_HttpDate() {
+        String inAMinute = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(60));
+        Duration retryAfter = ClusterService.retryAfter(inAMinute);
+        assertTrue(retryAfter.compareTo(Duration.ofSeconds(50)) > 0 && retryAfter.compareTo(Duration.ofSeconds(60)) <= 0);
+
+        assertEquals(Duration.ZERO, ClusterService.retryAfter("Wed, 21 Oct 2015 07:28:00 GMT"));
+    }
+
+    @Test
+    void testRetryAfter_MissingOrUnreadable_FallsBackToOneSecond() {
+        assertEquals(Duration.ofSeconds(1), ClusterService.retryAfter(null));
+        assertEquals(Duration.ofSeconds(1), ClusterService.retryAfter("soon"));
+        assertEquals(Duration.ofSeconds(1), ClusterService.retryAfter(""));
+    }
+}
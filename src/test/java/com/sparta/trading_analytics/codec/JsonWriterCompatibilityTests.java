@@ -0,0 +1,76 @@
+package com.sparta.trading_analytics.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sparta.trading_analytics.model.InsightsPartial;
+import com.sparta.trading_analytics.model.Trade;
+import com.sparta.trading_analytics.model.TradePage;
+import com.sparta.trading_analytics.service.TradeService;
+import com.sparta.trading_analytics.store.ColumnarTradeStore;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.sparta.trading_analytics.util.TestDataUtil.createTrade;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The hand-written writers must produce exactly the bytes Jackson produced for the map-based insights and the
+ * bean-serialized {@link Trade}.
+ */
+public class JsonWriterCompatibilityTests {
+
+    private static final int SHARDS = 8;
+    private static final Instant BASE = Instant.parse("2025-05-10T10:00:00Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void testInsightsWriter_MatchesMapRendering() throws Exception {
+        // Enough commodities to resize the maps and share buckets between keys
+        Random random = new Random(7);
+        TradeService tradeService = new TradeService(ColumnarTradeStore::new, SHARDS);
+        List<Trade> trades = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            trades.add(createTrade("Commodity " + random.nextInt(60), "T" + random.nextInt(300),
+                    0.01 + random.nextDouble() * 3_000, 1 + random.nextInt(1_000), BASE.plusMillis(i)));
+        }
+        tradeService.addTrades(trades);
+
+        assertSameJson(tradeService.getInsightsPartial());
+        assertSameJson(InsightsPartial.merge(List.of(tradeService.getInsightsPartial(), new TradeService(ColumnarTradeStore::new, SHARDS).getInsightsPartial())));
+        assertSameJson(new TradeService(ColumnarTradeStore::new, SHARDS).getInsightsPartial());
+    }
+
+    @Test
+    void testTradeSerializer_MatchesBeanSerialization() throws Exception {
+        Trade trade = createTrade("Gold", "T9", 1e-7, 3, Instant.parse("2025-05-10T10:00:00.123456789Z"));
+        assertEquals("{\"commodity\":\"Gold\",\"traderId\":\"T9\",\"price\":1.0E-7,\"quantity\":3,"
+                + "\"timestamp\":\"2025-05-10T10:00:00.123456789Z\"}", objectMapper.writeValueAsString(trade));
+
+        TradePage page = new TradePage(List.of(createTrade("Natural Gas", "T004", 2.75, 1000, BASE)), "AAAA", true);
+        assertEquals("{\"trades\":[{\"commodity\":\"Natural Gas\",\"traderId\":\"T004\",\"price\":2.75,\"quantity\":1000,"
+                + "\"timestamp\":\"2025-05-10T10:00:00Z\"}],\"nextCursor\":\"AAAA\",\"hasMore\":true}",
+                objectMapper.writeValueAsString(page));
+
+        assertEquals("{\"commodity\":null,\"traderId\":null,\"price\":null,\"quantity\":null,\"timestamp\":null}",
+                objectMapper.writeValueAsString(new Trade()));
+
+        ObjectMapper numericDates = new ObjectMapper().registerModule(new JavaTimeModule());
+        assertTrue(numericDates.writeValueAsString(trade).endsWith("\"timestamp\":1746871200.123456789}"));
+    }
+
+    private void assertSameJson(InsightsPartial partial) throws Exception {
+        String expected = objectMapper.writeValueAsString(partial.render());
+        String actual = new String(InsightsJsonWriter.toJson(objectMapper.getFactory(), partial.toResponse()),
+                StandardCharsets.UTF_8);
+        assertEquals(expected, actual);
+    }
+}
@@ -0,0 +1,55 @@
+package com.sparta.trading_analytics.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sparta.trading_analytics.model.Trade;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Instant;
+import java.util.List;
+
+import static com.sparta.trading_analytics.util.TestDataUtil.createTrade;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {"trading.ingest.async.enabled=true", "trading.ingest.async.ack=committed"})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class AsyncIngestIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testPostTrades_AsyncCommitted_SameResponsesAsSync() throws Exception {
+        Trade trade = createTrade("Gold", "T001", 2000.0, 50, Instant.parse("2025-05-10T10:00:00Z"));
+        String body = objectMapper.writeValueAsString(List.of(trade));
+
+        mockMvc.perform(post("/trades").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Trades added successfully")));
+
+        mockMvc.perform(post("/trades").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.error", containsString("Duplicate trade detected in storage")));
+
+        MvcResult trades = mockMvc.perform(get("/trades"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(trades))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+}
@@ -0,0 +1,152 @@
+package com.sparta.trading_analytics.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sparta.trading_analytics.TradingAnalyticsApplication;
+import com.sparta.trading_analytics.cluster.ClusterService;
+import com.sparta.trading_analytics.model.Trade;
+import com.sparta.trading_analytics.service.TradeService;
+import com.sparta.trading_analytics.store.ColumnarTradeStore;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.sparta.trading_analytics.util.TestDataUtil.createTrade;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Three nodes on localhost, each owning a third of the traders.
+ */
+public class ClusterIntegrationTests {
+
+    private static final int SHARDS = 8;
+    private static final int NODES = 3;
+    private static final Instant BASE = Instant.parse("2025-05-10T10:00:00Z");
+
+    private static final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+    private static final List<String> urls = new ArrayList<>();
+    private static final HttpClient http = HttpClient.newHttpClient();
+    private static final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @BeforeAll
+    static void startCluster() throws Exception {
+        List<Integer> ports = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                ports.add(socket.getLocalPort());
+            }
+        }
+        String peers = ports.stream().map(port -> "http://localhost:" + port).collect(Collectors.joining(","));
+        for (int i = 0; i < NODES; i++) {
+            urls.add("http://localhost:" + ports.get(i));
+            nodes.add(new SpringApplicationBuilder(TradingAnalyticsApplication.class)
+                    .run("--server.port=" + ports.get(i),
+                            "--trading.cluster.enabled=true",
+                            "--trading.cluster.peers=" + peers,
+                            "--trading.cluster.self=" + i,
+                            "--spring.main.banner-mode=off"));
+        }
+    }
+
+    @AfterAll
+    static void stopCluster() {
+        nodes.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void testPostTrades_RoutedToOwnersAndInsightsMergedOnEveryNode() throws Exception {
+        List<Trade> trades = new ArrayList<>();
+        String[] commodities = {"Gold", "Silver", "Oil"};
+        for (int i = 0; i < 300; i++) {
+            trades.add(createTrade(commodities[i % 3], String.format("T%03d", i % 90), 100.0 + (i % 7) * 0.5,
+                    10 + i % 13, BASE.plusSeconds(i)));
+        }
+
+        HttpResponse<String> posted = post(urls.get(1), trades);
+        assertEquals(200, posted.statusCode(), posted.body());
+
+        ClusterService cluster = nodes.get(0).getBean(ClusterService.class);
+        long total = 0;
+        for (int node = 0; node < NODES; node++) {
+            int owner = node;
+            long owned = trades.stream().filter(t -> cluster.partitionOf(t.getTraderId()) == owner).count();
+            long held = nodes.get(node).getBean(TradeService.class).getTradeCount();
+            assertEquals(owned, held);
+            // Ingest load splits evenly, which is what lets throughput grow with the node count
+            assertTrue(held >= trades.size() / (2 * NODES), "node " + node + " holds only " + held);
+            total += held;
+        }
+        assertEquals(trades.size(), total);
+
+        TradeService singleNode = new TradeService(ColumnarTradeStore::new, SHARDS);
+        singleNode.addTrades(trades);
+        JsonNode expected = objectMapper.valueToTree(singleNode.getInsights());
+        for (String url : urls) {
+            HttpResponse<String> insights = get(url + "/insights");
+            assertEquals(200, insights.statusCode());
+            assertEquals(expected, objectMapper.readTree(insights.body()));
+
+            String etag = insights.headers().firstValue("ETag").orElseThrow();
+            HttpResponse<String> unchanged = http.send(HttpRequest.newBuilder(URI.create(url + "/insights"))
+                    .header("If-None-Match", etag).build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(304, unchanged.statusCode());
+        }
+
+        HttpResponse<String> duplicate = post(urls.get(2), List.of(trades.get(0)));
+        assertEquals(400, duplicate.statusCode());
+        assertTrue(duplicate.body().contains("Duplicate trade detected in storage"), duplicate.body());
+
+        assertPartialsResentOnlyWhenTheirVersionChanges();
+    }
+
+    // Runs after the exact-count checks above, since it adds a trade of its own
+    private void assertPartialsResentOnlyWhenTheirVersionChanges() throws Exception {
+        HttpResponse<String> partial = get(urls.get(1) + "/cluster/insights-partial");
+        assertEquals(200, partial.statusCode());
+        String partialTag = partial.headers().firstValue("ETag").orElseThrow();
+        HttpResponse<String> samePartial = http.send(HttpRequest.newBuilder(URI.create(urls.get(1) + "/cluster/insights-partial"))
+                .header("If-None-Match", partialTag).build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(304, samePartial.statusCode());
+        assertEquals("", samePartial.body());
+
+        String before = get(urls.get(0) + "/insights").headers().firstValue("ETag").orElseThrow();
+        assertEquals(before, get(urls.get(0) + "/insights").headers().firstValue("ETag").orElseThrow());
+
+        // A trade owned by node 1 moves only node 1's version, and with it the merged ETag
+        ClusterService cluster = nodes.get(0).getBean(ClusterService.class);
+        String trader = "P0";
+        for (int i = 1; cluster.partitionOf(trader) != 1; i++) {
+            trader = "P" + i;
+        }
+        assertEquals(200, post(urls.get(2), List.of(createTrade("Platinum", trader, 900.0, 5, BASE.plusSeconds(3_600)))).statusCode());
+
+        HttpResponse<String> after = get(urls.get(0) + "/insights");
+        assertNotEquals(before, after.headers().firstValue("ETag").orElseThrow());
+        assertTrue(after.body().contains("\"Platinum\""), after.body());
+        assertNotEquals(partialTag, get(urls.get(1) + "/cluster/insights-partial").headers().firstValue("ETag").orElseThrow());
+    }
+
+    private static HttpResponse<String> post(String url, List<Trade> trades) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create(url + "/trades"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(trades)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpResponse<String> get(String url) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create(url)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
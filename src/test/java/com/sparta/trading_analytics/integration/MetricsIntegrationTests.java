@@ -0,0 +1,58 @@
+package com.sparta.trading_analytics.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sparta.trading_analytics.model.Trade;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+
+import static com.sparta.trading_analytics.util.TestDataUtil.createTrade;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class MetricsIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testPrometheusEndpoint_ExposesTradeMetrics() throws Exception {
+        Trade trade = createTrade("Gold", "T001", 2000.0, 50, Instant.parse("2025-05-10T10:00:00Z"));
+        String body = objectMapper.writeValueAsString(List.of(trade));
+
+        mockMvc.perform(post("/trades").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/trades").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/insights"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("trades_ingest_latency_seconds_count 1.0")))
+                .andExpect(content().string(containsString("trades_ingest_batch_size_trades_sum 1.0")))
+                .andExpect(content().string(containsString("trades_duplicates_rejected_total{scope=\"storage\",} 1.0")))
+                // The insights stream takes its baseline once on startup, then GET /insights computes once
+                .andExpect(content().string(containsString("trades_insights_compute_seconds_count 2.0")))
+                .andExpect(content().string(containsString("trades_store_size_trades 1.0")))
+                .andExpect(content().string(containsString("trades_store_heap_bytes")));
+    }
+}
@@ -1,6 +1,7 @@
 package com.sparta.trading_analytics.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sparta.trading_analytics.codec.BinaryTradeEncoder;
 import com.sparta.trading_analytics.model.Trade;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,12 +10,16 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
 import java.time.Instant;
 import java.util.List;
 
 import static com.sparta.trading_analytics.util.TestDataUtil.createTrade;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -114,4 +119,424 @@ public class TradeControllerIntegrationTests {
                 .andExpect(jsonPath("$.topTradersByVolume", hasSize(2)));
     }
 
+    @Test
+    void testGetTopTraders_WithLimitAndCommodity() throws Exception {
+        Trade trade1 = createTrade("Gold", "T001", 2000.0, 50, Instant.now());
+        Trade trade2 = createTrade("Gold", "T002", 2000.0, 70, Instant.now());
+        Trade trade3 = createTrade("Silver", "T003", 25.0, 500, Instant.now());
+
+        mockMvc.perform(post("/trades")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(trade1, trade2, trade3))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/insights/top-traders").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].traderId").value("T003"))
+                .andExpect(jsonPath("$[0].volume").value(500));
+
+        mockMvc.perform(get("/insights/top-traders").param("commodity", "Gold"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].traderId").value("T002"));
+    }
+
+    @Test
+    void testGetTrades_CursorPagination() throws Exception {
+        Trade trade1 = createTrade("Gold", "T001", 2000.0, 50, Instant.now());
+        Trade trade2 = createTrade("Silver", "T002", 25.0, 100, Instant.now());
+        Trade trade3 = createTrade("Copper", "T003", 4.5, 200, Instant.now());
+
+        mockMvc.perform(post("/trades")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(trade1, trade2, trade3))))
+                .andExpect(status().isOk());
+
+        String firstPage = mockMvc.perform(get("/trades").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.trades", hasSize(2)))
+                .andExpect(jsonPath("$.trades[0].commodity").value("Gold"))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        mockMvc.perform(get("/trades").param("limit", "2").param("after", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.trades", hasSize(1)))
+                .andExpect(jsonPath("$.trades[0].commodity").value("Copper"))
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+        mockMvc.perform(get("/trades").param("limit", "2").param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.error", containsString("Invalid cursor")));
+    }
+
+    @Test
+    void testGetTrades_NdjsonStream() throws Exception {
+        Trade trade1 = createTrade("Gold", "T001", 2000.0, 50, Instant.parse("2025-05-10T10:00:00Z"));
+        Trade trade2 = createTrade("Silver", "T002", 25.0, 100, Instant.parse("2025-05-10T10:05:00Z"));
+
+        mockMvc.perform(post("/trades")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(trade1, trade2))))
+                .andExpect(status().isOk());
+
+        MvcResult result = mockMvc.perform(get("/trades").accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Gold", objectMapper.readTree(lines[0]).get("commodity").asText());
+        assertEquals("2025-05-10T10:05:00Z", objectMapper.readTree(lines[1]).get("timestamp").asText());
+    }
+
+    @Test
+    void testGetTrades_DefaultsToJsonArray() throws Exception {
+        Trade trade = createTrade("Gold", "T001", 2000.0, 50, Instant.now());
+
+        mockMvc.perform(post("/trades")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(trade))))
+                .andExpect(status().isOk());
+
+        performStreamed(get("/trades"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        performStreamed(get("/trades").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void testBulkIngest_Ndjson_ReportsRejectedLines() throws Exception {
+        String ndjson = """
+                {"commodity":"Gold","traderId":"T001","price":2000.0,"quantity":50,"timestamp":"2025-05-10T10:00:00Z"}
+                {"commodity":"Gold","traderId":"T001","price":-1.0,"quantity":50,"timestamp":"2025-05-10T10:01:00Z"}
+                {"commodity":"Silver","traderId":"T002","price":25.0,"quantity":100,"timestamp":"2025-05-10T10:02:00Z"}
+                {"commodity":"Gold","traderId":"T001","price":2000.0,"quantity":50,"timestamp":"2025-05-10T10:00:00Z"}
+                {"commodity":"Oil","price":85.0,"quantity":10,"timestamp":"2025-05-10T10:03:00Z"}
+                """;
+
+        mockMvc.perform(post("/trades/bulk")
+                        .contentType("application/x-ndjson")
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.rejected").value(3))
+                .andExpect(jsonPath("$.rejectedLines", contains(2, 4, 5)))
+                .andExpect(jsonPath("$.error").doesNotExist());
+
+        mockMvc.perform(get("/insights"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalVolumeByCommodity.Gold").value(50))
+                .andExpect(jsonPath("$.totalVolumeByCommodity.Silver").value(100));
+    }
+
+    @Test
+    void testBulkIngest_CoercesFractionalQuantityLikeSingleIngest() throws Exception {
+        String fractional = """
+                {"commodity":"Gold","traderId":"T001","price":2000.0,"quantity":50.0,"timestamp":"2025-05-10T10:00:00Z"}
+                {"commodity":"Gold","traderId":"T002","price":2000.0,"quantity":1e10,"timestamp":"2025-05-10T10:00:00Z"}
+                """;
+
+        mockMvc.perform(post("/trades/bulk")
+                        .contentType("application/x-ndjson")
+                        .content(fractional))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.rejectedLines", contains(2)));
+
+        // Databind takes the same value on the single-batch endpoint
+        mockMvc.perform(post("/trades")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [{"commodity":"Gold","traderId":"T003","price":2000.0,"quantity":50.0,"timestamp":"2025-05-10T10:00:00Z"}]
+                                """))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/insights"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalVolumeByCommodity.Gold").value(100));
+    }
+
+    @Test
+    void testBulkIngest_JsonArray_StopsAtMalformedInput() throws Exception {
+        Trade trade = createTrade("Gold", "T001", 2000.0, 50, Instant.now());
+        String json = "[" + objectMapper.writeValueAsString(trade) + ",\n{\"commodity\": \"Gold\", \"price\": 20";
+
+        mockMvc.perform(post("/trades/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.error", containsString("Malformed JSON at line 2")));
+    }
+
+    @Test
+    void testGetCandles_ByInterval() throws Exception {
+        Trade trade1 = createTrade("Gold", "T001", 2000.0, 50, Instant.parse("2025-05-10T10:00:10Z"));
+        Trade trade2 = createTrade("Gold", "T002", 2010.0, 50, Instant.parse("2025-05-10T10:00:40Z"));
+        Trade trade3 = createTrade("Gold", "T003", 2020.0, 10, Instant.parse("2025-05-10T10:01:10Z"));
+
+        mockMvc.perform(post("/trades")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(trade1, trade2, trade3))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/insights/candles")
+                        .param("commodity", "Gold")
+                        .param("interval", "1m")
+                        .param("from", "2025-05-10T10:00:30Z")
+                        .param("to", "2025-05-10T10:01:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].start").value("2025-05-10T10:00:00Z"))
+                .andExpect(jsonPath("$[0].open").value(2000.0))
+                .andExpect(jsonPath("$[0].close").value(2010.0))
+                .andExpect(jsonPath("$[0].vwap").value(2005.0))
+                .andExpect(jsonPath("$[0].volume").value(100));
+
+        mockMvc.perform(get("/insights/candles").param("commodity", "Gold").param("interval", "5m"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.error", containsString("Unsupported interval")));
+
+        mockMvc.perform(get("/insights/candles"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testPostTrades_BinaryFormat() throws Exception {
+        byte[] body = new BinaryTradeEncoder()
+                .add("Gold", "T001", Instant.parse("2025-05-10T10:00:00Z"), 2000.0, 50)
+                .add("Gold", "T002", Instant.parse("2025-05-10T10:00:01Z"), 2100.0, 30)
+                .add("Silver", "T001", Instant.parse("2025-05-10T10:00:02Z"), 25.0, 100)
+                .toByteArray();
+
+        mockMvc.perform(post("/trades")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Trades added successfully")));
+
+        mockMvc.perform(get("/insights"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalVolumeByCommodity.Gold").value(80))
+                .andExpect(jsonPath("$.averagePriceByCommodity.Gold").value(2050.0))
+                .andExpect(jsonPath("$.topTradersByVolume[0].traderId").value("T001"));
+
+        // Same duplicate rules as JSON ingest
+        mockMvc.perform(post("/trades")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.error", containsString("Duplicate trade detected")));
+    }
+
+    @Test
+    void testPostTrades_BinaryFormat_ValidationError() throws Exception {
+        byte[] body = new BinaryTradeEncoder()
+                .add("Gold", "T001", Instant.parse("2025-05-10T10:00:00Z"), 2000.0, 50)
+                .add("Gold", "T002", Instant.parse("2025-05-10T10:00:01Z"), -1.0, 30)
+                .toByteArray();
+
+        mockMvc.perform(post("/trades")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.error").value("Invalid binary trade record 1: Price must be positive"));
+
+        mockMvc.perform(post("/trades")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(new byte[]{1, 2, 3}))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.error", containsString("Malformed binary trades")));
+
+        performStreamed(get("/trades"))
+                .andExpect(content().string("[]"));
+    }
+
+    @Test
+    void testGetInsights_ETag_NotModifiedUntilNewTrades() throws Exception {
+        String first = objectMapper.writeValueAsString(List.of(
+                createTrade("Gold", "T001", 2000.0, 50, Instant.parse("2025-05-10T10:00:00Z"))));
+        mockMvc.perform(post("/trades").contentType(MediaType.APPLICATION_JSON).content(first))
+                .andExpect(status().isOk());
+
+        String etag = mockMvc.perform(get("/insights"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.totalVolumeByCommodity.Gold").value(50))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/insights").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // A rejected batch does not change the data, so the ETag still matches
+        mockMvc.perform(post("/trades").contentType(MediaType.APPLICATION_JSON).content(first))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/insights").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        String second = objectMapper.writeValueAsString(List.of(
+                createTrade("Gold", "T002", 2100.0, 30, Instant.parse("2025-05-10T10:01:00Z"))));
+        mockMvc.perform(post("/trades").contentType(MediaType.APPLICATION_JSON).content(second))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/insights").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)))
+                .andExpect(jsonPath("$.totalVolumeByCommodity.Gold").value(80));
+    }
+
+    @Test
+    void testGetSketchInsights() throws Exception {
+        List<Trade> trades = List.of(
+                createTrade("Gold", "T001", 2000.0, 50, Instant.parse("2025-05-10T10:00:00Z")),
+                createTrade("Gold", "T002", 2100.0, 30, Instant.parse("2025-05-10T10:01:00Z")),
+                createTrade("Gold", "T001", 2200.0, 10, Instant.parse("2025-05-10T10:02:00Z")),
+                createTrade("Oil", "T003", 80.0, 100, Instant.parse("2025-05-10T10:00:00Z")));
+        mockMvc.perform(post("/trades")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(trades)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/insights/sketches"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.Gold.tradeCount").value(3))
+                .andExpect(jsonPath("$.Gold.distinctTraders").value(2))
+                .andExpect(jsonPath("$.Gold.pricePercentiles.p50", closeTo(2100.0, 21.0)))
+                .andExpect(jsonPath("$.Gold.heavyHitters[0].traderId").value("T001"))
+                .andExpect(jsonPath("$.Gold.heavyHitters[0].volume").value(60.0))
+                .andExpect(jsonPath("$.Oil.distinctTraders").value(1));
+
+        mockMvc.perform(get("/insights/sketches").param("commodity", "Oil"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.Gold").doesNotExist())
+                .andExpect(jsonPath("$.Oil.heavyHitters[0].traderId").value("T003"));
+    }
+
+    @Test
+    void testGetTrades_Filters() throws Exception {
+        List<Trade> trades = List.of(
+                createTrade("Gold", "T001", 2000.0, 50, Instant.parse("2025-05-10T10:00:00Z")),
+                createTrade("Gold", "T001", 2010.0, 20, Instant.parse("2025-05-10T11:00:00Z")),
+                createTrade("Oil", "T001", 80.0, 100, Instant.parse("2025-05-10T10:30:00Z")),
+                createTrade("Gold", "T002", 2100.0, 30, Instant.parse("2025-05-10T10:30:00Z")));
+        mockMvc.perform(post("/trades")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(trades)))
+                .andExpect(status().isOk());
+
+        performStreamed(get("/trades").param("traderId", "T001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)));
+
+        performStreamed(get("/trades")
+                        .param("traderId", "T001")
+                        .param("commodity", "Gold")
+                        .param("from", "2025-05-10T10:00:00Z")
+                        .param("to", "2025-05-10T11:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].price").value(2000.0));
+
+        mockMvc.perform(get("/trades").param("commodity", "Gold").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.trades", hasSize(1)))
+                .andExpect(jsonPath("$.hasMore").value(true));
+
+        mockMvc.perform(get("/trades").param("from", "not-a-time"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testQueryInsights_GroupByWithTimeFilter() throws Exception {
+        List<Trade> trades = List.of(
+                createTrade("Gold", "T001", 2000.0, 50, Instant.parse("2025-05-10T10:00:00Z")),
+                createTrade("Gold", "T002", 2100.0, 30, Instant.parse("2025-05-10T10:30:00Z")),
+                createTrade("Gold", "T001", 2200.0, 10, Instant.parse("2025-05-10T11:30:00Z")),
+                createTrade("Oil", "T001", 80.0, 100, Instant.parse("2025-05-10T10:15:00Z")));
+        mockMvc.perform(post("/trades")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(trades)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/insights/query")
+                        .param("groupBy", "commodity,trader")
+                        .param("from", "2025-05-10T10:00:00Z")
+                        .param("to", "2025-05-10T11:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].commodity").value("Oil"))
+                .andExpect(jsonPath("$[0].traderId").value("T001"))
+                .andExpect(jsonPath("$[0].volume").value(100))
+                .andExpect(jsonPath("$[1].commodity").value("Gold"))
+                .andExpect(jsonPath("$[1].traderId").value("T001"))
+                .andExpect(jsonPath("$[1].vwap").value(2000.0));
+
+        mockMvc.perform(get("/insights/query").param("commodity", "Gold"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].tradeCount").value(3))
+                .andExpect(jsonPath("$[0].traderId").doesNotExist());
+
+        mockMvc.perform(get("/insights/query").param("groupBy", "price"))
+                .andExpect(status().isBadRequest());
+    }
+
+
+    @Test
+    void testStreamInsights_SnapshotThenDelta() throws Exception {
+        mockMvc.perform(post("/trades")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                List.of(createTrade("Gold", "T001", 2000.0, 50, Instant.now())))))
+                .andExpect(status().isOk());
+
+        MvcResult stream = mockMvc.perform(get("/insights/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        awaitContent(stream, "\"Gold\":50");
+        assertTrue(stream.getResponse().getContentAsString().startsWith("event:snapshot"));
+
+        mockMvc.perform(post("/trades")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                List.of(createTrade("Silver", "T002", 25.0, 40, Instant.now())))))
+                .andExpect(status().isOk());
+
+        awaitContent(stream, "\"Silver\":40");
+        String content = stream.getResponse().getContentAsString();
+        assertTrue(content.indexOf("event:delta") > content.indexOf("\"Gold\":50"));
+        assertTrue(content.lastIndexOf("\"Silver\":40") > content.indexOf("event:delta"));
+    }
+
+    private static void awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.nanoTime() + java.util.concurrent.TimeUnit.SECONDS.toNanos(5);
+        while (!result.getResponse().getContentAsString().contains(expected)) {
+            if (System.nanoTime() > deadline) {
+                fail("Timed out waiting for " + expected + " in " + result.getResponse().getContentAsString());
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    // Plain GET /trades is written by a StreamingResponseBody, i.e. asynchronously
+    private ResultActions performStreamed(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult started = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started));
+    }
 }
@@ -0,0 +1,95 @@
+package com.sparta.trading_analytics.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SymbolTableTests {
+
+    @Test
+    void testCanonical_LooksUpWithoutInterning() {
+        SymbolTable table = new SymbolTable("commodity", 100);
+        char[] buffer = "xxGoldxx".toCharArray();
+
+        String unknown = table.canonical(buffer, 2, 4);
+        assertEquals("Gold", unknown);
+        assertEquals(-1, table.lookup("Gold"));
+        assertEquals(0, table.size());
+
+        int gold = table.intern("Gold");
+        assertSame(table.name(gold), table.canonical(buffer, 2, 4));
+        assertSame(table.name(gold), table.canonical(new String("Gold")));
+        assertEquals(gold, table.lookup("Gold"));
+        assertEquals(-1, table.lookup("Silver"));
+        assertNotEquals(gold, table.intern("Gol"));
+    }
+
+    @Test
+    void testIntern_RejectsNewSymbolsPastCapacity() {
+        SymbolTable table = new SymbolTable("trader", 2);
+        table.intern("T1");
+        table.intern("T2");
+
+        assertEquals(0, table.intern("T1"));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> table.intern("T3"));
+        assertEquals("Too many distinct trader IDs: at most 2 are kept", e.getMessage());
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    void testIntern_ConcurrentFirstSightingsGetDenseUniqueIds() throws Exception {
+        SymbolTable table = new SymbolTable("trader", 1 << 16);
+        int symbols = 5_000;
+        List<Future<int[]>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            for (int t = 0; t < 4; t++) {
+                results.add(executor.submit(() -> {
+                    int[] ids = new int[symbols];
+                    for (int i = 0; i < symbols; i++) {
+                        ids[i] = table.intern("T" + i);
+                    }
+                    return ids;
+                }));
+            }
+            int[] first = results.get(0).get();
+            for (Future<int[]> result : results) {
+                assertArrayEquals(first, result.get());
+            }
+        }
+
+        assertEquals(symbols, table.size());
+        for (int i = 0; i < symbols; i++) {
+            assertEquals("T" + i, table.name(table.lookup("T" + i)));
+        }
+    }
+
+    @Test
+    void testDeserialize_ReturnsSharedInstancesOfInternedIdsOnly() throws Exception {
+        ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        String json = "{\"commodity\":\"Gold\",\"traderId\":\"T001\",\"price\":2000.0,\"quantity\":5,"
+                + "\"timestamp\":\"2025-05-10T10:00:00Z\"}";
+        SymbolTable.COMMODITIES.intern("Gold");
+        SymbolTable.TRADERS.intern("T001");
+
+        Trade first = mapper.readValue(json, Trade.class);
+        Trade second = mapper.readValue(json, Trade.class);
+
+        assertSame(first.getCommodity(), second.getCommodity());
+        assertSame(first.getTraderId(), second.getTraderId());
+        assertEquals(SymbolTable.COMMODITIES.lookup("Gold"), first.getCommoditySymbol());
+        assertEquals(SymbolTable.TRADERS.lookup("T001"), first.getTraderSymbol());
+        assertFalse(mapper.writeValueAsString(first).contains("Symbol"));
+
+        // Parsing alone never interns: the request may still be rejected
+        mapper.readValue(json.replace("T001", "Never-Committed-Trader"), Trade.class);
+        assertEquals(-1, SymbolTable.TRADERS.lookup("Never-Committed-Trader"));
+    }
+}
@@ -0,0 +1,36 @@
+package com.sparta.trading_analytics.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TraderRankingTests {
+
+    @Test
+    void testAddVolume_MatchesTotalsPerTraderAcrossGrowth() {
+        Random random = new Random(3);
+        TraderRanking ranking = new TraderRanking();
+        Map<String, Double> expected = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            String trader = "R" + random.nextInt(2_000);
+            int volume = 1 + random.nextInt(100);
+            ranking.addVolume(SymbolTable.TRADERS.intern(trader), volume);
+            expected.merge(trader, (double) volume, Double::sum);
+        }
+
+        List<TraderRanking.TraderVolume> all = expected.entrySet().stream()
+                .map(entry -> new TraderRanking.TraderVolume(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingDouble(TraderRanking.TraderVolume::volume).reversed()
+                        .thenComparing(TraderRanking.TraderVolume::traderId))
+                .toList();
+        assertEquals(expected.size(), ranking.size());
+        assertEquals(all.subList(0, 25), ranking.top(25));
+        assertEquals(all, ranking.top(Integer.MAX_VALUE));
+    }
+}
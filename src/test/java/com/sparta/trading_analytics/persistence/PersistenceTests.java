@@ -0,0 +1,265 @@
+package com.sparta.trading_analytics.persistence;
+
+import com.sparta.trading_analytics.metrics.TradeMetrics;
+import com.sparta.trading_analytics.model.Trade;
+import com.sparta.trading_analytics.service.TradeService;
+import com.sparta.trading_analytics.store.ColumnarTradeStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static com.sparta.trading_analytics.util.TestDataUtil.createTrade;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PersistenceTests {
+
+    private static final Instant BASE = Instant.parse("2025-05-10T10:00:00Z");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testWriteAheadLog_ReplaysAcrossSegmentsAfterReopen() throws IOException {
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 4096, FsyncPolicy.ALWAYS, 100)) {
+            for (int b = 0; b < 50; b++) {
+                long position = wal.append(batch(b, 5));
+                wal.awaitDurable(position);
+            }
+        }
+
+        List<Trade> replayed = new ArrayList<>();
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 4096, FsyncPolicy.ALWAYS, 100)) {
+            wal.replay(0, replayed::addAll);
+            assertTrue(segmentCount() > 1);
+
+            // Appends after reopening continue where the log left off
+            wal.append(batch(50, 5));
+            replayed.clear();
+            wal.replay(0, replayed::addAll);
+        }
+
+        assertEquals(255, replayed.size());
+        assertEquals("T0-0", replayed.get(0).getTraderId());
+        assertEquals(BASE.plusSeconds(254), replayed.get(254).getTimestamp());
+    }
+
+    @Test
+    void testWriteAheadLog_ConcurrentAppendsKeepRecordsIntact() throws Exception {
+        List<Trade> expected = new ArrayList<>();
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 1 << 20, FsyncPolicy.NEVER, 100);
+             ExecutorService writers = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int b = 0; b < 100; b++) {
+                int batch = b;
+                futures.add(writers.submit(() -> wal.append(batch(batch, 500))));
+                expected.addAll(batch(batch, 500));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        }
+
+        List<Trade> replayed = new ArrayList<>();
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 1 << 20, FsyncPolicy.NEVER, 100)) {
+            wal.replay(0, replayed::addAll);
+        }
+        // Every record replays whole, in whatever order the writers got the lock
+        assertEquals(50_000, replayed.size());
+        assertEquals(Set.copyOf(keys(expected)), Set.copyOf(keys(replayed)));
+    }
+
+    @Test
+    void testWriteAheadLog_TornTailIsIgnored() throws IOException {
+        long end;
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 1 << 20, FsyncPolicy.NEVER, 100)) {
+            wal.append(batch(0, 3));
+            end = wal.append(batch(1, 3));
+        }
+
+        // Simulate a crash halfway through a third record: a length word pointing at garbage
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            ByteBuffer torn = ByteBuffer.allocate(12).putInt(Integer.reverseBytes(200)).putInt(42).putInt(7).flip();
+            channel.write(torn, end);
+        }
+
+        List<Trade> replayed = new ArrayList<>();
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 1 << 20, FsyncPolicy.NEVER, 100)) {
+            assertEquals(end, wal.position());
+            wal.replay(0, replayed::addAll);
+        }
+        assertEquals(6, replayed.size());
+    }
+
+    @Test
+    void testRecovery_SnapshotPlusWalTail() throws IOException {
+        PersistenceProperties properties = new PersistenceProperties(true, dir, 1, FsyncPolicy.ALWAYS,
+                Duration.ofMillis(100), Duration.ofMinutes(5));
+
+        Map<String, Object> before;
+        try (WriteAheadLog wal = new WriteAheadLog(dir.resolve("wal"), 64 * 1024, FsyncPolicy.ALWAYS, 100)) {
+            TradeService tradeService = new TradeService(ColumnarTradeStore::new, 4, wal, TradeMetrics.NONE);
+            PersistenceManager manager = new PersistenceManager(tradeService, wal, new SnapshotStore(dir.resolve("snapshots")), properties);
+
+            for (int b = 0; b < 200; b++) {
+                tradeService.addTrades(batch(b, 10));
+            }
+            manager.snapshot();
+            for (int b = 200; b < 250; b++) {
+                tradeService.addTrades(batch(b, 10));
+            }
+            before = tradeService.getInsights();
+            manager.destroy();
+        }
+
+        try (WriteAheadLog wal = new WriteAheadLog(dir.resolve("wal"), 64 * 1024, FsyncPolicy.ALWAYS, 100)) {
+            TradeService recovered = new TradeService(ColumnarTradeStore::new, 4, wal, TradeMetrics.NONE);
+            new PersistenceManager(recovered, wal, new SnapshotStore(dir.resolve("snapshots")), properties).recover();
+
+            assertEquals(2500, recovered.getTradeCount());
+            assertEquals(before, recovered.getInsights());
+
+            // Recovered trades still count for duplicate detection
+            assertThrows(IllegalArgumentException.class, () -> recovered.addTrades(batch(0, 1)));
+        }
+    }
+
+    @Test
+    void testRecovery_SnapshotKeepsAnalyticsOfEvictedTradesAndRetentionWatermark() throws IOException {
+        PersistenceProperties properties = new PersistenceProperties(true, dir, 1, FsyncPolicy.ALWAYS,
+                Duration.ofMillis(100), Duration.ofMinutes(5));
+        Instant recent = Instant.now().minusSeconds(60);
+
+        TradeService original;
+        try (WriteAheadLog wal = new WriteAheadLog(dir.resolve("wal"), 1 << 20, FsyncPolicy.NEVER, 100)) {
+            original = new TradeService(ColumnarTradeStore::new, 4, wal, TradeMetrics.NONE);
+            PersistenceManager manager = new PersistenceManager(original, wal, new SnapshotStore(dir.resolve("snapshots")), properties);
+
+            // Enough old trades to fill whole chunks in every shard
+            for (int b = 0; b < 2_500; b++) {
+                original.addTrades(batch(b, 10));
+            }
+            List<Trade> recentTrades = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                recentTrades.add(createTrade("C" + (i % 3), "R" + i, 50.0 + i, 5, recent.plusMillis(i)));
+            }
+            original.addTrades(recentTrades);
+            assertTrue(original.evictBefore(recent.minus(Duration.ofHours(2))) > 0);
+
+            manager.snapshot();
+            original.addTrades(List.of(createTrade("C0", "R-after-snapshot", 75.0, 5, recent.plusSeconds(1))));
+            manager.destroy();
+        }
+
+        try (WriteAheadLog wal = new WriteAheadLog(dir.resolve("wal"), 1 << 20, FsyncPolicy.NEVER, 100)) {
+            TradeService recovered = new TradeService(ColumnarTradeStore::new, 4, wal, TradeMetrics.NONE);
+            new PersistenceManager(recovered, wal, new SnapshotStore(dir.resolve("snapshots")), properties).recover();
+
+            assertEquals(original.getTradeCount(), recovered.getTradeCount());
+            assertEquals(original.getInsights(), recovered.getInsights());
+            assertEquals(original.getTopTradersByVolume(50, "C1"), recovered.getTopTradersByVolume(50, "C1"));
+            assertEquals(original.getSketchInsights(null), recovered.getSketchInsights(null));
+            assertEquals(original.getCandles("C2", "1h", null, null), recovered.getCandles("C2", "1h", null, null));
+            assertEquals(original.getCandles("C2", "1m", null, null), recovered.getCandles("C2", "1m", null, null));
+
+            // Evicted trades can no longer be re-submitted as if they were new
+            IllegalArgumentException tooOld = assertThrows(IllegalArgumentException.class,
+                    () -> recovered.addTrades(batch(0, 1)));
+            assertTrue(tooOld.getMessage().contains("older than the retention window"));
+        }
+    }
+
+    @Test
+    void testRecovery_ConcurrentVirtualThreadWritersWithFsync() throws Exception {
+        PersistenceProperties properties = new PersistenceProperties(true, dir, 1, FsyncPolicy.ALWAYS,
+                Duration.ofMillis(100), Duration.ofMinutes(5));
+
+        List<Trade> before;
+        try (WriteAheadLog wal = new WriteAheadLog(dir.resolve("wal"), 16 * 1024, FsyncPolicy.ALWAYS, 100)) {
+            TradeService tradeService = new TradeService(ColumnarTradeStore::new, 4, wal, TradeMetrics.NONE);
+            PersistenceManager manager = new PersistenceManager(tradeService, wal, new SnapshotStore(dir.resolve("snapshots")), properties);
+
+            // Far more writers than carrier threads, all queueing on the WAL's force and the shard locks,
+            // with snapshots taken and the WAL truncated underneath them
+            try (ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int b = 0; b < 400; b++) {
+                    int batch = b;
+                    futures.add(writers.submit(() -> tradeService.addTrades(batch(batch, 5))));
+                    if (b % 100 == 50) {
+                        futures.add(writers.submit(() -> {
+                            manager.snapshot();
+                            return null;
+                        }));
+                    }
+                }
+                for (Future<?> future : futures) {
+                    future.get(60, TimeUnit.SECONDS);
+                }
+            }
+            before = tradeService.getAllTrades();
+            manager.destroy();
+        }
+
+        try (WriteAheadLog wal = new WriteAheadLog(dir.resolve("wal"), 16 * 1024, FsyncPolicy.ALWAYS, 100)) {
+            TradeService recovered = new TradeService(ColumnarTradeStore::new, 4, wal, TradeMetrics.NONE);
+            new PersistenceManager(recovered, wal, new SnapshotStore(dir.resolve("snapshots")), properties).recover();
+
+            assertEquals(2000, recovered.getTradeCount());
+            // Same trades in the same arrival order
+            assertEquals(keys(before), keys(recovered.getAllTrades()));
+        }
+    }
+
+    @Test
+    void testSnapshotStore_FailedWriteLeavesNoFiles() throws IOException {
+        SnapshotStore store = new SnapshotStore(dir);
+        List<Trade> trades = batch(0, 3);
+
+        assertThrows(IllegalStateException.class, () -> store.write(42, new byte[0], 5, trades.iterator()));
+
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(List.of(), files.toList());
+        }
+        assertTrue(store.loadLatest(state -> { }, block -> { }).isEmpty());
+    }
+
+    private static List<String> keys(List<Trade> trades) {
+        return trades.stream().map(t -> t.getTraderId() + "@" + t.getTimestamp()).toList();
+    }
+
+    private static List<Trade> batch(int batch, int size) {
+        List<Trade> trades = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            trades.add(createTrade("C" + (i % 3), "T" + batch + "-" + i, 100.0 + i, 10 + i, BASE.plusSeconds((long) batch * size + i)));
+        }
+        return trades;
+    }
+
+    private long segmentCount() throws IOException {
+        return segments().size();
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().startsWith("wal-")).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.sparta.trading_analytics.service;
+
+import com.sparta.trading_analytics.exception.IngestQueueFullException;
+import com.sparta.trading_analytics.exception.IngestTimeoutException;
+import com.sparta.trading_analytics.model.Trade;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.sparta.trading_analytics.util.TestDataUtil.createTrade;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncTradeIngestServiceTests {
+
+    private static final Instant BASE = Instant.parse("2025-05-10T10:00:00Z");
+
+    @Test
+    void testSubmit_ManyConcurrentRequests_AllCommitted() throws Exception {
+        TradeService tradeService = new TradeService();
+        AsyncTradeIngestService ingest = new AsyncTradeIngestService(tradeService,
+                new AsyncIngestProperties(true, 1024, 500, IngestAck.COMMITTED, Duration.ofSeconds(1), Duration.ofSeconds(30)));
+        ingest.start();
+
+        int requests = 200;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<IngestAck>> acks = new ArrayList<>();
+            for (int r = 0; r < requests; r++) {
+                Trade trade = createTrade("Gold", "T" + (r % 7), 2000.0, 10, BASE.plusSeconds(r));
+                acks.add(executor.submit(() -> ingest.submit(List.of(trade))));
+            }
+            for (Future<IngestAck> ack : acks) {
+                assertEquals(IngestAck.COMMITTED, ack.get());
+            }
+        } finally {
+            ingest.stop();
+        }
+
+        assertEquals(requests, tradeService.getTradeCount());
+    }
+
+    @Test
+    void testAddTradeBatches_RejectsOnlyTheDuplicateSubmission() {
+        TradeService tradeService = new TradeService();
+        Trade first = createTrade("Oil", "T001", 80.0, 10, BASE);
+        Trade sameAsFirst = createTrade("Oil", "T001", 80.0, 10, BASE);
+        Trade other = createTrade("Oil", "T002", 81.0, 20, BASE);
+
+        List<IllegalArgumentException> failures = tradeService.addTradeBatches(
+                List.of(List.of(first), List.of(sameAsFirst, other), List.of(other)));
+
+        assertNull(failures.get(0));
+        assertTrue(failures.get(1).getMessage().contains("Duplicate trade detected in storage"));
+        assertNull(failures.get(2));
+        assertEquals(2, tradeService.getTradeCount());
+    }
+
+    @Test
+    void testSubmit_QueueFull_RefusedUntilWriterDrains() {
+        TradeService tradeService = new TradeService();
+        AsyncTradeIngestService ingest = new AsyncTradeIngestService(tradeService,
+                new AsyncIngestProperties(true, 1, 100, IngestAck.ENQUEUED, Duration.ofSeconds(2), Duration.ofSeconds(30)));
+
+        // Writer not started yet, so the single slot stays taken
+        assertEquals(IngestAck.ENQUEUED, ingest.submit(List.of(createTrade("Gold", "T001", 2000.0, 5, BASE))));
+        IngestQueueFullException full = assertThrows(IngestQueueFullException.class,
+                () -> ingest.submit(List.of(createTrade("Gold", "T002", 2000.0, 5, BASE))));
+        assertEquals(Duration.ofSeconds(2), full.getRetryAfter());
+
+        ingest.start();
+        ingest.stop();
+        assertEquals(1, tradeService.getTradeCount());
+        assertEquals(0, ingest.queuedBatches());
+        assertThrows(IllegalStateException.class,
+                () -> ingest.submit(List.of(createTrade("Gold", "T003", 2000.0, 5, BASE))));
+    }
+
+    @Test
+    void testSubmit_WaitIsBoundedByCommitTimeout() {
+        TradeService tradeService = new TradeService();
+        AsyncTradeIngestService ingest = new AsyncTradeIngestService(tradeService,
+                new AsyncIngestProperties(true, 8, 100, IngestAck.COMMITTED, Duration.ofSeconds(1), Duration.ofMillis(50)));
+
+        // Writer not started, so nothing commits
+        assertThrows(IngestTimeoutException.class,
+                () -> ingest.submit(List.of(createTrade("Gold", "T001", 2000.0, 5, BASE))));
+
+        // Still queued: committed once the writer runs
+        ingest.start();
+        ingest.stop();
+        assertEquals(1, tradeService.getTradeCount());
+    }
+
+    @Test
+    void testStop_FailsBatchesTheWriterNeverSaw() throws Exception {
+        TradeService tradeService = new TradeService();
+        AsyncTradeIngestService ingest = new AsyncTradeIngestService(tradeService,
+                new AsyncIngestProperties(true, 8, 100, IngestAck.COMMITTED, Duration.ofSeconds(1), Duration.ofSeconds(30)));
+
+        // No writer ever drains the queue: stop() must answer the waiting request instead of leaving it hanging
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<IngestAck> waiting = executor.submit(() -> ingest.submit(List.of(createTrade("Gold", "T001", 2000.0, 5, BASE))));
+            while (ingest.queuedBatches() == 0) {
+                Thread.onSpinWait();
+            }
+            ingest.stop();
+
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> waiting.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, failure.getCause());
+        }
+        assertEquals(0, ingest.queuedBatches());
+        assertEquals(0, tradeService.getTradeCount());
+    }
+}
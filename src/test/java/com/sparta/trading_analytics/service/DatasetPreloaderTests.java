@@ -0,0 +1,105 @@
+package com.sparta.trading_analytics.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sparta.trading_analytics.codec.BinaryTradeEncoder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DatasetPreloaderTests {
+
+    private static final Instant BASE = Instant.parse("2025-05-10T10:00:00Z");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testPreload_BundledJsonArray() throws IOException {
+        TradeService tradeService = new TradeService();
+        long expected;
+        try (InputStream data = getClass().getResourceAsStream("/data,json")) {
+            expected = new ObjectMapper().readTree(data).size();
+        }
+
+        long loaded = preloader(tradeService, trader -> true, 0, "classpath:data,json").preload();
+
+        assertEquals(expected, loaded);
+        assertEquals(expected, tradeService.getTradeCount());
+    }
+
+    @Test
+    void testPreload_NdjsonParsedInParallelRanges_SkipsInvalidAndDuplicates() throws IOException {
+        int trades = 30_000;
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < trades; i++) {
+            ndjson.append(line("Gold", "T" + (i % 97), 2000.0 + i % 13, 1 + i % 50, BASE.plusMillis(i))).append('\n');
+            if (i % 5_000 == 0) {
+                ndjson.append("{\"commodity\":\"Gold\",\"traderId\":\"T1\",\"price\":-1,\"quantity\":1,\"timestamp\":\"")
+                        .append(BASE).append("\"}\n");
+                ndjson.append(line("Gold", "T" + (i % 97), 2000.0 + i % 13, 1 + i % 50, BASE.plusMillis(i))).append('\n');
+            }
+        }
+        Path file = dir.resolve("trades.ndjson");
+        Files.writeString(file, ndjson);
+        assertTrue(Files.size(file) > 2 << 20, "dataset must span several parse ranges");
+
+        TradeService tradeService = new TradeService();
+        long loaded = preloader(tradeService, trader -> true, 4, file.toUri().toString()).preload();
+
+        assertEquals(trades, loaded);
+        assertEquals(trades, tradeService.getTradeCount());
+    }
+
+    @Test
+    void testPreload_BinaryFile_KeepsOnlyOwnedTraders() throws IOException {
+        Path file = dir.resolve("trades.bin");
+        Files.write(file, new BinaryTradeEncoder()
+                .add("Gold", "T001", BASE, 2000.0, 5)
+                .add("Gold", "T002", BASE, 2001.0, 6)
+                .add("Oil", "T001", BASE.plusSeconds(1), 80.0, 7)
+                .toByteArray());
+
+        TradeService tradeService = new TradeService();
+        long loaded = preloader(tradeService, "T001"::equals, 0, file.toUri().toString()).preload();
+
+        assertEquals(2, loaded);
+        assertEquals(List.of("T001", "T001"),
+                tradeService.getAllTrades().stream().map(trade -> trade.getTraderId()).toList());
+    }
+
+    @Test
+    void testPreload_MalformedOrMissingDataset_FailsStartup() throws IOException {
+        Path file = dir.resolve("broken.ndjson");
+        Files.writeString(file, line("Gold", "T001", 2000.0, 5, BASE) + "\n{\"commodity\": \n");
+
+        TradeService tradeService = new TradeService();
+        IllegalStateException malformed = assertThrows(IllegalStateException.class,
+                () -> preloader(tradeService, trader -> true, 0, file.toUri().toString()).preload());
+        assertTrue(malformed.getMessage().contains("Malformed JSON"));
+
+        IllegalStateException missing = assertThrows(IllegalStateException.class,
+                () -> preloader(tradeService, trader -> true, 0, dir.resolve("absent.ndjson").toUri().toString()).preload());
+        assertTrue(missing.getMessage().contains("does not exist"));
+    }
+
+    private static DatasetPreloader preloader(TradeService tradeService, Predicate<String> ownsTrader,
+                                              int parallelism, String location) {
+        return new DatasetPreloader(new PreloadProperties(true, List.of(location), parallelism, 1_000),
+                tradeService, ownsTrader, new ObjectMapper(), new DefaultResourceLoader());
+    }
+
+    private static String line(String commodity, String traderId, double price, int quantity, Instant timestamp) {
+        return "{\"commodity\":\"" + commodity + "\",\"traderId\":\"" + traderId + "\",\"price\":" + price
+                + ",\"quantity\":" + quantity + ",\"timestamp\":\"" + timestamp + "\"}";
+    }
+}
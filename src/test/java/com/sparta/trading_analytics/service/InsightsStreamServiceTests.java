@@ -0,0 +1,160 @@
+package com.sparta.trading_analytics.service;
+
+import com.sparta.trading_analytics.model.InsightsDelta;
+import com.sparta.trading_analytics.model.InsightsResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.sparta.trading_analytics.util.TestDataUtil.createTrade;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InsightsStreamServiceTests {
+
+    private static final Instant BASE = Instant.parse("2025-05-10T10:00:00Z");
+
+    private record Received(String name, long version, Object data) {
+    }
+
+    @Test
+    void testTick_CoalescesBurstIntoOneDelta() throws Exception {
+        TradeService tradeService = new TradeService();
+        tradeService.addTrades(List.of(createTrade("Oil", "T001", 80.0, 10, BASE)));
+        InsightsStreamService stream = new InsightsStreamService(tradeService,
+                new InsightsStreamProperties(Duration.ofMillis(100), 16, 10, Duration.ofSeconds(15)));
+        BlockingQueue<Received> events = new LinkedBlockingQueue<>();
+        stream.subscribe((name, version, data) -> events.add(new Received(name, version, data)));
+
+        Received snapshot = events.poll(5, TimeUnit.SECONDS);
+        assertEquals(InsightsStreamService.SNAPSHOT_EVENT, snapshot.name());
+        assertEquals(1, snapshot.version());
+        stream.tick();
+
+        for (int i = 0; i < 50; i++) {
+            tradeService.addTrades(List.of(createTrade("Gold", "T00" + (i % 3), 2000.0, 10, BASE.plusSeconds(i))));
+        }
+        stream.tick();
+        stream.tick();
+
+        Received delta = events.poll(5, TimeUnit.SECONDS);
+        assertEquals(InsightsStreamService.DELTA_EVENT, delta.name());
+        assertEquals(51, delta.version());
+        InsightsDelta changes = (InsightsDelta) delta.data();
+        assertEquals(500, changes.totalVolumeByCommodity().get("Gold"));
+        assertFalse(changes.totalVolumeByCommodity().containsKey("Oil"));
+        assertNotNull(changes.topTradersByVolume());
+        assertNull(events.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testSlowSubscriber_DroppedToSnapshotWithoutBlockingIngest() throws Exception {
+        TradeService tradeService = new TradeService();
+        InsightsStreamService stream = new InsightsStreamService(tradeService,
+                new InsightsStreamProperties(Duration.ofMillis(100), 2, 10, Duration.ofSeconds(15)));
+        BlockingQueue<Received> events = new LinkedBlockingQueue<>();
+        CountDownLatch release = new CountDownLatch(1);
+        stream.subscribe((name, version, data) -> {
+            events.add(new Received(name, version, data));
+            if (InsightsStreamService.DELTA_EVENT.equals(name)) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        assertEquals(InsightsStreamService.SNAPSHOT_EVENT, events.poll(5, TimeUnit.SECONDS).name());
+        stream.tick();
+
+        tradeService.addTrades(List.of(createTrade("Gold", "T001", 2000.0, 10, BASE)));
+        stream.tick();
+        assertEquals(InsightsStreamService.DELTA_EVENT, events.poll(5, TimeUnit.SECONDS).name());
+
+        // The subscriber is stuck in its first delta; ingest and ticks carry on regardless
+        for (int i = 1; i < 6; i++) {
+            tradeService.addTrades(List.of(createTrade("Gold", "T001", 2000.0, 10, BASE.plusSeconds(i))));
+            stream.tick();
+        }
+        assertEquals(6, tradeService.getTradeCount());
+        release.countDown();
+
+        Received resync = events.poll(5, TimeUnit.SECONDS);
+        assertEquals(InsightsStreamService.SNAPSHOT_EVENT, resync.name());
+        assertEquals(tradeService.getVersion(), resync.version());
+        assertNull(events.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testInsightsDelta_OnlyChangedEntries() {
+        TradeService tradeService = new TradeService();
+        tradeService.addTrades(List.of(
+                createTrade("Oil", "T001", 80.0, 10, BASE),
+                createTrade("Gold", "T002", 2000.0, 100, BASE)));
+        InsightsResponse before = tradeService.getInsightsResponse(10);
+        tradeService.addTrades(List.of(createTrade("Oil", "T003", 90.0, 10, BASE)));
+        InsightsResponse after = tradeService.getInsightsResponse(10);
+
+        InsightsDelta delta = InsightsDelta.between(before, after);
+
+        assertEquals(Map.of("Oil", 20), delta.totalVolumeByCommodity());
+        assertEquals(Map.of("Oil", 85.0), delta.averagePriceByCommodity());
+        assertEquals(List.of(new InsightsDelta.TraderRow("T002", 100),
+                new InsightsDelta.TraderRow("T001", 10), new InsightsDelta.TraderRow("T003", 10)),
+                delta.topTradersByVolume());
+        assertTrue(InsightsDelta.between(after, after).isEmpty());
+    }
+
+    @Test
+    void testIdleSubscriber_SentHeartbeats() throws Exception {
+        TradeService tradeService = new TradeService();
+        InsightsStreamService stream = new InsightsStreamService(tradeService,
+                new InsightsStreamProperties(Duration.ofMillis(100), 16, 10, Duration.ofMillis(50)));
+        BlockingQueue<Received> events = new LinkedBlockingQueue<>();
+        CountDownLatch heartbeats = new CountDownLatch(3);
+        stream.subscribe(new InsightsStreamService.EventSink() {
+            @Override
+            public void send(String name, long version, Object data) {
+                events.add(new Received(name, version, data));
+            }
+
+            @Override
+            public void heartbeat() {
+                heartbeats.countDown();
+            }
+        });
+
+        assertEquals(InsightsStreamService.SNAPSHOT_EVENT, events.poll(5, TimeUnit.SECONDS).name());
+        assertTrue(heartbeats.await(5, TimeUnit.SECONDS));
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void testHeartbeatFailure_ClosesSubscription() throws Exception {
+        TradeService tradeService = new TradeService();
+        InsightsStreamService stream = new InsightsStreamService(tradeService,
+                new InsightsStreamProperties(Duration.ofMillis(100), 16, 10, Duration.ofMillis(50)));
+        stream.subscribe(new InsightsStreamService.EventSink() {
+            @Override
+            public void send(String name, long version, Object data) {
+            }
+
+            @Override
+            public void heartbeat() throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        });
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (stream.subscriberCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, stream.subscriberCount());
+    }
+}
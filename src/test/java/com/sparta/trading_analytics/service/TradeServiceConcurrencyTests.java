@@ -0,0 +1,120 @@
+package com.sparta.trading_analytics.service;
+
+import com.sparta.trading_analytics.model.Trade;
+import com.sparta.trading_analytics.store.ColumnarTradeStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.sparta.trading_analytics.util.TestDataUtil.createTrade;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TradeServiceConcurrencyTests {
+
+    private static final int BATCHES_PER_THREAD = 400;
+    private static final int BATCH_SIZE = 20;
+    private static final Instant BASE = Instant.parse("2025-05-10T10:00:00Z");
+
+    @Test
+    void testAddTrades_ConcurrentWriters_NoLostUpdates() throws Exception {
+        int threads = 8;
+        TradeService tradeService = new TradeService(ColumnarTradeStore::new, 8);
+
+        ingestConcurrently(tradeService, threads);
+
+        long expectedTrades = (long) threads * BATCHES_PER_THREAD * BATCH_SIZE;
+        assertEquals(expectedTrades, tradeService.getTradeCount());
+        assertEquals(expectedTrades, tradeService.getAllTrades().size());
+
+        Map<String, Object> insights = tradeService.getInsights();
+        Map<String, Integer> totalVolume = (Map<String, Integer>) insights.get("totalVolumeByCommodity");
+        assertEquals(expectedTrades, totalVolume.values().stream().mapToLong(Integer::longValue).sum());
+        assertEquals(threads * BATCH_SIZE, ((List<?>) insights.get("topTradersByVolume")).size());
+    }
+
+    @Test
+    void testAddTrades_StalledShardDoesNotBlockBatchesOnOtherShards() throws Exception {
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        // Appends to shard 0 stall until released
+        TradeService tradeService = new TradeService(() -> created.getAndIncrement() > 0 ? new ColumnarTradeStore() : new ColumnarTradeStore() {
+            @Override
+            public void append(List<Trade> trades, long[] sequences) {
+                stalled.countDown();
+                try {
+                    resume.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.append(trades, sequences);
+            }
+        }, 4);
+        String shard0 = traderInShard(0, 4, "A");
+        String shard1 = traderInShard(1, 4, "B");
+        String otherShard1 = traderInShard(1, 4, "C");
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> spanning = executor.submit(() -> tradeService.addTrades(List.of(
+                    createTrade("Gold", shard0, 100.0, 1, BASE), createTrade("Gold", shard1, 100.0, 1, BASE))));
+            assertTrue(stalled.await(10, TimeUnit.SECONDS));
+
+            // Shares shard 1 with the stalled batch, whose shard 1 slice gets applied along with its own
+            executor.submit(() -> tradeService.addTrades(List.of(createTrade("Gold", otherShard1, 100.0, 1, BASE))))
+                    .get(10, TimeUnit.SECONDS);
+            assertFalse(spanning.isDone());
+
+            resume.countDown();
+            spanning.get(10, TimeUnit.SECONDS);
+        } finally {
+            resume.countDown();
+            executor.shutdownNow();
+        }
+
+        assertEquals(List.of(shard0, shard1, otherShard1),
+                tradeService.getAllTrades().stream().map(Trade::getTraderId).toList());
+        assertEquals(2, tradeService.getVersion());
+    }
+
+    private static String traderInShard(int shard, int shardCount, String prefix) {
+        for (int i = 0; ; i++) {
+            if (TradeService.shardIndex(prefix + i, shardCount) == shard) {
+                return prefix + i;
+            }
+        }
+    }
+
+    private void ingestConcurrently(TradeService tradeService, int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            int writer = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int b = 0; b < BATCHES_PER_THREAD; b++) {
+                    List<Trade> batch = new ArrayList<>(BATCH_SIZE);
+                    for (int i = 0; i < BATCH_SIZE; i++) {
+                        batch.add(createTrade("C" + (i % 4), "W" + writer + "-T" + i, 100.0 + i, 1,
+                                BASE.plusMillis((long) b * BATCH_SIZE + i)));
+                    }
+                    tradeService.addTrades(batch);
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+}
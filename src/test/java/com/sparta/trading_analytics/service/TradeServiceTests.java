@@ -1,6 +1,11 @@
 package com.sparta.trading_analytics.service;
 
+import com.sparta.trading_analytics.cluster.ClusterService;
+import com.sparta.trading_analytics.model.SymbolTable;
 import com.sparta.trading_analytics.model.Trade;
+import com.sparta.trading_analytics.model.TradePage;
+import com.sparta.trading_analytics.store.ColumnarTradeStore;
+import com.sparta.trading_analytics.store.TradeFilter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -8,8 +13,11 @@ import static com.sparta.trading_analytics.util.TestDataUtil.createTrade;
 
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -109,6 +117,33 @@ public class TradeServiceTests {
         assertTrue(exception.getMessage().contains("Duplicate trade detected"));
     }
 
+    @Test
+    void testAddTrades_RejectedBatch_DoesNotInternNewSymbols() {
+        Trade stored = createTrade("Oil", "T002", 85.5, 100, Instant.now());
+        tradeService.addTrades(List.of(stored));
+        String trader = "T-REJECTED-" + System.nanoTime();
+        String commodity = "C-REJECTED-" + System.nanoTime();
+        Trade fresh = createTrade(commodity, trader, 10.0, 5, Instant.now());
+        Trade duplicate = createTrade("Oil", "T002", 85.5, 100, stored.getTimestamp());
+
+        assertThrows(IllegalArgumentException.class, () -> tradeService.addTrades(List.of(fresh, duplicate)));
+        assertEquals(-1, SymbolTable.TRADERS.lookup(trader));
+        assertEquals(-1, SymbolTable.COMMODITIES.lookup(commodity));
+
+        // Two identical trades with new symbols are still caught within the batch
+        Trade copy = createTrade(commodity, trader, 10.0, 5, fresh.getTimestamp());
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> tradeService.addTrades(List.of(fresh, copy)));
+        assertTrue(exception.getMessage().contains("within submission batch"));
+        assertEquals(-1, SymbolTable.TRADERS.lookup(trader));
+
+        tradeService.addTrades(List.of(fresh));
+        assertTrue(SymbolTable.TRADERS.lookup(trader) >= 0);
+        IllegalArgumentException again = assertThrows(IllegalArgumentException.class,
+                () -> tradeService.addTrades(List.of(createTrade(commodity, trader, 10.0, 5, fresh.getTimestamp()))));
+        assertTrue(again.getMessage().contains("Duplicate trade detected in storage"));
+    }
+
     @Test
     void testGetInsights_SameTraderMultipleTrades_SumsVolume() {
         Trade trade1 = createTrade("Gold", "T001", 2000.0, 50, Instant.now());
@@ -135,4 +170,257 @@ public class TradeServiceTests {
         assertEquals(2, allTrades.size());
     }
 
+    @Test
+    void testAddTrades_DuplicateWithinBatch_NothingStored() {
+        Trade trade1 = createTrade("Gold", "T001", 2000.0, 50, Instant.now());
+        Trade trade2 = createTrade("Gold", "T001", 2000.0, 50, trade1.getTimestamp());  // Same as trade1
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+            tradeService.addTrades(List.of(trade1, trade2));
+        });
+
+        assertTrue(exception.getMessage().contains("Duplicate trade detected within submission batch"));
+        assertTrue(tradeService.getAllTrades().isEmpty());
+    }
+
+    @Test
+    void testAddTrades_SameTimestampDifferentPrice_Success() {
+        Instant now = Instant.now();
+        Trade trade1 = createTrade("Gold", "T001", 2000.0, 50, now);
+        Trade trade2 = createTrade("Gold", "T001", 2000.5, 50, now);  // Different price
+
+        tradeService.addTrades(List.of(trade1));
+        tradeService.addTrades(List.of(trade2));
+
+        assertEquals(2, tradeService.getAllTrades().size());
+    }
+
+    @Test
+    void testGetInsights_RejectedBatchLeavesAggregatesUnchanged() {
+        Trade trade1 = createTrade("Gold", "T001", 2000.0, 50, Instant.now());
+        Trade trade2 = createTrade("Gold", "T002", 2100.0, 30, Instant.now().plusSeconds(1));
+        Trade duplicate = createTrade("Gold", "T001", 2000.0, 50, trade1.getTimestamp());
+
+        tradeService.addTrades(List.of(trade1));
+        assertThrows(IllegalArgumentException.class, () -> tradeService.addTrades(List.of(trade2, duplicate)));
+        tradeService.addTrades(List.of(trade2));
+
+        Map<String, Object> insights = tradeService.getInsights();
+        Map<String, Integer> totalVolume = (Map<String, Integer>) insights.get("totalVolumeByCommodity");
+        Map<String, Double> averagePrice = (Map<String, Double>) insights.get("averagePriceByCommodity");
+
+        assertEquals(80, totalVolume.get("Gold"));
+        assertEquals(2050.0, averagePrice.get("Gold"));
+    }
+
+    @Test
+    void testGetTopTradersByVolume_LimitAndCommodity() {
+        Instant now = Instant.now();
+        tradeService.addTrades(List.of(
+                createTrade("Gold", "T001", 2000.0, 50, now),
+                createTrade("Gold", "T002", 2000.0, 80, now),
+                createTrade("Silver", "T001", 25.0, 100, now),
+                createTrade("Silver", "T003", 25.0, 10, now)
+        ));
+
+        List<Map<String, Object>> top = tradeService.getTopTradersByVolume(2, null);
+        assertEquals(2, top.size());
+        assertEquals("T001", top.get(0).get("traderId"));
+        assertEquals(150, top.get(0).get("volume"));
+        assertEquals("T002", top.get(1).get("traderId"));
+
+        List<Map<String, Object>> gold = tradeService.getTopTradersByVolume(10, "Gold");
+        assertEquals(2, gold.size());
+        assertEquals("T002", gold.get(0).get("traderId"));
+        assertEquals(80, gold.get(0).get("volume"));
+
+        assertTrue(tradeService.getTopTradersByVolume(10, "Copper").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> tradeService.getTopTradersByVolume(0, null));
+    }
+
+    @Test
+    void testGetVersion_BumpedOnlyByAcceptedBatches() {
+        assertEquals(0, tradeService.getVersion());
+
+        Trade trade = createTrade("Gold", "T001", 2000.0, 50, Instant.now());
+        tradeService.addTrades(List.of(trade));
+        assertEquals(1, tradeService.getVersion());
+
+        assertThrows(IllegalArgumentException.class, () -> tradeService.addTrades(List.of(trade)));
+        assertEquals(1, tradeService.getVersion());
+
+        TradeService.VersionedInsights insights = tradeService.getVersionedInsights();
+        assertEquals(1, insights.version());
+        assertEquals(Map.of("Gold", 50), insights.insights().get("totalVolumeByCommodity"));
+    }
+
+    @Test
+    void testAddTrades_InvalidPriceRejectedBeforeAnyShardIsTouched() {
+        Instant base = Instant.parse("2025-05-10T10:00:00Z");
+        List<Trade> batch = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            batch.add(createTrade("Gold", "T" + i, 2000.0, 5, base.plusSeconds(i)));
+        }
+        batch.add(createTrade("Gold", "T99", 0.0, 5, base.plusSeconds(99)));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> tradeService.addTrades(batch));
+        assertTrue(e.getMessage().contains("Price must be positive"), e.getMessage());
+        assertEquals(0, tradeService.getTradeCount());
+        assertEquals(0, tradeService.getVersion());
+        assertTrue(tradeService.getSketchInsights(null).isEmpty());
+
+        // The valid trades were not reserved either
+        tradeService.addTrades(batch.subList(0, 20));
+        assertEquals(20, tradeService.getTradeCount());
+
+        // The skipping path rejects an invalid trade on its own
+        assertEquals(List.of(0), tradeService.addTradesSkippingDuplicates(
+                List.of(createTrade("Gold", "T98", Double.NaN, 5, base), createTrade("Gold", "T98", 1.0, 5, base))));
+        assertEquals(21, tradeService.getTradeCount());
+    }
+
+    @Test
+    void testEvictBefore_KeepsInsightsExactAndRejectsEvictedRange() {
+        Instant old = Instant.parse("2025-05-10T10:00:00Z");
+        List<Trade> oldTrades = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            oldTrades.add(createTrade("Gold", "T001", 2000.0, 1, old.plusMillis(i)));
+        }
+        tradeService.addTrades(oldTrades);
+        Trade recent = createTrade("Gold", "T001", 2000.0, 1, Instant.now());
+        tradeService.addTrades(List.of(recent));
+        String cursor = tradeService.getTradesPage(null, 10).nextCursor();
+
+        long evicted = tradeService.evictBefore(Instant.now().minusSeconds(7200));
+
+        // Only whole chunks are evicted; the one also holding the recent trade stays
+        assertEquals(ColumnarTradeStore.CHUNK_SIZE, evicted);
+        assertEquals(5001 - evicted, tradeService.getTradeCount());
+        assertEquals(Map.of("Gold", 5001), tradeService.getInsights().get("totalVolumeByCommodity"));
+
+        // Sub-hour candles go with the raw trades; hourly candles keep the history
+        assertTrue(tradeService.getCandles("Gold", "1s", old, old.plusSeconds(10)).isEmpty());
+        assertTrue(tradeService.getCandles("Gold", "1m", old, old.plusSeconds(60)).isEmpty());
+        assertEquals(5000, tradeService.getCandles("Gold", "1h", old, old.plusSeconds(3600)).get(0).tradeCount());
+
+        // Cursors issued before eviction skip the evicted rows instead of failing
+        assertEquals(10, tradeService.getTradesPage(cursor, 10).trades().size());
+
+        IllegalArgumentException tooOld = assertThrows(IllegalArgumentException.class,
+                () -> tradeService.addTrades(List.of(createTrade("Gold", "T002", 2000.0, 1, old))));
+        assertTrue(tooOld.getMessage().contains("older than the retention window"));
+        assertThrows(IllegalArgumentException.class, () -> tradeService.addTrades(List.of(recent)));
+    }
+
+    @Test
+    void testEstimatedHeapBytes_CoversAnalyticsAndFollowsEviction() {
+        assertEquals(0, tradeService.estimatedHeapBytes());
+
+        // One commodity's heavy-hitter counters alone are 32 KiB
+        tradeService.addTrades(List.of(createTrade("Gold", "T001", 2000.0, 1, Instant.now())));
+        assertTrue(tradeService.estimatedHeapBytes() > 32 * 1024);
+
+        Instant old = Instant.parse("2025-05-10T10:00:00Z");
+        List<Trade> oldTrades = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            oldTrades.add(createTrade("Gold", "T" + (i % 500), 2000.0, 1, old.plusMillis(i * 10L)));
+        }
+        tradeService.addTrades(oldTrades);
+        long loaded = tradeService.estimatedHeapBytes();
+
+        tradeService.evictBefore(Instant.now().minusSeconds(7200));
+        long evicted = tradeService.estimatedHeapBytes();
+
+        assertTrue(evicted < loaded);
+        assertTrue(evicted > 32 * 1024);
+    }
+
+    @Test
+    void testGetTrades_FilteredAndPagedAcrossShards() {
+        Instant base = Instant.parse("2025-05-10T10:00:00Z");
+        List<Trade> trades = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            trades.add(createTrade(i % 3 == 0 ? "Gold" : "Oil", "T" + (i % 30), 100.0, 1, base.plusSeconds(i)));
+        }
+        tradeService.addTrades(trades);
+
+        assertEquals(10, tradeService.getTrades(TradeFilter.of("T7", null, null, null)).size());
+        assertEquals(100, tradeService.getTrades(TradeFilter.of(null, "Gold", null, null)).size());
+        List<Trade> window = tradeService.getTrades(TradeFilter.of(null, "Gold", base.plusSeconds(60), base.plusSeconds(120)));
+        assertEquals(20, window.size());
+        assertTrue(window.stream().allMatch(t -> !t.getTimestamp().isBefore(base.plusSeconds(60))
+                && t.getTimestamp().isBefore(base.plusSeconds(120))));
+
+        // Gold trades spread over every shard; page through them 7 at a time
+        TradeFilter gold = TradeFilter.of(null, "Gold", null, null);
+        List<Trade> paged = new ArrayList<>();
+        String cursor = null;
+        TradePage page;
+        do {
+            page = tradeService.getTradesPage(cursor, 7, gold);
+            paged.addAll(page.trades());
+            cursor = page.nextCursor();
+        } while (page.hasMore());
+        assertEquals(100, paged.size());
+        assertEquals(100, paged.stream().map(Trade::getTimestamp).distinct().count());
+
+        List<Trade> streamed = new ArrayList<>();
+        tradeService.streamTrades(null, TradeFilter.of("T3", "Gold", null, null)).forEach(streamed::add);
+        assertEquals(10, streamed.size());
+    }
+
+    @Test
+    void testGetTradesPage_ArrivalOrderAcrossShardsAndPolling() {
+        Instant base = Instant.parse("2025-05-10T10:00:00Z");
+        List<Trade> expected = new ArrayList<>();
+        for (int b = 0; b < 5; b++) {
+            List<Trade> batch = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                batch.add(createTrade("Gold", "T" + ((i * 7 + b) % 23), 100.0, 1, base.plusSeconds(b * 40L + i)));
+            }
+            tradeService.addTrades(batch);
+            expected.addAll(batch);
+        }
+
+        List<Trade> paged = new ArrayList<>();
+        String cursor = null;
+        TradePage page;
+        do {
+            page = tradeService.getTradesPage(cursor, 9);
+            paged.addAll(page.trades());
+            cursor = page.nextCursor();
+        } while (page.hasMore());
+        assertEquals(expected.stream().map(Trade::getTimestamp).toList(), paged.stream().map(Trade::getTimestamp).toList());
+        assertEquals(expected.stream().map(Trade::getTimestamp).toList(),
+                tradeService.getAllTrades().stream().map(Trade::getTimestamp).toList());
+
+        // The last cursor picks up trades appended later, on any shard, and nothing before them
+        assertTrue(tradeService.getTradesPage(cursor, 9).trades().isEmpty());
+        Trade later = createTrade("Oil", "T999", 80.0, 1, base);
+        tradeService.addTrades(List.of(later));
+        TradePage polled = tradeService.getTradesPage(cursor, 9);
+        assertEquals(1, polled.trades().size());
+        assertEquals("T999", polled.trades().get(0).getTraderId());
+
+        List<Trade> streamed = new ArrayList<>();
+        tradeService.streamTrades(cursor).forEach(streamed::add);
+        assertEquals(List.of("T999"), streamed.stream().map(Trade::getTraderId).toList());
+    }
+
+    @Test
+    void testShardIndex_EveryShardUsedOnEachClusterNode() {
+        for (int nodes : new int[]{2, 4, 8}) {
+            List<Set<Integer>> shardsUsed = new ArrayList<>();
+            for (int node = 0; node < nodes; node++) {
+                shardsUsed.add(new HashSet<>());
+            }
+            for (int i = 0; i < 10_000; i++) {
+                String traderId = "T" + i;
+                shardsUsed.get(ClusterService.partitionOf(traderId, nodes)).add(TradeService.shardIndex(traderId, 8));
+            }
+            for (Set<Integer> used : shardsUsed) {
+                assertEquals(8, used.size(), nodes + " nodes");
+            }
+        }
+    }
 }
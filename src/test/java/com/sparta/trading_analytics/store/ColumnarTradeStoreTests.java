@@ -0,0 +1,162 @@
+package com.sparta.trading_analytics.store;
+
+import com.sparta.trading_analytics.model.Trade;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.sparta.trading_analytics.util.TestDataUtil.createTrade;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnarTradeStoreTests {
+
+    @Test
+    void testAppend_RoundTripsAllFields() {
+        ColumnarTradeStore store = new ColumnarTradeStore();
+        Instant timestamp = Instant.parse("2025-05-10T10:00:00.123456789Z");
+        store.append(List.of(createTrade("Gold", "T001", 2025.75, 50, timestamp)));
+
+        Trade trade = store.snapshot().get(0);
+        assertEquals("Gold", trade.getCommodity());
+        assertEquals("T001", trade.getTraderId());
+        assertEquals(2025.75, trade.getPrice());
+        assertEquals(50, trade.getQuantity());
+        assertEquals(timestamp, trade.getTimestamp());
+    }
+
+    @Test
+    void testAppend_AcrossChunkBoundaries() {
+        ColumnarTradeStore store = new ColumnarTradeStore();
+        int count = ColumnarTradeStore.CHUNK_SIZE * 20 + 7;
+        Instant base = Instant.parse("2025-05-10T10:00:00Z");
+
+        List<Trade> batch = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            batch.add(createTrade("C" + (i % 3), "T" + (i % 100), 1.0 + i, i + 1, base.plusMillis(i)));
+        }
+        store.append(batch);
+
+        TradeSnapshot snapshot = store.snapshot();
+        assertEquals(count, snapshot.size());
+        assertEquals(3, snapshot.commodities().size());
+        assertEquals(100, snapshot.traders().size());
+
+        long row = count - 1;
+        assertEquals("C" + (row % 3), snapshot.get(row).getCommodity());
+        assertEquals(count, snapshot.quantity(row));
+        assertEquals(base.plusMillis(row), snapshot.get(row).getTimestamp());
+    }
+
+    @Test
+    void testSnapshot_DoesNotSeeLaterAppends() {
+        ColumnarTradeStore store = new ColumnarTradeStore();
+        store.append(List.of(createTrade("Gold", "T001", 2000.0, 50, Instant.now())));
+
+        TradeSnapshot snapshot = store.snapshot();
+        store.append(List.of(createTrade("Silver", "T002", 25.0, 100, Instant.now())));
+
+        assertEquals(1, snapshot.size());
+        assertEquals(2, store.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> snapshot.get(1));
+    }
+
+    @Test
+    void testEvictBefore_DropsOnlyFullyAgedChunks() {
+        ColumnarTradeStore store = new ColumnarTradeStore();
+        Instant base = Instant.parse("2025-05-10T10:00:00Z");
+        int count = ColumnarTradeStore.CHUNK_SIZE * 3 + 10;
+
+        List<Trade> batch = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            batch.add(createTrade("Gold", "T001", 2000.0, 1, base.plusSeconds(i)));
+        }
+        store.append(batch);
+        TradeSnapshot before = store.snapshot();
+
+        // Cut-off inside the second chunk: only the first chunk is entirely older
+        long cutoff = EpochNanos.of(base.plusSeconds(ColumnarTradeStore.CHUNK_SIZE + 5));
+        assertEquals(ColumnarTradeStore.CHUNK_SIZE, store.evictBefore(cutoff));
+
+        TradeSnapshot after = store.snapshot();
+        assertEquals(count - ColumnarTradeStore.CHUNK_SIZE, after.size());
+        assertEquals(ColumnarTradeStore.CHUNK_SIZE, after.firstRow());
+        assertEquals(base.plusSeconds(ColumnarTradeStore.CHUNK_SIZE), after.get(0).getTimestamp());
+
+        // The partially filled tail chunk is never evicted, and older snapshots still read their rows
+        assertEquals(ColumnarTradeStore.CHUNK_SIZE * 2, store.evictBefore(Long.MAX_VALUE));
+        assertEquals(10, store.size());
+        assertEquals(base, before.get(0).getTimestamp());
+
+        store.append(List.of(createTrade("Gold", "T001", 2000.0, 1, base.plusSeconds(count))));
+        assertEquals(11, store.snapshot().size());
+        assertEquals(base.plusSeconds(count), store.snapshot().get(10).getTimestamp());
+    }
+
+    @Test
+    void testFindRows_CombinesIndexedFilters() {
+        ColumnarTradeStore store = new ColumnarTradeStore();
+        Instant base = Instant.parse("2025-05-10T10:00:00Z");
+        List<Trade> batch = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            // Every trader trades every commodity; one trade per second
+            batch.add(createTrade(i % 2 == 0 ? "Gold" : "Oil", "T" + (i % 10), 100.0, 1, base.plusSeconds(i)));
+        }
+        store.append(batch);
+
+        TradeFilter trader = new TradeFilter("T3", null, Long.MIN_VALUE, Long.MAX_VALUE);
+        long[] rows = store.findRows(trader, 0, Integer.MAX_VALUE);
+        assertEquals(1_000, rows.length);
+        assertEquals(3, rows[0]);
+        assertEquals(13, rows[1]);
+
+        // Trader + commodity + [10:01:00, 10:02:00): rows 60..119 for T4 (even rows are Gold)
+        TradeFilter combined = TradeFilter.of("T4", "Gold", base.plusSeconds(60), base.plusSeconds(120));
+        assertArrayEquals(new long[]{64, 74, 84, 94, 104, 114}, store.findRows(combined, 0, Integer.MAX_VALUE));
+        assertArrayEquals(new long[]{84, 94}, store.findRows(combined, 80, 2));
+
+        // Time range alone, not aligned to index buckets
+        TradeFilter range = TradeFilter.of(null, null, base.plusSeconds(30), base.plusSeconds(95));
+        long[] inRange = store.findRows(range, 0, Integer.MAX_VALUE);
+        assertEquals(65, inRange.length);
+        assertEquals(30, inRange[0]);
+        assertEquals(94, inRange[64]);
+
+        assertEquals(0, store.findRows(TradeFilter.of("T3", "Gold", null, null), 0, 10).length);
+        assertEquals(0, store.findRows(TradeFilter.of("Unknown", null, null, null), 0, 10).length);
+
+        // Indexes are trimmed with the evicted rows
+        store.evictBefore(EpochNanos.of(base.plusSeconds(ColumnarTradeStore.CHUNK_SIZE)));
+        long[] retained = store.findRows(trader, 0, Integer.MAX_VALUE);
+        assertEquals(ColumnarTradeStore.CHUNK_SIZE, store.snapshot().firstRow());
+        assertEquals(4103, retained[0]);
+        assertEquals(1_000 - 410, retained.length);
+    }
+
+    @Test
+    void testFindRows_TimeRangeFollowsTimestampsNotArrivalOrder() {
+        ColumnarTradeStore store = new ColumnarTradeStore();
+        Instant base = Instant.parse("2025-05-10T10:00:00Z");
+        List<Trade> batch = new ArrayList<>();
+        // The second chunk arrives with timestamps older than the first, the third with newer ones
+        for (int i = 0; i < ColumnarTradeStore.CHUNK_SIZE * 3; i++) {
+            int chunk = i / ColumnarTradeStore.CHUNK_SIZE;
+            long second = (chunk == 1 ? -ColumnarTradeStore.CHUNK_SIZE : chunk * ColumnarTradeStore.CHUNK_SIZE)
+                    + i % ColumnarTradeStore.CHUNK_SIZE;
+            batch.add(createTrade("Gold", "T" + (i % 10), 100.0, 1, base.plusSeconds(second)));
+        }
+        store.append(batch);
+
+        long[] older = store.findRows(TradeFilter.of(null, null, base.minusSeconds(10), base.plusSeconds(5)), 0, Integer.MAX_VALUE);
+        // Rows come back in row order: the start of the first chunk, then the tail of the second
+        assertEquals(15, older.length);
+        assertEquals(4, older[4]);
+        assertEquals(ColumnarTradeStore.CHUNK_SIZE * 2L - 10, older[5]);
+
+        // Trader posting list combined with a range narrower than it
+        long[] traderInRange = store.findRows(TradeFilter.of("T2", null, base.minusSeconds(20), base), 0, Integer.MAX_VALUE);
+        assertArrayEquals(new long[]{ColumnarTradeStore.CHUNK_SIZE * 2L - 20, ColumnarTradeStore.CHUNK_SIZE * 2L - 10},
+                traderInRange);
+    }
+}